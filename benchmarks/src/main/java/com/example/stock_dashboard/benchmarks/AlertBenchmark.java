@@ -0,0 +1,64 @@
+package com.example.stock_dashboard.benchmarks;
+
+import com.example.stock_dashboard.model.Alert;
+import com.example.stock_dashboard.model.AlertRule;
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import com.example.stock_dashboard.service.AlertIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-tick alert evaluation with up to 10^5 active rules on one symbol: price levels spread over
+// +-10% of the price, percent-move thresholds and MA crosses. Rules repeat, so the set stays the
+// same size; a tick should only cost the rules whose levels it actually crosses.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertBenchmark {
+
+    private static final long WINDOW_MILLIS = 300_000;
+
+    @Param({"1000", "100000"})
+    private int rules;
+
+    private AlertIndex index;
+    private SplittableRandom random;
+    private double price;
+    private long epochMillis;
+
+    @Setup
+    public void setUp() {
+        index = new AlertIndex("AAPL");
+        random = new SplittableRandom(42);
+        price = 150;
+        epochMillis = System.currentTimeMillis();
+        AlertRule.Direction[] directions = AlertRule.Direction.values();
+        for (int i = 0; i < rules; i++) {
+            AlertRule.Direction direction = directions[i % directions.length];
+            AlertRule rule = switch (i % 10) {
+                case 0 -> new AlertRule(i, "user" + i, "AAPL", AlertRule.Type.PERCENT_MOVE, direction,
+                        0.5 + random.nextDouble() * 5, WINDOW_MILLIS, true);
+                case 1 -> new AlertRule(i, "user" + i, "AAPL", AlertRule.Type.MA_CROSS, direction, 0, 0, true);
+                default -> new AlertRule(i, "user" + i, "AAPL", AlertRule.Type.PRICE_CROSS, direction,
+                        price * (0.9 + random.nextDouble() * 0.2), 0, true);
+            };
+            index.add(rule);
+        }
+    }
+
+    @Benchmark
+    public List<Alert> onTick() {
+        // Ticks of a few basis points, as the simulated source produces
+        price += (random.nextDouble() - 0.5) * 0.1;
+        epochMillis += 250;
+        AnalyticsSnapshot.WindowStats window = new AnalyticsSnapshot.WindowStats("5m", WINDOW_MILLIS, 1200, 150,
+                price, price, price, 0);
+        return index.onTick(new AnalyticsSnapshot("AAPL", 1200, epochMillis, price, 150, price, price, price, 0,
+                price + Math.sin(epochMillis / 60_000.0), price, price, List.of(window)));
+    }
+}
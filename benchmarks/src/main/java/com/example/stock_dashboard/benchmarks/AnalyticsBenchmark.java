@@ -0,0 +1,73 @@
+package com.example.stock_dashboard.benchmarks;
+
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import com.example.stock_dashboard.service.RollingAnalytics;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Analytics over 10^3 .. 10^7 ticks of history:
+//   onTick  - the per-tick update getStockAnalytics reads from; should stay flat as history grows
+//   rebuild - analytics built from the seeded history, as a warm start or a symbol with no rolling
+//             state has to; the cold path, linear in the history
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AnalyticsBenchmark {
+
+    private static final List<Duration> WINDOWS = List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1));
+
+    @Param({"1000", "100000", "10000000"})
+    private int historyTicks;
+
+    private long[] timestamps;
+    private double[] prices;
+    private RollingAnalytics analytics;
+    private long epochMillis;
+    private double price;
+
+    @Setup
+    public void setUp() {
+        timestamps = new long[historyTicks];
+        prices = new double[historyTicks];
+        // One tick every 250ms, the fastest refresh cadence
+        epochMillis = System.currentTimeMillis() - historyTicks * 250L;
+        price = 150;
+        for (int i = 0; i < historyTicks; i++) {
+            epochMillis += 250;
+            price += Math.sin(epochMillis / 60_000.0) * 0.05;
+            timestamps[i] = epochMillis;
+            prices[i] = price;
+        }
+        analytics = newAnalytics();
+        for (int i = 0; i < historyTicks; i++) {
+            analytics.onTick(timestamps[i], prices[i]);
+        }
+    }
+
+    private static RollingAnalytics newAnalytics() {
+        return new RollingAnalytics("AAPL", WINDOWS, 12, 26);
+    }
+
+    @Benchmark
+    public AnalyticsSnapshot onTick() {
+        epochMillis += 250;
+        price += Math.sin(epochMillis / 60_000.0) * 0.05;
+        return analytics.onTick(epochMillis, price);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AnalyticsSnapshot rebuild() {
+        RollingAnalytics rebuilt = newAnalytics();
+        for (int i = 0; i < historyTicks; i++) {
+            rebuilt.onTick(timestamps[i], prices[i]);
+        }
+        return rebuilt.getSnapshot();
+    }
+}
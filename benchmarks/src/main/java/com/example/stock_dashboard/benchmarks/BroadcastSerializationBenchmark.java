@@ -0,0 +1,60 @@
+package com.example.stock_dashboard.benchmarks;
+
+import com.example.stock_dashboard.model.Stock;
+import com.example.stock_dashboard.service.QuoteCodec;
+import com.example.stock_dashboard.service.SymbolRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encoding one board broadcast (List<Stock>), as done once per frame by StompBroadcaster: JSON with
+// the ObjectMapper settings Spring Boot uses, against the QuoteCodec binary layout
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastSerializationBenchmark {
+
+    @Param({"6", "100", "1000"})
+    private int boardSize;
+
+    private List<Stock> board;
+    private ObjectMapper objectMapper;
+    private QuoteCodec codec;
+    private AnnotationConfigApplicationContext codecContext;
+
+    @Setup
+    public void setUp() {
+        board = new ArrayList<>(boardSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < boardSize; i++) {
+            board.add(new Stock("SYM" + i, 100 + i * 1.37, 0.42 - i * 0.01, 0.31, now.plusNanos(i * 1_000_000L), i));
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        codecContext = new AnnotationConfigApplicationContext(SymbolRegistry.class, QuoteCodec.class);
+        codec = codecContext.getBean(QuoteCodec.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        codecContext.close();
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return objectMapper.writeValueAsBytes(board);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return codec.encodeQuotes(board);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.stock_dashboard.benchmarks;
+
+import com.example.stock_dashboard.model.QuoteRecord;
+import com.example.stock_dashboard.service.AlphaVantageResponseParser;
+import com.example.stock_dashboard.service.AlphaVantageResponseParser.Outcome;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// Streaming parse of Alpha Vantage responses: one GLOBAL_QUOTE, a 100-symbol REALTIME_BULK_QUOTES page,
+// and TIME_SERIES_INTRADAY at compact (100 bars) and full (~5000 bars, a month of 5min bars) output sizes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    private final AlphaVantageResponseParser parser = new AlphaVantageResponseParser(new JsonFactory());
+    private final QuoteRecord record = new QuoteRecord();
+    private byte[] globalQuote;
+    private byte[] bulkQuotes;
+
+    @Setup
+    public void setUp() {
+        globalQuote = """
+                {"Global Quote": {"01. symbol": "IBM", "02. open": "133.0000", "03. high": "135.2000",
+                 "04. low": "132.8000", "05. price": "134.5100", "06. volume": "3200100",
+                 "07. latest trading day": "2024-01-05", "08. previous close": "135.0300",
+                 "09. change": "-0.5200", "10. change percent": "-0.3851%"}}""".getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder bulk = new StringBuilder("{\"data\": [");
+        for (int i = 0; i < 100; i++) {
+            bulk.append(i == 0 ? "" : ",").append(String.format("{\"symbol\": \"SYM%d\", \"timestamp\": \"2024-01-05 16:00:00\", " +
+                    "\"open\": \"%.4f\", \"high\": \"%.4f\", \"low\": \"%.4f\", \"close\": \"%.4f\", \"volume\": \"%d\", " +
+                    "\"previous_close\": \"%.4f\", \"change\": \"0.5000\", \"change_percent\": \"0.3712\"}",
+                    i, 100.0 + i, 101.0 + i, 99.0 + i, 100.5 + i, 10_000 + i, 100.0 + i));
+        }
+        bulkQuotes = bulk.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Outcome globalQuote() throws IOException {
+        return parser.parseGlobalQuote(new ByteArrayInputStream(globalQuote), record);
+    }
+
+    @Benchmark
+    public Outcome bulkQuotes(Blackhole blackhole) throws IOException {
+        return parser.parseBulkQuotes(new ByteArrayInputStream(bulkQuotes), record, blackhole::consume);
+    }
+
+    @Benchmark
+    public Outcome intraday(IntradayPayload payload, Blackhole blackhole) throws IOException {
+        return parser.parseIntraday(new ByteArrayInputStream(payload.json), record,
+                (ts, open, high, low, close, volume) -> blackhole.consume(close));
+    }
+
+    // Only the intraday benchmark depends on the response size
+    @State(Scope.Benchmark)
+    public static class IntradayPayload {
+
+        @Param({"100", "5000"})
+        private int bars;
+
+        private byte[] json;
+
+        @Setup
+        public void setUp() {
+            DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            LocalDateTime ts = LocalDateTime.of(2024, 1, 5, 16, 0);
+            StringBuilder body = new StringBuilder("""
+                    {"Meta Data": {"1. Information": "Intraday (5min)", "2. Symbol": "IBM", "6. Time Zone": "US/Eastern"},
+                     "Time Series (5min)": {""");
+            for (int i = 0; i < bars; i++) {
+                double close = 134 + Math.sin(i / 10.0);
+                body.append(i == 0 ? "" : ",").append('"').append(ts.minusMinutes(5L * i).format(format))
+                        .append(String.format("\": {\"1. open\": \"%.4f\", \"2. high\": \"%.4f\", \"3. low\": \"%.4f\", " +
+                                "\"4. close\": \"%.4f\", \"5. volume\": \"%d\"}", close - 0.1, close + 0.2, close - 0.2, close, 1000 + i));
+            }
+            json = body.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
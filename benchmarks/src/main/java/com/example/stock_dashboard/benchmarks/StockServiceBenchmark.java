@@ -0,0 +1,113 @@
+package com.example.stock_dashboard.benchmarks;
+
+import com.example.stock_dashboard.StockDashboardApplication;
+import com.example.stock_dashboard.model.HistoryStats;
+import com.example.stock_dashboard.model.Stock;
+import com.example.stock_dashboard.model.StockPriceHistory;
+import com.example.stock_dashboard.repo.StockHistoryRepository;
+import com.example.stock_dashboard.service.AnalyticsEngine;
+import com.example.stock_dashboard.service.HistoryStatsTracker;
+import com.example.stock_dashboard.service.PriceSeriesStore;
+import com.example.stock_dashboard.service.StockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The service paths behind the REST API, on a booted application with the simulated feed and
+// historyRows rows already in stock_price_history (and fed to the analytics, as a warm start would):
+//   updateStockPrice  - fetch, board update, history ring, analytics, tick store, write-behind enqueue
+//   databaseStats     - /api/stocks/database/stats (incrementally maintained counters)
+//   aggregateStats    - the COUNT/MIN/MAX query those counters replace, for comparison
+//   analytics         - /api/stocks/{symbol}/analytics right after a tick, so the response is built
+//                       from a new snapshot rather than served from the per-snapshot cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockServiceBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", "META"};
+
+    @Param({"1000", "100000"})
+    private int historyRows;
+
+    private Path ticks;
+    private ConfigurableApplicationContext context;
+    private StockService stockService;
+    private StockHistoryRepository historyRepository;
+    private AnalyticsEngine analyticsEngine;
+    private long epochMillis;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        ticks = Files.createTempDirectory("bench-ticks");
+        // Passed as arguments: builder properties() are defaults and lose to application.properties
+        context = new SpringApplicationBuilder(StockDashboardApplication.class)
+                .run("--server.port=0",
+                        "--stock.data-source=simulated",
+                        "--stock.tickstore.dir=" + ticks,
+                        "--stock.retention.enabled=false",
+                        "--stock.refresh.base-interval-ms=3600000",
+                        "--stock.refresh.min-interval-ms=3600000",
+                        "--stock.refresh.max-interval-ms=3600000");
+        stockService = context.getBean(StockService.class);
+        historyRepository = context.getBean(StockHistoryRepository.class);
+        analyticsEngine = context.getBean(AnalyticsEngine.class);
+        PriceSeriesStore seriesStore = context.getBean(PriceSeriesStore.class);
+
+        // One row per millisecond, ending before the benchmark's ticks start
+        epochMillis = System.currentTimeMillis() - historyRows;
+        List<StockPriceHistory> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < historyRows; i++, epochMillis++) {
+            StockPriceHistory row = new StockPriceHistory(SYMBOLS[i % SYMBOLS.length], 100 + (i % 500) * 0.1);
+            row.setTimestamp(seriesStore.toLocalDateTime(epochMillis));
+            analyticsEngine.onTick(row.getSymbol(), epochMillis, row.getPrice());
+            batch.add(row);
+            if (batch.size() == 10_000) {
+                historyRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        historyRepository.saveAll(batch);
+        context.getBean(HistoryStatsTracker.class).initialize();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        context.close();
+        FileSystemUtils.deleteRecursively(ticks);
+    }
+
+    @Benchmark
+    public Stock updateStockPrice() {
+        return stockService.updateStockPrice(SYMBOLS[next++ % SYMBOLS.length]).join();
+    }
+
+    @Benchmark
+    public Map<String, Object> databaseStats() {
+        return stockService.getDatabaseStats();
+    }
+
+    @Benchmark
+    public HistoryStats aggregateStats() {
+        return historyRepository.aggregateStats();
+    }
+
+    @Benchmark
+    public Map<String, Object> analytics() {
+        String symbol = SYMBOLS[next++ % SYMBOLS.length];
+        analyticsEngine.onTick(symbol, epochMillis++, 100 + next % 500 * 0.1);
+        return stockService.getStockAnalytics(symbol);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.stock_dashboard;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -8,13 +10,15 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableScheduling
 public class StockDashboardApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(StockDashboardApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(StockDashboardApplication.class, args);
 
         greet();
     }
     public static void greet() {
-        System.out.println("Hello World!");
+        log.info("Hello World!");
     }
 }
 
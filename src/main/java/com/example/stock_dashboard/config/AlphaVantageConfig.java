@@ -3,7 +3,9 @@ package com.example.stock_dashboard.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 @Configuration
 public class AlphaVantageConfig {
@@ -14,9 +16,32 @@ public class AlphaVantageConfig {
     @Value("${alpha.vantage.api.url:https://www.alphavantage.co/query}")
     private String apiUrl;
 
+    @Value("${alpha.vantage.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${alpha.vantage.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    @Value("${alpha.vantage.rate-limit.requests-per-minute:5}")
+    private double requestsPerMinute;
+
+    @Value("${alpha.vantage.rate-limit.burst:5}")
+    private int burst;
+
+    @Value("${alpha.vantage.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${alpha.vantage.max-queue-wait-ms:15000}")
+    private long maxQueueWaitMs;
+
+    // Non-blocking client; keeps HTTP/1.1 connections alive and pools them per host
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient alphaVantageHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
     }
 
     public String getApiKey() {
@@ -26,4 +51,24 @@ public class AlphaVantageConfig {
     public String getApiUrl() {
         return apiUrl;
     }
-}
\ No newline at end of file
+
+    public Duration getRequestTimeout() {
+        return Duration.ofMillis(requestTimeoutMs);
+    }
+
+    public double getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public long getMaxQueueWaitMs() {
+        return maxQueueWaitMs;
+    }
+}
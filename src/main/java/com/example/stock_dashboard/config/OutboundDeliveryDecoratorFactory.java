@@ -0,0 +1,72 @@
+package com.example.stock_dashboard.config;
+
+import com.example.stock_dashboard.service.BroadcastMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Hands the STOMP handler each session wrapped so that a MESSAGE frame counts as delivered only once
+// it is written to the socket. The STOMP handler buffers frames for a busy session in its own
+// ConcurrentWebSocketSessionDecorator, which is where a slow client's backlog builds up; counting
+// below that buffer lets OutboundFlowControlInterceptor drop frames before the buffer hits its limit.
+@Component
+public class OutboundDeliveryDecoratorFactory implements WebSocketHandlerDecoratorFactory {
+
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private BroadcastMetrics metrics;
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(decorate(session));
+            }
+        };
+    }
+
+    public WebSocketSession decorate(WebSocketSession session) {
+        return new WebSocketSessionDecorator(session) {
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) throws IOException {
+                long start = System.nanoTime();
+                super.sendMessage(message);
+                if (isMessageFrame(message)) {
+                    metrics.frameWritten(getId(), System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    private static boolean isMessageFrame(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage text) {
+            return text.getPayload().startsWith("MESSAGE\n");
+        }
+        if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload();
+            if (payload.remaining() < MESSAGE_COMMAND.length) {
+                return false;
+            }
+            for (int i = 0; i < MESSAGE_COMMAND.length; i++) {
+                if (payload.get(payload.position() + i) != MESSAGE_COMMAND[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.stock_dashboard.config;
+
+import com.example.stock_dashboard.service.BroadcastMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+// Sits on the client outbound channel. A frame stays pending from here until it is written to the socket
+// (see OutboundDeliveryDecoratorFactory), so the count covers the channel queue and the session's send
+// buffer. A session with too many pending frames gets new MESSAGE frames dropped instead of its backlog
+// growing until the transport closes it; clients notice the seq gap and resync.
+@Component
+public class OutboundFlowControlInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String ENQUEUED_AT = "stockDashboard.enqueuedAt";
+
+    @Autowired
+    private BroadcastMetrics metrics;
+
+    @Value("${stock.websocket.max-pending-frames-per-session:256}")
+    private int maxPendingFrames;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = broadcastSessionId(message);
+        if (sessionId == null) {
+            return message;
+        }
+
+        if (metrics.framePending(sessionId) > maxPendingFrames) {
+            metrics.frameDropped(sessionId);
+            return null;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setHeader(ENQUEUED_AT, System.nanoTime());
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // e.g. the outbound executor rejected the task
+        String sessionId = broadcastSessionId(message);
+        if (!sent && sessionId != null) {
+            metrics.frameDropped(sessionId);
+        }
+    }
+
+    // The frame is now written or buffered in the session; failing here means it never got that far
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        String sessionId = broadcastSessionId(message);
+        if (sessionId == null) {
+            return;
+        }
+        if (ex != null) {
+            metrics.frameDropped(sessionId);
+        } else if (message.getHeaders().get(ENQUEUED_AT) instanceof Long start) {
+            metrics.frameHandedOff(System.nanoTime() - start);
+        }
+    }
+
+    private static String broadcastSessionId(Message<?> message) {
+        return SimpMessageType.MESSAGE.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))
+                ? SimpMessageHeaderAccessor.getSessionId(message.getHeaders())
+                : null;
+    }
+}
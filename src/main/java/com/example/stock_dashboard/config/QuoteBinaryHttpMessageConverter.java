@@ -0,0 +1,74 @@
+package com.example.stock_dashboard.config;
+
+import com.example.stock_dashboard.model.Stock;
+import com.example.stock_dashboard.service.QuoteCodec;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+// Writes Stock and lists of Stock as QuoteCodec messages when the client sends
+// Accept: application/x-stock-quotes. Registered after the default converters (see WebConfig) so
+// that JSON stays the default for clients that accept anything.
+public class QuoteBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final QuoteCodec codec;
+
+    public QuoteBinaryHttpMessageConverter(QuoteCodec codec) {
+        super(MediaType.parseMediaType(QuoteCodec.MEDIA_TYPE));
+        this.codec = codec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Stock.class.isAssignableFrom(clazz);
+    }
+
+    // The layout only holds whole quotes: collections are writable only when their declared element
+    // type is Stock, so anything else (projections, history, analytics) is answered with 406
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        if (resolved.toClass() == Object.class) {
+            resolved = ResolvableType.forClass(clazz);
+        }
+        return isQuotes(resolved) && canWrite(mediaType);
+    }
+
+    private static boolean isQuotes(ResolvableType type) {
+        if (Stock.class.isAssignableFrom(type.toClass())) {
+            return true;
+        }
+        return Collection.class.isAssignableFrom(type.toClass())
+                && Stock.class.isAssignableFrom(type.asCollection().getGeneric(0).toClass());
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        return readInternal(Object.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Reading " + QuoteCodec.MEDIA_TYPE + " is not supported", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Collection<Stock> stocks = body instanceof Stock stock ? List.of(stock) : (Collection<Stock>) body;
+        outputMessage.getBody().write(codec.encodeQuotes(stocks));
+    }
+}
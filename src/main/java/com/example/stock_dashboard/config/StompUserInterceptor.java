@@ -0,0 +1,35 @@
+package com.example.stock_dashboard.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+// Names a WebSocket session after the "user" header of its STOMP CONNECT frame, so messages sent to
+// that user (alerts on /user/queue/alerts) reach it. There is no authentication; the name only
+// routes a client's own alerts.
+@Component
+public class StompUserInterceptor implements ChannelInterceptor {
+
+    public static final String USER_HEADER = "user";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand()) || accessor.getUser() != null) {
+            return message;
+        }
+        String user = accessor.getFirstNativeHeader(USER_HEADER);
+        if (user != null && !user.isBlank()) {
+            String name = user.trim();
+            Principal principal = () -> name;
+            accessor.setUser(principal);
+        }
+        return message;
+    }
+}
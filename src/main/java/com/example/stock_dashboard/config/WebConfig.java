@@ -0,0 +1,22 @@
+package com.example.stock_dashboard.config;
+
+import com.example.stock_dashboard.service.QuoteCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private QuoteCodec quoteCodec;
+
+    // Appended, not prepended: with Accept: */* the first converter that can write wins
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new QuoteBinaryHttpMessageConverter(quoteCodec));
+    }
+}
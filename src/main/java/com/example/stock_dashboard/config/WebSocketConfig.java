@@ -1,18 +1,73 @@
 package com.example.stock_dashboard.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private OutboundFlowControlInterceptor outboundFlowControlInterceptor;
+
+    @Autowired
+    private StompUserInterceptor stompUserInterceptor;
+
+    @Autowired
+    private OutboundDeliveryDecoratorFactory outboundDeliveryDecoratorFactory;
+
+    @Value("${stock.websocket.outbound.pool-size:0}")
+    private int outboundPoolSize;
+
+    @Value("${stock.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${stock.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${stock.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${stock.cluster.broker-relay.enabled:false}")
+    private boolean brokerRelay;
+
+    @Value("${stock.cluster.broker-relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${stock.cluster.broker-relay.port:61613}")
+    private int relayPort;
+
+    @Value("${stock.cluster.broker-relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${stock.cluster.broker-relay.passcode:guest}")
+    private String relayPasscode;
+
+    // In cluster mode subscriptions live on an external STOMP broker, so a frame sent by any node
+    // reaches clients connected to every node
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if (brokerRelay) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // User destinations (alerts) of sessions connected to other nodes
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -21,5 +76,33 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        // Plain WebSocket for clients of the binary destinations
+        registry.addEndpoint("/ws-binary")
+                .setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompUserInterceptor);
+    }
+
+    // Fan-out runs on the outbound channel: one task per subscriber per frame
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        int poolSize = outboundPoolSize > 0 ? outboundPoolSize : Runtime.getRuntime().availableProcessors() * 2;
+        registration.taskExecutor()
+                .corePoolSize(poolSize)
+                .maxPoolSize(poolSize)
+                .queueCapacity(outboundQueueCapacity);
+        registration.interceptors(outboundFlowControlInterceptor);
+    }
+
+    // Hard per-session limits; a session that stays over them is closed by the transport. The
+    // interceptor's pending-frame limit is meant to drop frames well before that.
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .addDecoratorFactory(outboundDeliveryDecoratorFactory);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.example.stock_dashboard.controller;
+
+import com.example.stock_dashboard.model.AlertRule;
+import com.example.stock_dashboard.service.AlertEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Alert rules; fired alerts arrive on /user/queue/alerts for sessions that connected with the same user
+@RestController
+@RequestMapping("/api/alerts")
+public class AlertController {
+
+    @Autowired
+    private AlertEngine alertEngine;
+
+    // level: price (PRICE_CROSS) or percent (PERCENT_MOVE); window: one of the analytics windows, e.g. 5m
+    public record RuleRequest(String user, String symbol, AlertRule.Type type, AlertRule.Direction direction,
+                              Double level, String window, Boolean repeat) {
+    }
+
+    @PostMapping("/rules")
+    public ResponseEntity<?> addRule(@RequestBody RuleRequest request) {
+        try {
+            Duration window = request.window() == null ? null : DurationStyle.detectAndParse(request.window());
+            AlertRule rule = alertEngine.addRule(request.user(), request.symbol(), request.type(), request.direction(),
+                    request.level() == null ? Double.NaN : request.level(), window,
+                    Boolean.TRUE.equals(request.repeat()));
+            return ResponseEntity.ok(rule);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/rules")
+    public List<AlertRule> getRules(@RequestParam String user) {
+        return alertEngine.getRules(user);
+    }
+
+    @GetMapping("/rules/{id}")
+    public ResponseEntity<AlertRule> getRule(@PathVariable long id) {
+        AlertRule rule = alertEngine.getRule(id);
+        return rule == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(rule);
+    }
+
+    @DeleteMapping("/rules/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable long id) {
+        return alertEngine.removeRule(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.stock_dashboard.controller;
 
 import com.example.stock_dashboard.model.Stock;
-import com.example.stock_dashboard.model.StockPriceHistory;
+import com.example.stock_dashboard.model.PricePoint;
+import com.example.stock_dashboard.service.QuoteBoard;
+import com.example.stock_dashboard.service.QuoteCodec;
 import com.example.stock_dashboard.service.StockService;
+import com.example.stock_dashboard.service.SymbolRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/stocks")
@@ -16,13 +29,179 @@ public class StockController {
     @Autowired
     private StockService stockService;
 
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Value("${stock.api.max-bulk-symbols:200}")
+    private int maxBulkSymbols;
+
+    private static final Set<String> STOCK_FIELDS = Set.of("price", "change", "changePercent", "lastUpdated", "version");
+
+    // Number of tracked symbols, on responses that page through them
+    private static final String TOTAL_COUNT = "X-Total-Count";
+
+    // Board or a subset of it (?symbols=AAPL,MSFT, or ?page=&size= of the tracked symbols), optionally
+    // projected to some fields (?fields=price,changePercent). Answers 304 while none of the requested
+    // quotes has changed.
     @GetMapping
-    public List<Stock> getAllStocks() {
-        return stockService.getAllStocks();
+    public Object getStocks(@RequestParam(required = false) List<String> symbols,
+                            @RequestParam(required = false) List<String> fields,
+                            @RequestParam(defaultValue = "0") int page,
+                            @RequestParam(required = false) Integer size,
+                            WebRequest request) {
+        if (symbols == null && fields == null && page == 0 && size == null) {
+            QuoteBoard.Snapshot board = stockService.getBoard();
+            if (request.checkNotModified(stockService.versionTag(List.of(), "board-" + board.version()))) {
+                return null;
+            }
+            return board.stocks();
+        }
+
+        String error = checkBulk(symbols, page, size);
+        if (error == null && fields != null && !STOCK_FIELDS.containsAll(fields)) {
+            error = "fields must be among " + STOCK_FIELDS;
+        }
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        List<String> requested = requestedSymbols(symbols, page, size);
+        if (request.checkNotModified(stockService.versionTag(requested, "stocks-" + fields + variant(symbols)))) {
+            return null;
+        }
+
+        List<Stock> stocks = stockService.getStocks(requested);
+        if (fields == null) {
+            return bulkResponse(symbols, stocks);
+        }
+        List<Map<String, Object>> projected = new ArrayList<>(stocks.size());
+        for (Stock stock : stocks) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("symbol", stock.getSymbol());
+            for (String field : fields) {
+                row.put(field, switch (field) {
+                    case "price" -> stock.getPrice();
+                    case "change" -> stock.getChange();
+                    case "changePercent" -> stock.getChangePercent();
+                    case "lastUpdated" -> stock.getLastUpdated();
+                    default -> stock.getVersion();
+                });
+            }
+            projected.add(row);
+        }
+        return bulkResponse(symbols, projected);
+    }
+
+    // The same quotes as QuoteCodec messages. Declared as a list of Stock so the binary converter can
+    // tell it apart from the other bulk responses; projections are only served as JSON.
+    @GetMapping(produces = QuoteCodec.MEDIA_TYPE)
+    public ResponseEntity<List<Stock>> getQuotes(@RequestParam(required = false) List<String> symbols,
+                                                 @RequestParam(required = false) List<String> fields,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(required = false) Integer size,
+                                                 WebRequest request) {
+        if (fields != null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        if (symbols == null && page == 0 && size == null) {
+            QuoteBoard.Snapshot board = stockService.getBoard();
+            if (request.checkNotModified(stockService.versionTag(List.of(), "quotes-board-" + board.version()))) {
+                return null;
+            }
+            return ResponseEntity.ok(board.stocks());
+        }
+
+        if (checkBulk(symbols, page, size) != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> requested = requestedSymbols(symbols, page, size);
+        if (request.checkNotModified(stockService.versionTag(requested, "quotes" + variant(symbols)))) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (symbols == null) {
+            response.header(TOTAL_COUNT, String.valueOf(stockService.getTrackedSymbols().size()));
+        }
+        return response.body(stockService.getStocks(requested));
+    }
+
+    // Analytics of several symbols (a page of the tracked symbols when none are given) in one response
+    @GetMapping("/analytics")
+    public Object getBulkAnalytics(@RequestParam(required = false) List<String> symbols,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(required = false) Integer size,
+                                   WebRequest request) {
+        String error = checkBulk(symbols, page, size);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        List<String> requested = requestedSymbols(symbols, page, size);
+        if (request.checkNotModified(stockService.versionTag(requested, "analytics" + variant(symbols)))) {
+            return null;
+        }
+        return bulkResponse(symbols, stockService.getStocksAnalytics(requested));
+    }
+
+    // Latest history points of several symbols, newest first per symbol
+    @GetMapping("/history")
+    public Object getBulkHistory(@RequestParam(required = false) List<String> symbols,
+                                 @RequestParam(defaultValue = "10") int limit,
+                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(required = false) Integer size,
+                                 WebRequest request) {
+        String error = checkBulk(symbols, page, size);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        List<String> requested = requestedSymbols(symbols, page, size);
+        if (request.checkNotModified(stockService.versionTag(requested, "history-" + limit + variant(symbols)))) {
+            return null;
+        }
+        return bulkResponse(symbols, stockService.getRecentPriceHistory(requested, limit));
+    }
+
+    // max-bulk-symbols caps an explicit symbol list, and the page size when paging through all tracked symbols
+    private String checkBulk(List<String> symbols, int page, Integer size) {
+        if (symbols != null) {
+            return normalize(symbols).size() > maxBulkSymbols ? "At most " + maxBulkSymbols + " symbols per request" : null;
+        }
+        if (page < 0 || size != null && (size < 1 || size > maxBulkSymbols)) {
+            return "page must not be negative and size must be between 1 and " + maxBulkSymbols;
+        }
+        return null;
+    }
+
+    // The given symbols, or else page `page` of the tracked symbols in id order
+    private List<String> requestedSymbols(List<String> symbols, int page, Integer size) {
+        if (symbols != null) {
+            return normalize(symbols);
+        }
+        List<String> tracked = stockService.getTrackedSymbols();
+        int pageSize = size == null ? maxBulkSymbols : size;
+        long from = (long) page * pageSize;
+        return from >= tracked.size() ? List.of()
+                : tracked.subList((int) from, (int) Math.min(tracked.size(), from + pageSize));
+    }
+
+    // A page also changes when symbols are added or removed, which moves the ones after them
+    private String variant(List<String> symbols) {
+        return symbols != null ? "" : "-page-of-" + stockService.getTrackedSymbols().size();
+    }
+
+    private Object bulkResponse(List<String> symbols, Object body) {
+        return symbols != null ? body
+                : ResponseEntity.ok().header(TOTAL_COUNT, String.valueOf(stockService.getTrackedSymbols().size())).body(body);
+    }
+
+    private List<String> normalize(List<String> symbols) {
+        return symbols.stream().map(symbolRegistry::canonical).filter(symbol -> !symbol.isEmpty())
+                .distinct().toList();
     }
 
     @GetMapping("/{symbol}")
-    public Stock getStock(@PathVariable String symbol) {
+    public Stock getStock(@PathVariable String symbol, WebRequest request) {
+        if (request.checkNotModified(stockService.versionTag(List.of(symbolRegistry.canonical(symbol)), "stock"))) {
+            return null;
+        }
         return stockService.getStockBySymbol(symbol);
     }
 
@@ -30,18 +209,64 @@ public class StockController {
     public Stock updateStock(@PathVariable String symbol) {
         return stockService.updateStockPrice(symbol).join();
     }
+
+    // Without a range: the latest points; with from and/or to (ISO date-time): newest first within the range
     @GetMapping("/{symbol}/history")
-    public List<StockPriceHistory> getPriceHistory(@PathVariable String symbol) {
-        return stockService.getPriceHistory(symbol);
+    public List<PricePoint> getPriceHistory(@PathVariable String symbol,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            @RequestParam(defaultValue = "10") int limit) {
+        if (from == null && to == null) {
+            return stockService.getRecentPriceHistory(symbolRegistry.canonical(symbol), limit);
+        }
+        return stockService.getPriceHistory(symbolRegistry.canonical(symbol), from, to, limit);
+    }
+
+    // OHLC bars from the ingest-time rollups; defaults to the last day in 1m bars
+    @GetMapping("/{symbol}/candles")
+    public Map<String, Object> getCandles(@PathVariable String symbol,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                          @RequestParam(defaultValue = "1m") String interval) {
+        try {
+            return stockService.getCandles(symbolRegistry.canonical(symbol), from, to, DurationStyle.detectAndParse(interval));
+        } catch (IllegalArgumentException e) {
+            return Map.of("error", e.getMessage());
+        }
+    }
+
+    // Close prices downsampled (LTTB) to at most `points` entries for line charts
+    @GetMapping("/{symbol}/series")
+    public Map<String, Object> getSeries(@PathVariable String symbol,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @RequestParam(defaultValue = "500") int points) {
+        return stockService.getSeries(symbolRegistry.canonical(symbol), from, to, points);
     }
 
     @GetMapping("/{symbol}/analytics")
-    public Map<String, Object> getAnalytics(@PathVariable String symbol) {
-        return stockService.getStockAnalytics(symbol);
+    public Map<String, Object> getAnalytics(@PathVariable String symbol, WebRequest request) {
+        String canonical = symbolRegistry.canonical(symbol);
+        if (request.checkNotModified(stockService.versionTag(List.of(canonical), "analytics"))) {
+            return null;
+        }
+        return stockService.getStockAnalytics(canonical);
     }
 
     @GetMapping("/data-source")
     public Map<String, Object> getDataSourceInfo() {
         return stockService.getDataSourceInfo();
     }
-}
\ No newline at end of file
+
+    @GetMapping("/database-stats")
+    public Map<String, Object> getDatabaseStats() {
+        return stockService.getDatabaseStats();
+    }
+
+    // Symbol ids used by the binary encoding; the index in "symbols" is the id
+    @GetMapping("/symbol-table")
+    public Map<String, Object> getSymbolTable() {
+        List<String> symbols = symbolRegistry.symbols();
+        return Map.of("size", symbols.size(), "symbols", symbols);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.stock_dashboard.controller;
+
+import com.example.stock_dashboard.service.StockService;
+import com.example.stock_dashboard.service.SymbolRegistry;
+import com.example.stock_dashboard.service.TickStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Plain-HTTP streams for consumers without STOMP: live quotes as server-sent events or NDJSON, and
+// history exports written row by row as they are read
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    @Autowired
+    private TickStreamService tickStream;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // SSE unless format=ndjson or the client only accepts application/x-ndjson. Resume with the id of
+    // the last event seen, via Last-Event-ID (EventSource does this on reconnect) or ?from=
+    @GetMapping("/quotes")
+    public ResponseEntity<ResponseBodyEmitter> streamQuotes(@RequestParam(required = false) Set<String> symbols,
+                                          @RequestParam(required = false) String format,
+                                          @RequestParam(required = false) String from,
+                                          @RequestParam(defaultValue = "false") boolean snapshot,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        TickStreamService.Format streamFormat;
+        if (format != null) {
+            try {
+                streamFormat = TickStreamService.Format.valueOf(format.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("format must be sse or ndjson");
+            }
+        } else {
+            streamFormat = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)
+                    && !accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)
+                    ? TickStreamService.Format.NDJSON : TickStreamService.Format.SSE;
+        }
+        Set<String> filter = symbols == null || symbols.isEmpty() ? null : symbols.stream()
+                .map(symbolRegistry::canonical).filter(symbol -> !symbol.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+
+        ResponseBodyEmitter emitter = tickStream.open(streamFormat, filter, from != null ? from : lastEventId, snapshot);
+        return ResponseEntity.ok()
+                .contentType(streamFormat == TickStreamService.Format.SSE
+                        ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
+    }
+
+    // Every tick in [from, to] oldest first, as NDJSON or CSV; nothing is buffered beyond the writer
+    @GetMapping("/history/{symbol}")
+    public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable String symbol,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                           @RequestParam(defaultValue = "ndjson") String format) throws IOException {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            throw new IllegalArgumentException("format must be ndjson or csv");
+        }
+        String canonical = symbolRegistry.validate(symbol);
+        // Quoted once; every row reuses it
+        String prefix = csv ? canonical + "," : "{\"symbol\":" + objectMapper.writeValueAsString(canonical) + ",\"epochMillis\":";
+
+        StreamingResponseBody body = out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) {
+                writer.write("symbol,epochMillis,price\n");
+            }
+            try {
+                stockService.exportHistory(canonical, from, to, (epochMillis, price) -> {
+                    try {
+                        writer.write(prefix);
+                        writer.write(Long.toString(epochMillis));
+                        writer.write(csv ? "," : ",\"price\":");
+                        writer.write(Double.toString(price));
+                        writer.write(csv ? "\n" : "}\n");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + canonical + (csv ? ".csv\"" : ".ndjson\""))
+                .body(body);
+    }
+
+    // The handlers are typed for their streaming bodies, so errors come back through here
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    // Consumer limit reached
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> unavailable(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+    }
+}
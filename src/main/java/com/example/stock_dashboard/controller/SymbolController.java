@@ -0,0 +1,74 @@
+package com.example.stock_dashboard.controller;
+
+import com.example.stock_dashboard.service.RefreshScheduler;
+import com.example.stock_dashboard.service.StockService;
+import com.example.stock_dashboard.service.SymbolRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The tracked symbol universe. Changes apply to this node only; in cluster mode add symbols on every
+// node (or in stock.symbols.*) so the ingest leader refreshes them.
+@RestController
+@RequestMapping("/api/symbols")
+public class SymbolController {
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private RefreshScheduler refreshScheduler;
+
+    // basePrice: starting point of simulated quotes, optional
+    public record SymbolRequest(String symbol, Double basePrice) {
+    }
+
+    @GetMapping
+    public Map<String, Object> getSymbols() {
+        List<String> tracked = symbolRegistry.tracked();
+        return Map.of("count", tracked.size(), "symbols", tracked);
+    }
+
+    @GetMapping("/{symbol}")
+    public ResponseEntity<Map<String, Object>> getSymbol(@PathVariable String symbol) {
+        Map<String, Object> info = symbolRegistry.describe(symbol);
+        if (info == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> refresh = refreshScheduler.describe((String) info.get("symbol"));
+        if (refresh != null) {
+            info.put("refresh", refresh);
+        }
+        return ResponseEntity.ok(info);
+    }
+
+    // Bulk add, all or nothing
+    @PostMapping
+    public ResponseEntity<?> addSymbols(@RequestBody List<SymbolRequest> requests) {
+        Map<String, Double> symbols = new LinkedHashMap<>();
+        for (SymbolRequest request : requests) {
+            if (request.symbol() == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "symbol is required"));
+            }
+            symbols.put(request.symbol(), request.basePrice());
+        }
+        try {
+            List<String> added = stockService.addSymbols(symbols);
+            return ResponseEntity.ok(Map.of("added", added, "count", symbolRegistry.tracked().size()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{symbol}")
+    public ResponseEntity<Void> removeSymbol(@PathVariable String symbol) {
+        return stockService.removeSymbol(symbol) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -1,94 +1,59 @@
 package com.example.stock_dashboard.controller;
 
 import com.example.stock_dashboard.model.Stock;
+import com.example.stock_dashboard.service.QuoteStreamPublisher;
 import com.example.stock_dashboard.service.StockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Controller;
 
-import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
 
 @Controller
 @EnableScheduling
 public class WebSocketController {
 
+    private static final Logger log = LoggerFactory.getLogger(WebSocketController.class);
+
     @Autowired
     private StockService stockService;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
-
-    private final List<String> trackedStocks = Arrays.asList("AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "META");
-    private final AtomicInteger currentStockIndex = new AtomicInteger(0);
-    private int updateCycle = 0;
-
+    private QuoteStreamPublisher quotePublisher;
 
-    @Scheduled(fixedRate = 60000) // 1 minute
+    // Per-symbol refreshes are driven by RefreshScheduler; this only pushes the combined board
+    @Scheduled(fixedRateString = "${stock.broadcast.board-interval-ms:5000}")
     public void sendStockUpdates() {
-        updateCycle++;
-        System.out.println("\n === STOCK UPDATE CYCLE " + updateCycle + " ===");
-        System.out.println("Time " + LocalDateTime.now().toLocalTime());
-
-        if (stockService.getDataSourceInfo().get("usingRealData").equals(true)) {
-            updateWithRealDataStrategy();
-        } else {
-            updateWithSimulatedData();
-        }
-
-        List<Stock> updatedStocks = stockService.getAllStocks();
-        messagingTemplate.convertAndSend("/topic/stocks", updatedStocks);
-
-        System.out.println("Update cycle complete. Sent " + updatedStocks.size() + " stocks to clients");
-        System.out.println("Next update in 60 seconds...");
-    }
-
-    private void updateWithRealDataStrategy() {
-        System.out.println("Using REAL DATA strategy with Alpha Vantage API");
-
-        String realDataStock = getNextStockForRealData();
-        System.out.println("Fetching REAL data for: " + realDataStock);
-        stockService.updateStockPrice(realDataStock);
-        trackedStocks.stream()
-                .filter(symbol -> !symbol.equals(realDataStock))
-                .forEach(symbol -> {
-                    System.out.println("Using SIMULATED data for: " + symbol);
-                    stockService.updateStockPrice(symbol); // Will use simulated for non-primary
-                });
-    }
-
-    private void updateWithSimulatedData() {
-        System.out.println("Using SIMULATED DATA strategy (API not configured)");
-
-        // Update all stocks with simulated data
-        trackedStocks.forEach(symbol -> {
-            stockService.updateStockPrice(symbol);
-        });
-    }
-
-    private String getNextStockForRealData() {
-        int index = currentStockIndex.getAndUpdate(i -> (i + 1) % trackedStocks.size());
-        return trackedStocks.get(index);
+        quotePublisher.publishBoard(stockService.getAllStocks());
     }
 
     @org.springframework.messaging.handler.annotation.MessageMapping("/updateStocks")
     public void updateStocks() {
-        System.out.println("Manual update requested via WebSocket");
-        sendStockUpdates(); // Reuse the same update logic
+        log.info("Manual update requested via WebSocket");
+        // Broadcast only once every update of this cycle has been applied
+        stockService.updateAllStockPrices()
+                .thenRun(() -> quotePublisher.publishAll(stockService.getAllStocks()));
     }
 
     // Additional endpoint for manual refresh with real data
     @org.springframework.messaging.handler.annotation.MessageMapping("/refreshRealData")
     public void refreshRealData() {
-        System.out.println("Manual REAL DATA refresh requested");
+        log.info("Manual real data refresh requested");
         if (stockService.getDataSourceInfo().get("usingRealData").equals(true)) {
-            stockService.refreshAllWithRealData();
-            List<Stock> updatedStocks = stockService.getAllStocks();
-            messagingTemplate.convertAndSend("/topic/stocks", updatedStocks);
+            stockService.refreshAllWithRealData()
+                    .thenRun(() -> quotePublisher.publishAll(stockService.getAllStocks()));
         }
     }
+
+    // Clients subscribe to /app/stocks/{symbol} once to get a full frame, then follow /topic/stocks/{symbol}
+    @SubscribeMapping("/stocks/{symbol}")
+    public Map<String, Object> symbolSnapshot(@DestinationVariable String symbol) {
+        Stock stock = stockService.getStockBySymbol(symbol);
+        return stock == null ? Map.of("error", "Unknown symbol " + symbol) : quotePublisher.snapshotFrame(stock);
+    }
 }
\ No newline at end of file
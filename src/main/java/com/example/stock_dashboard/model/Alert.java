@@ -0,0 +1,14 @@
+package com.example.stock_dashboard.model;
+
+// A fired AlertRule. direction is the way the value crossed; value is the price, the percent move
+// or the fast minus slow EMA spread, depending on the rule type.
+public record Alert(
+        long ruleId,
+        String symbol,
+        AlertRule.Type type,
+        AlertRule.Direction direction,
+        double level,
+        double price,
+        double value,
+        long epochMillis) {
+}
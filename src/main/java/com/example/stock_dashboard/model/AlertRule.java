@@ -0,0 +1,24 @@
+package com.example.stock_dashboard.model;
+
+// A user's alert condition on one symbol. level is a price for PRICE_CROSS and a percent move over
+// windowMillis for PERCENT_MOVE; MA_CROSS compares the fast and slow EMAs and has no level.
+// UP fires on a rise through the level (the fast EMA crossing above the slow one), DOWN on a fall,
+// ANY on either. Rules fire once and are removed unless repeat is set.
+public record AlertRule(
+        long id,
+        String user,
+        String symbol,
+        Type type,
+        Direction direction,
+        double level,
+        long windowMillis,
+        boolean repeat) {
+
+    public enum Type {
+        PRICE_CROSS, PERCENT_MOVE, MA_CROSS
+    }
+
+    public enum Direction {
+        UP, DOWN, ANY
+    }
+}
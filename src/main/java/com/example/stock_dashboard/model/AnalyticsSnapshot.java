@@ -0,0 +1,31 @@
+package com.example.stock_dashboard.model;
+
+import java.util.List;
+
+// Immutable analytics view published after every tick; readers never touch the live accumulators
+public record AnalyticsSnapshot(
+        String symbol,
+        long ticks,
+        long lastTimestamp,
+        double currentPrice,
+        double firstPrice,
+        double minPrice,
+        double maxPrice,
+        double avgPrice,
+        double stdDev,
+        double emaFast,
+        double emaSlow,
+        double twap,
+        List<WindowStats> windows) {
+
+    public record WindowStats(
+            String label,
+            long spanMillis,
+            int count,
+            double oldestPrice,
+            double minPrice,
+            double maxPrice,
+            double avgPrice,
+            double stdDev) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.stock_dashboard.model;
+
+import java.time.LocalDateTime;
+
+public record Candle(LocalDateTime timestamp, double open, double high, double low, double close, long ticks) {
+}
@@ -0,0 +1,158 @@
+package com.example.stock_dashboard.model;
+
+// OHLC bars of one fixed span for one symbol, updated tick by tick. Bars are kept oldest-first in a
+// ring on primitive arrays that grows on demand up to the capacity, then evicts the oldest bar.
+public class CandleSeries {
+
+    @FunctionalInterface
+    public interface BarConsumer {
+        void accept(long startMillis, double open, double high, double low, double close, long ticks);
+    }
+
+    private final long spanMillis;
+    private final int capacity;
+    private long[] starts;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private long[] counts;
+    private int head;      // oldest bar
+    private int size;
+    private boolean evicted;
+
+    public CandleSeries(long spanMillis, int capacity) {
+        if (spanMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("span and capacity must be positive");
+        }
+        this.spanMillis = spanMillis;
+        this.capacity = capacity;
+        int initial = Math.min(16, capacity);
+        starts = new long[initial];
+        opens = new double[initial];
+        highs = new double[initial];
+        lows = new double[initial];
+        closes = new double[initial];
+        counts = new long[initial];
+    }
+
+    public long spanMillis() { return spanMillis; }
+
+    public synchronized int size() { return size; }
+
+    public synchronized boolean hasEvicted() { return evicted; }
+
+    public synchronized long oldestStart() {
+        return size == 0 ? Long.MAX_VALUE : starts[head];
+    }
+
+    public void add(long epochMillis, double price) {
+        add(epochMillis, price, price, price, price, 1);
+    }
+
+    // Folds in a finer bar (or a tick) starting at epochMillis; callers add in time order
+    public synchronized void add(long epochMillis, double open, double high, double low, double close, long ticks) {
+        long start = Math.floorDiv(epochMillis, spanMillis) * spanMillis;
+        if (size > 0) {
+            int last = index(size - 1);
+            if (start == starts[last]) {
+                highs[last] = Math.max(highs[last], high);
+                lows[last] = Math.min(lows[last], low);
+                closes[last] = close;
+                counts[last] += ticks;
+                return;
+            }
+            if (start < starts[last]) {
+                // Late tick: widen the bar it belongs to if still held, but keep its open and close
+                int i = find(start);
+                if (i < size && starts[index(i)] == start) {
+                    int idx = index(i);
+                    highs[idx] = Math.max(highs[idx], high);
+                    lows[idx] = Math.min(lows[idx], low);
+                    counts[idx] += ticks;
+                }
+                return;
+            }
+        }
+
+        if (size == starts.length && size < capacity) {
+            grow();
+        }
+        int idx;
+        if (size == starts.length) {
+            idx = head;
+            head = (head + 1) % starts.length;
+            evicted = true;
+        } else {
+            idx = index(size);
+            size++;
+        }
+        starts[idx] = start;
+        opens[idx] = open;
+        highs[idx] = high;
+        lows[idx] = low;
+        closes[idx] = close;
+        counts[idx] = ticks;
+    }
+
+    // Bars whose start lies in [floor(from), to], oldest first
+    public synchronized void forEach(long fromMillis, long toMillis, BarConsumer consumer) {
+        long fromStart = fromMillis < Long.MIN_VALUE + spanMillis
+                ? Long.MIN_VALUE
+                : Math.floorDiv(fromMillis, spanMillis) * spanMillis;
+        for (int i = find(fromStart); i < size; i++) {
+            int idx = index(i);
+            if (starts[idx] > toMillis) {
+                return;
+            }
+            consumer.accept(starts[idx], opens[idx], highs[idx], lows[idx], closes[idx], counts[idx]);
+        }
+    }
+
+    // First logical position whose start is >= the given start
+    private int find(long start) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[index(mid)] < start) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int index(int logical) {
+        return (head + logical) % starts.length;
+    }
+
+    private void grow() {
+        int newLength = Math.min(capacity, starts.length * 2);
+        starts = unroll(starts, newLength);
+        opens = unroll(opens, newLength);
+        highs = unroll(highs, newLength);
+        lows = unroll(lows, newLength);
+        closes = unroll(closes, newLength);
+        counts = unroll(counts, newLength);
+        head = 0;
+    }
+
+    // Copies the bars oldest-first to the start of a larger array
+    private long[] unroll(long[] values, int newLength) {
+        long[] copy = new long[newLength];
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[(head + i) % values.length];
+        }
+        return copy;
+    }
+
+    private double[] unroll(double[] values, int newLength) {
+        double[] copy = new double[newLength];
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[(head + i) % values.length];
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.stock_dashboard.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// A named lease in the database shared by the nodes of a cluster; the owner holds the role until
+// expiresAt unless it renews. New leases are always inserted (never merged), so two nodes creating
+// the same lease at once collide on the primary key instead of overwriting each other.
+@Entity
+@Table(name = "cluster_lease")
+public class ClusterLease implements Persistable<String> {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public ClusterLease() {}
+
+    public ClusterLease(String name, String owner, LocalDateTime expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public String getId() { return name; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getName() { return name; }
+    public String getOwner() { return owner; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
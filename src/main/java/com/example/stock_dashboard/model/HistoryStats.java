@@ -0,0 +1,6 @@
+package com.example.stock_dashboard.model;
+
+import java.time.LocalDateTime;
+
+public record HistoryStats(Long totalRecords, Long uniqueStocks, LocalDateTime oldestRecord, LocalDateTime newestRecord) {
+}
@@ -0,0 +1,6 @@
+package com.example.stock_dashboard.model;
+
+import java.time.LocalDateTime;
+
+public record PricePoint(String symbol, double price, LocalDateTime timestamp) {
+}
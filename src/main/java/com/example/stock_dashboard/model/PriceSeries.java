@@ -0,0 +1,79 @@
+package com.example.stock_dashboard.model;
+
+// Fixed-capacity ring buffer of ticks for one symbol, kept as parallel primitive arrays so
+// reading history never boxes prices or materializes entities
+public class PriceSeries {
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long epochMillis, double price);
+    }
+
+    private final String symbol;
+    private final long[] timestamps;
+    private final double[] prices;
+    private int head;      // next slot to write
+    private int size;
+    private long appended;
+
+    public PriceSeries(String symbol, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.symbol = symbol;
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+    }
+
+    public String getSymbol() { return symbol; }
+
+    public int capacity() { return prices.length; }
+
+    public synchronized void append(long epochMillis, double price) {
+        timestamps[head] = epochMillis;
+        prices[head] = price;
+        head = (head + 1) % prices.length;
+        if (size < prices.length) {
+            size++;
+        }
+        appended++;
+    }
+
+    public synchronized int size() { return size; }
+
+    // True once older points have been overwritten, i.e. the buffer no longer holds everything
+    public synchronized boolean hasEvicted() { return appended > size; }
+
+    public synchronized long oldestTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestamps[index(size - 1)];
+    }
+
+    public synchronized long latestTimestamp() {
+        return size == 0 ? Long.MIN_VALUE : timestamps[index(0)];
+    }
+
+    // Copies up to limit points newest-first into the given arrays and returns how many were copied
+    public synchronized int copyLatest(int limit, long[] timestampsOut, double[] pricesOut) {
+        int n = Math.min(Math.min(limit, size), Math.min(timestampsOut.length, pricesOut.length));
+        for (int i = 0; i < n; i++) {
+            int idx = index(i);
+            timestampsOut[i] = timestamps[idx];
+            pricesOut[i] = prices[idx];
+        }
+        return n;
+    }
+
+    public synchronized void forEachNewestFirst(int limit, PointConsumer consumer) {
+        int n = Math.min(limit, size);
+        for (int i = 0; i < n; i++) {
+            int idx = index(i);
+            consumer.accept(timestamps[idx], prices[idx]);
+        }
+    }
+
+    // Position of the i-th newest point
+    private int index(int newestOffset) {
+        int idx = head - 1 - newestOffset;
+        return idx < 0 ? idx + prices.length : idx;
+    }
+}
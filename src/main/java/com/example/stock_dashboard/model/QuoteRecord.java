@@ -0,0 +1,69 @@
+package com.example.stock_dashboard.model;
+
+import java.time.LocalDateTime;
+
+// Mutable, reusable target for the streaming quote parser; one instance is recycled per parsing thread
+public class QuoteRecord {
+    private String symbol;
+    private double price = Double.NaN;
+    private double open = Double.NaN;
+    private double high = Double.NaN;
+    private double low = Double.NaN;
+    private double previousClose = Double.NaN;
+    private double change = Double.NaN;
+    private double changePercent = Double.NaN;
+    private long volume;
+    private String latestTradingDay;
+    private String message;
+
+    public QuoteRecord reset() {
+        symbol = null;
+        price = open = high = low = previousClose = change = changePercent = Double.NaN;
+        volume = 0;
+        latestTradingDay = null;
+        message = null;
+        return this;
+    }
+
+    public boolean hasPrice() { return !Double.isNaN(price); }
+
+    public Stock toStock(String fallbackSymbol) {
+        return new Stock(symbol != null ? symbol : fallbackSymbol, price,
+                Double.isNaN(change) ? 0.0 : change,
+                Double.isNaN(changePercent) ? 0.0 : changePercent,
+                LocalDateTime.now(), 0);
+    }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+
+    public double getOpen() { return open; }
+    public void setOpen(double open) { this.open = open; }
+
+    public double getHigh() { return high; }
+    public void setHigh(double high) { this.high = high; }
+
+    public double getLow() { return low; }
+    public void setLow(double low) { this.low = low; }
+
+    public double getPreviousClose() { return previousClose; }
+    public void setPreviousClose(double previousClose) { this.previousClose = previousClose; }
+
+    public double getChange() { return change; }
+    public void setChange(double change) { this.change = change; }
+
+    public double getChangePercent() { return changePercent; }
+    public void setChangePercent(double changePercent) { this.changePercent = changePercent; }
+
+    public long getVolume() { return volume; }
+    public void setVolume(long volume) { this.volume = volume; }
+
+    public String getLatestTradingDay() { return latestTradingDay; }
+    public void setLatestTradingDay(String latestTradingDay) { this.latestTradingDay = latestTradingDay; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,6 @@
+package com.example.stock_dashboard.model;
+
+// A quote applied by the cluster's ingest leader, as carried on the quote bus to the other nodes
+public record QuoteUpdate(String origin, String symbol, double price, double change, double changePercent,
+                          long epochMillis) {
+}
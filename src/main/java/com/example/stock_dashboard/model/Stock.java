@@ -2,31 +2,43 @@ package com.example.stock_dashboard.model;
 
 import java.time.LocalDateTime;
 
-public class Stock {
-    private String symbol;
-    private double price;
-    private double change;
-    private double changePercent;
-    private LocalDateTime lastUpdated;
+// Immutable quote snapshot. An update publishes a new instance with the next version, so a reader
+// always sees price, change and timestamp from the same update.
+public final class Stock {
+    private final String symbol;
+    private final double price;
+    private final double change;
+    private final double changePercent;
+    private final LocalDateTime lastUpdated;
+    private final long version;
 
     public Stock(String symbol, double price) {
+        this(symbol, price, 0.0, 0.0, LocalDateTime.now(), 0);
+    }
+
+    public Stock(String symbol, double price, double change, double changePercent,
+                 LocalDateTime lastUpdated, long version) {
         this.symbol = symbol;
         this.price = price;
-        this.lastUpdated = LocalDateTime.now();
+        this.change = change;
+        this.changePercent = changePercent;
+        this.lastUpdated = lastUpdated;
+        this.version = version;
+    }
+
+    public Stock withQuote(double price, double change, double changePercent, LocalDateTime lastUpdated) {
+        return new Stock(symbol, price, change, changePercent, lastUpdated, version + 1);
     }
 
     public String getSymbol() { return symbol; }
-    public void setSymbol(String symbol) { this.symbol = symbol; }
 
     public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
 
     public double getChange() { return change; }
-    public void setChange(double change) { this.change = change; }
 
     public double getChangePercent() { return changePercent; }
-    public void setChangePercent(double changePercent) { this.changePercent = changePercent; }
 
     public LocalDateTime getLastUpdated() { return lastUpdated; }
-    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
-}
\ No newline at end of file
+
+    public long getVersion() { return version; }
+}
@@ -4,10 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_price_history")
+// (symbol, timestamp) serves the per-symbol history queries; (timestamp) lets the retention job
+// walk the oldest rows across all symbols without a full scan
+@Table(name = "stock_price_history", indexes = {
+        @Index(name = "idx_price_history_symbol_ts", columnList = "symbol, timestamp"),
+        @Index(name = "idx_price_history_ts", columnList = "timestamp")
+})
 public class StockPriceHistory {
+    // Pooled sequence so the write-behind writer can assign ids without a round trip per row,
+    // which is what lets Hibernate batch the inserts (IDENTITY disables JDBC batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_price_history_seq")
+    @SequenceGenerator(name = "stock_price_history_seq", sequenceName = "stock_price_history_seq", allocationSize = 50)
     private Long id;
 
     private String symbol;
@@ -33,4 +41,4 @@ public class StockPriceHistory {
 
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.example.stock_dashboard.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One OHLC bar of compacted price history. Raw rows past the retention window are folded into
+// 1-minute bars, which are later folded into 1-hour bars.
+@Entity
+@Table(name = "stock_price_rollup", indexes = {
+        @Index(name = "idx_price_rollup_symbol_res_bucket", columnList = "symbol, resolution, bucket_start", unique = true),
+        @Index(name = "idx_price_rollup_res_bucket", columnList = "resolution, bucket_start")
+})
+public class StockPriceRollup {
+    public static final String MINUTE = "1m";
+    public static final String HOUR = "1h";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_price_rollup_seq")
+    @SequenceGenerator(name = "stock_price_rollup_seq", sequenceName = "stock_price_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    private String symbol;
+    private String resolution;
+
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private long ticks;
+
+    public StockPriceRollup() {}
+
+    public StockPriceRollup(String symbol, String resolution, LocalDateTime bucketStart, double price) {
+        this.symbol = symbol;
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+        this.open = price;
+        this.high = price;
+        this.low = price;
+        this.close = price;
+    }
+
+    // Folds in a later bar (or tick, with ticks = 1) of the same bucket; callers merge in time order
+    public void merge(double barHigh, double barLow, double barClose, long barTicks) {
+        high = Math.max(high, barHigh);
+        low = Math.min(low, barLow);
+        close = barClose;
+        ticks += barTicks;
+    }
+
+    public Long getId() { return id; }
+    public String getSymbol() { return symbol; }
+    public String getResolution() { return resolution; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public double getOpen() { return open; }
+    public double getHigh() { return high; }
+    public double getLow() { return low; }
+    public double getClose() { return close; }
+    public long getTicks() { return ticks; }
+}
@@ -0,0 +1,24 @@
+package com.example.stock_dashboard.repo;
+
+import com.example.stock_dashboard.model.ClusterLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ClusterLeaseRepository extends JpaRepository<ClusterLease, String> {
+
+    // Renews the lease for its owner or takes over an expired one; 0 rows means another node holds it
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClusterLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int claim(String name, String owner, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClusterLease l SET l.expiresAt = :expiresAt WHERE l.name = :name AND l.owner = :owner")
+    int release(String name, String owner, LocalDateTime expiresAt);
+}
@@ -1,9 +1,15 @@
 package com.example.stock_dashboard.repo;
 
+import com.example.stock_dashboard.model.HistoryStats;
+import com.example.stock_dashboard.model.PricePoint;
 import com.example.stock_dashboard.model.StockPriceHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StockHistoryRepository extends JpaRepository<StockPriceHistory, Long> {
 
@@ -13,4 +19,34 @@ public interface StockHistoryRepository extends JpaRepository<StockPriceHistory,
     List<StockPriceHistory> findRecentBySymbol(String symbol, org.springframework.data.domain.Pageable pageable);
 
     List<StockPriceHistory> findTop10BySymbolOrderByTimestampDesc(String symbol);
+
+    List<StockPriceHistory> findBySymbolAndTimestampBeforeOrderByTimestampDesc(String symbol, LocalDateTime before,
+                                                                              org.springframework.data.domain.Pageable pageable);
+
+    List<StockPriceHistory> findBySymbolAndTimestampBetweenOrderByTimestampDesc(String symbol, LocalDateTime from,
+                                                                               LocalDateTime to,
+                                                                               org.springframework.data.domain.Pageable pageable);
+
+    // Oldest first for exports; read through a JDBC cursor without loading entities. Must be consumed
+    // inside a transaction and closed.
+    @Query("SELECT new com.example.stock_dashboard.model.PricePoint(sph.symbol, sph.price, sph.timestamp) " +
+            "FROM StockPriceHistory sph WHERE sph.symbol = :symbol AND sph.timestamp BETWEEN :from AND :to " +
+            "ORDER BY sph.timestamp ASC")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<PricePoint> streamBySymbolBetween(String symbol, LocalDateTime from, LocalDateTime to);
+
+    // Oldest rows across all symbols, for the retention job
+    List<StockPriceHistory> findByTimestampBeforeOrderByTimestampAsc(LocalDateTime before,
+                                                                      org.springframework.data.domain.Pageable pageable);
+
+    @Query("SELECT new com.example.stock_dashboard.model.HistoryStats(COUNT(sph), COUNT(DISTINCT sph.symbol), " +
+            "MIN(sph.timestamp), MAX(sph.timestamp)) FROM StockPriceHistory sph")
+    HistoryStats aggregateStats();
+
+    // (symbol, row count) pairs
+    @Query("SELECT sph.symbol, COUNT(sph) FROM StockPriceHistory sph GROUP BY sph.symbol")
+    List<Object[]> countBySymbol();
+
+    @Query("SELECT MIN(sph.timestamp) FROM StockPriceHistory sph")
+    LocalDateTime findOldestTimestamp();
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.stock_dashboard.repo;
+
+import com.example.stock_dashboard.model.StockPriceRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockRollupRepository extends JpaRepository<StockPriceRollup, Long> {
+
+    List<StockPriceRollup> findBySymbolAndResolutionAndBucketStartBetweenOrderByBucketStart(
+            String symbol, String resolution, LocalDateTime from, LocalDateTime to);
+
+    List<StockPriceRollup> findBySymbolAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartDesc(
+            String symbol, String resolution, LocalDateTime from, LocalDateTime before, Pageable pageable);
+
+    List<StockPriceRollup> findByResolutionAndBucketStartBeforeOrderByBucketStart(String resolution, LocalDateTime before,
+                                                                                   Pageable pageable);
+
+    @Query("SELECT r.id FROM StockPriceRollup r WHERE r.resolution = :resolution AND r.bucketStart < :before " +
+            "ORDER BY r.bucketStart")
+    List<Long> findIdsOlderThan(String resolution, LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,190 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Alert;
+import com.example.stock_dashboard.model.AlertRule;
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Server-side alert rules, evaluated on every applied tick against that symbol's AlertIndex.
+// Fired alerts go to the rule owner's /user/queue/alerts, i.e. to the sessions that connected with
+// that user name (see StompUserInterceptor). Rules live in memory on the node that created them;
+// in cluster mode every node applies every tick, so each node evaluates its own rules.
+@Service
+public class AlertEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertEngine.class);
+
+    public static final String USER_DESTINATION = "/queue/alerts";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private AnalyticsEngine analyticsEngine;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.alerts.max-rules:200000}")
+    private int maxRules;
+
+    @Value("${stock.alerts.max-rules-per-user:1000}")
+    private int maxRulesPerUser;
+
+    private final Map<String, AlertIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<Long, AlertRule> rules = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> rulesByUser = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    // Held while checking the rule limits and adding a rule, so concurrent adds can't overshoot them
+    private final Object addLock = new Object();
+
+    private Timer evaluateTimer;
+    private Counter firedCounter;
+
+    @PostConstruct
+    public void initialize() {
+        evaluateTimer = Timer.builder("stock.alerts.evaluate")
+                .description("Per-tick evaluation of a symbol's alert rules")
+                .register(meterRegistry);
+        firedCounter = Counter.builder("stock.alerts.fired").register(meterRegistry);
+        Gauge.builder("stock.alerts.rules", rules, Map::size).register(meterRegistry);
+        Gauge.builder("stock.alerts.users", rulesByUser,
+                byUser -> byUser.values().stream().filter(owned -> !owned.isEmpty()).count()).register(meterRegistry);
+        Gauge.builder("stock.alerts.symbols", indexes,
+                bySymbol -> bySymbol.values().stream().filter(index -> index.size() > 0).count()).register(meterRegistry);
+    }
+
+    // Throws IllegalArgumentException for an invalid rule or when a limit is reached
+    public AlertRule addRule(String user, String symbol, AlertRule.Type type, AlertRule.Direction direction,
+                             double level, Duration window, boolean repeat) {
+        if (user == null || user.isBlank()) {
+            throw new IllegalArgumentException("user is required");
+        }
+        if (symbol == null || symbol.isBlank()) {
+            throw new IllegalArgumentException("symbol is required");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("type must be one of " + List.of(AlertRule.Type.values()));
+        }
+        long windowMillis = 0;
+        if (type == AlertRule.Type.MA_CROSS) {
+            level = 0;
+        } else if (!(level > 0) || Double.isInfinite(level)) {
+            throw new IllegalArgumentException("level must be a positive number");
+        }
+        if (type == AlertRule.Type.PERCENT_MOVE) {
+            // Moves are measured against the rolling analytics windows, which track each window's oldest price
+            if (window == null || !analyticsEngine.getWindows().contains(window)) {
+                throw new IllegalArgumentException("window must be one of " + analyticsEngine.getWindows());
+            }
+            windowMillis = window.toMillis();
+        }
+        String canonical = symbolRegistry.validate(symbol);
+        String owner = user.trim();
+        AlertRule rule;
+        synchronized (addLock) {
+            Set<Long> owned = rulesByUser.computeIfAbsent(owner, u -> ConcurrentHashMap.newKeySet());
+            if (owned.size() >= maxRulesPerUser) {
+                throw new IllegalArgumentException("At most " + maxRulesPerUser + " rules per user");
+            }
+            if (rules.size() >= maxRules) {
+                throw new IllegalArgumentException("Alert rule limit of " + maxRules + " reached");
+            }
+            rule = new AlertRule(nextId.incrementAndGet(), owner, canonical, type,
+                    direction == null ? AlertRule.Direction.ANY : direction, level, windowMillis, repeat);
+            rules.put(rule.id(), rule);
+            owned.add(rule.id());
+        }
+        AlertIndex index = indexes.computeIfAbsent(rule.symbol(), AlertIndex::new);
+        index.add(rule);
+        AnalyticsSnapshot snapshot = analyticsEngine.getSnapshot(rule.symbol());
+        if (snapshot != null) {
+            index.prime(snapshot);
+        }
+        return rule;
+    }
+
+    public boolean removeRule(long id) {
+        AlertRule rule = rules.remove(id);
+        if (rule == null) {
+            return false;
+        }
+        forget(rule);
+        AlertIndex index = indexes.get(rule.symbol());
+        if (index != null) {
+            index.remove(rule);
+        }
+        return true;
+    }
+
+    public AlertRule getRule(long id) {
+        return rules.get(id);
+    }
+
+    public List<AlertRule> getRules(String user) {
+        Set<Long> owned = rulesByUser.getOrDefault(user, Set.of());
+        return owned.stream()
+                .map(rules::get)
+                .filter(rule -> rule != null)
+                .sorted(Comparator.comparingLong(AlertRule::id))
+                .toList();
+    }
+
+    // Called with every applied tick's analytics; symbols without rules return right away
+    public void onTick(AnalyticsSnapshot snapshot) {
+        AlertIndex index = indexes.get(snapshot.symbol());
+        if (index == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Alert> alerts = index.onTick(snapshot);
+        evaluateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        for (Alert alert : alerts) {
+            AlertRule rule = rules.get(alert.ruleId());
+            if (rule == null) {
+                continue;
+            }
+            if (!rule.repeat()) {
+                rules.remove(rule.id());
+                forget(rule);
+            }
+            firedCounter.increment();
+            try {
+                messagingTemplate.convertAndSendToUser(rule.user(), USER_DESTINATION, alert);
+            } catch (RuntimeException e) {
+                log.warn("Error sending alert {} to {}: {}", rule.id(), rule.user(), e.getMessage());
+            }
+        }
+    }
+
+    private void forget(AlertRule rule) {
+        Set<Long> owned = rulesByUser.get(rule.user());
+        if (owned != null) {
+            owned.remove(rule.id());
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Alert;
+import com.example.stock_dashboard.model.AlertRule;
+import com.example.stock_dashboard.model.AlertRule.Direction;
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import com.example.stock_dashboard.model.AnalyticsSnapshot.WindowStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+// The alert rules of one symbol, indexed so a tick only touches rules it actually triggers. Price and
+// percent-move thresholds sit in sorted trees, one for rules firing on a rise and one for a fall: a
+// move from the previous value to the new one fires exactly the levels in between, found with one
+// range lookup. MA cross rules are only visited when the EMA spread changes sign.
+public class AlertIndex {
+
+    private final String symbol;
+    private final Levels priceRising = new Levels();
+    private final Levels priceFalling = new Levels();
+    private final Map<Long, PercentWindow> percentWindows = new HashMap<>();
+    private final Set<AlertRule> maBullish = new LinkedHashSet<>();
+    private final Set<AlertRule> maBearish = new LinkedHashSet<>();
+    private int size;
+
+    // Previous tick; nothing fires until there is one to cross from
+    private double lastPrice = Double.NaN;
+    private int lastSpreadSign;
+
+    private record Fired(AlertRule rule, Direction direction, double value) {
+    }
+
+    public AlertIndex(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() { return symbol; }
+
+    public synchronized int size() { return size; }
+
+    public synchronized void add(AlertRule rule) {
+        switch (rule.type()) {
+            case PRICE_CROSS -> {
+                if (rule.direction() != Direction.DOWN) {
+                    priceRising.add(rule.level(), rule);
+                }
+                if (rule.direction() != Direction.UP) {
+                    priceFalling.add(rule.level(), rule);
+                }
+            }
+            // Falls are keyed by the signed move they fire at, e.g. -2 for a 2% drop
+            case PERCENT_MOVE -> {
+                PercentWindow window = percentWindows.computeIfAbsent(rule.windowMillis(), span -> new PercentWindow());
+                if (rule.direction() != Direction.DOWN) {
+                    window.rising.add(rule.level(), rule);
+                }
+                if (rule.direction() != Direction.UP) {
+                    window.falling.add(-rule.level(), rule);
+                }
+            }
+            case MA_CROSS -> {
+                if (rule.direction() != Direction.DOWN) {
+                    maBullish.add(rule);
+                }
+                if (rule.direction() != Direction.UP) {
+                    maBearish.add(rule);
+                }
+            }
+        }
+        size++;
+    }
+
+    public synchronized boolean remove(AlertRule rule) {
+        boolean removed = false;
+        switch (rule.type()) {
+            case PRICE_CROSS -> {
+                removed |= priceRising.remove(rule.level(), rule);
+                removed |= priceFalling.remove(rule.level(), rule);
+            }
+            case PERCENT_MOVE -> {
+                PercentWindow window = percentWindows.get(rule.windowMillis());
+                if (window != null) {
+                    removed |= window.rising.remove(rule.level(), rule);
+                    removed |= window.falling.remove(-rule.level(), rule);
+                    if (window.rising.isEmpty() && window.falling.isEmpty()) {
+                        percentWindows.remove(rule.windowMillis());
+                    }
+                }
+            }
+            case MA_CROSS -> {
+                removed |= maBullish.remove(rule);
+                removed |= maBearish.remove(rule);
+            }
+        }
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    // Takes the current values as the reference for the next tick where there is none yet, so a new
+    // rule fires on the first move through its level instead of waiting for a second tick
+    public synchronized void prime(AnalyticsSnapshot snapshot) {
+        if (Double.isNaN(lastPrice)) {
+            lastPrice = snapshot.currentPrice();
+        }
+        for (WindowStats stats : snapshot.windows()) {
+            PercentWindow window = percentWindows.get(stats.spanMillis());
+            if (window != null && Double.isNaN(window.lastMove) && stats.oldestPrice() != 0) {
+                window.lastMove = (snapshot.currentPrice() - stats.oldestPrice()) / stats.oldestPrice() * 100;
+            }
+        }
+        if (lastSpreadSign == 0) {
+            lastSpreadSign = (int) Math.signum(snapshot.emaFast() - snapshot.emaSlow());
+        }
+    }
+
+    // Alerts fired by this tick, usually none; one-shot rules that fired are removed
+    public synchronized List<Alert> onTick(AnalyticsSnapshot snapshot) {
+        double price = snapshot.currentPrice();
+        List<Fired> fired = new ArrayList<>(0);
+
+        if (price > lastPrice) {
+            priceRising.collect(lastPrice, false, price, true, Direction.UP, price, fired);
+        } else if (price < lastPrice) {
+            priceFalling.collect(price, true, lastPrice, false, Direction.DOWN, price, fired);
+        }
+        lastPrice = price;
+
+        if (!percentWindows.isEmpty()) {
+            for (WindowStats stats : snapshot.windows()) {
+                PercentWindow window = percentWindows.get(stats.spanMillis());
+                if (window == null || stats.oldestPrice() == 0) {
+                    continue;
+                }
+                double move = (price - stats.oldestPrice()) / stats.oldestPrice() * 100;
+                if (move > window.lastMove) {
+                    window.rising.collect(window.lastMove, false, move, true, Direction.UP, move, fired);
+                } else if (move < window.lastMove) {
+                    window.falling.collect(move, true, window.lastMove, false, Direction.DOWN, move, fired);
+                }
+                window.lastMove = move;
+            }
+        }
+
+        double spread = snapshot.emaFast() - snapshot.emaSlow();
+        int sign = spread > 0 ? 1 : spread < 0 ? -1 : 0;
+        if (sign != 0) {
+            if (lastSpreadSign < 0 && sign > 0) {
+                maBullish.forEach(rule -> fired.add(new Fired(rule, Direction.UP, spread)));
+            } else if (lastSpreadSign > 0 && sign < 0) {
+                maBearish.forEach(rule -> fired.add(new Fired(rule, Direction.DOWN, spread)));
+            }
+            lastSpreadSign = sign;
+        }
+
+        if (fired.isEmpty()) {
+            return List.of();
+        }
+        List<Alert> alerts = new ArrayList<>(fired.size());
+        for (Fired hit : fired) {
+            AlertRule rule = hit.rule();
+            if (!rule.repeat()) {
+                remove(rule);
+            }
+            alerts.add(new Alert(rule.id(), symbol, rule.type(), hit.direction(), rule.level(), price, hit.value(),
+                    snapshot.lastTimestamp()));
+        }
+        return alerts;
+    }
+
+    private static final class PercentWindow {
+        private final Levels rising = new Levels();
+        private final Levels falling = new Levels();
+        private double lastMove = Double.NaN;
+    }
+
+    // A NaN bound (no previous value yet) collects nothing
+    private static final class Levels {
+        private final TreeMap<Double, List<AlertRule>> byLevel = new TreeMap<>();
+
+        void add(double level, AlertRule rule) {
+            byLevel.computeIfAbsent(level, l -> new ArrayList<>(1)).add(rule);
+        }
+
+        boolean remove(double level, AlertRule rule) {
+            List<AlertRule> rules = byLevel.get(level);
+            if (rules == null || !rules.remove(rule)) {
+                return false;
+            }
+            if (rules.isEmpty()) {
+                byLevel.remove(level);
+            }
+            return true;
+        }
+
+        boolean isEmpty() {
+            return byLevel.isEmpty();
+        }
+
+        void collect(double from, boolean fromInclusive, double to, boolean toInclusive, Direction direction,
+                     double value, List<Fired> out) {
+            if (byLevel.isEmpty() || Double.isNaN(from) || Double.isNaN(to)) {
+                return;
+            }
+            NavigableMap<Double, List<AlertRule>> crossed = byLevel.subMap(from, fromInclusive, to, toInclusive);
+            for (List<AlertRule> rules : crossed.values()) {
+                for (AlertRule rule : rules) {
+                    out.add(new Fired(rule, direction, value));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.config.AlphaVantageConfig;
+import com.example.stock_dashboard.model.Stock;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class AlphaVantageMarketDataSource implements MarketDataSource {
+
+    public static final String NAME = "alpha-vantage";
+
+    @Autowired
+    private AlphaVantageService alphaVantageService;
+
+    @Autowired
+    private AlphaVantageConfig config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // How long a quote is served without revalidating, during and outside US market hours
+    @Value("${alpha.vantage.cache.fresh:60s}")
+    private Duration fresh;
+
+    @Value("${alpha.vantage.cache.fresh-market-closed:30m}")
+    private Duration freshMarketClosed;
+
+    // How long past fresh a quote may still be served while it is being revalidated
+    @Value("${alpha.vantage.cache.max-stale:15m}")
+    private Duration maxStale;
+
+    @Value("${alpha.vantage.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private QuoteCache quoteCache;
+
+    @PostConstruct
+    public void initialize() {
+        quoteCache = new QuoteCache(symbol -> alphaVantageService.fetchQuoteAsync(symbol, 0),
+                symbols -> alphaVantageService.fetchAll(symbols),
+                fresh.toMillis(), freshMarketClosed.toMillis(), maxStale.toMillis(), maximumSize, Ticker.systemTicker());
+        quoteCache.bindTo(meterRegistry, "alpha-vantage-quotes");
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isLive() {
+        return true;
+    }
+
+    @Override
+    public double getRequestsPerMinute() {
+        return config.getRequestsPerMinute();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Stock>> fetchQuotes(Collection<String> symbols) {
+        return quoteCache.getAll(symbols);
+    }
+
+    // Never waits for quota during an update cycle; a cached quote is used when one is available,
+    // otherwise the caller falls back to a simulated move
+    @Override
+    public CompletableFuture<Stock> fetchQuote(String symbol, Stock current) {
+        return quoteCache.get(symbol);
+    }
+
+    public boolean isConfigured() {
+        return alphaVantageService.isApiKeyConfigured();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.QuoteRecord;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Consumer;
+
+// Token-level parser for Alpha Vantage responses. Values are decoded straight from the parser's
+// character buffer into primitives, so no intermediate Map or String is built per field, and
+// large payloads (bulk quotes, intraday series) are consumed as a stream at constant memory.
+public class AlphaVantageResponseParser {
+
+    public enum Outcome { DATA, NOTE, ERROR, EMPTY }
+
+    @FunctionalInterface
+    public interface BarHandler {
+        void onBar(long epochMillis, double open, double high, double low, double close, long volume);
+    }
+
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/New_York");
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final JsonFactory jsonFactory;
+
+    public AlphaVantageResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    // GLOBAL_QUOTE: {"Global Quote": {"01. symbol": "IBM", "05. price": "134.5100", ...}}
+    public Outcome parseGlobalQuote(InputStream in, QuoteRecord quote) throws IOException {
+        quote.reset();
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Outcome.EMPTY;
+            }
+            Outcome outcome = Outcome.EMPTY;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("Global Quote".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    readGlobalQuoteFields(parser, quote);
+                    outcome = quote.hasPrice() ? Outcome.DATA : Outcome.EMPTY;
+                } else if (isMessageField(field)) {
+                    outcome = readMessage(parser, field, quote);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return outcome;
+        }
+    }
+
+    // REALTIME_BULK_QUOTES: {"data": [{"symbol": "MSFT", "close": "...", "change": "...", ...}, ...]}
+    // The same QuoteRecord is refilled and handed to the sink for every element of the array.
+    public Outcome parseBulkQuotes(InputStream in, QuoteRecord quote, Consumer<QuoteRecord> sink) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Outcome.EMPTY;
+            }
+            Outcome outcome = Outcome.EMPTY;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("data".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        quote.reset();
+                        readBulkQuoteFields(parser, quote);
+                        if (quote.hasPrice() && quote.getSymbol() != null) {
+                            sink.accept(quote);
+                            outcome = Outcome.DATA;
+                        }
+                    }
+                } else if (isMessageField(field)) {
+                    quote.reset();
+                    outcome = readMessage(parser, field, quote);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return outcome;
+        }
+    }
+
+    // TIME_SERIES_INTRADAY: {"Meta Data": {..., "6. Time Zone": "US/Eastern"},
+    //                        "Time Series (5min)": {"2024-01-05 16:00:00": {"1. open": "...", ...}, ...}}
+    // Bars are handed to the handler as they are read; nothing is accumulated.
+    public Outcome parseIntraday(InputStream in, QuoteRecord status, BarHandler handler) throws IOException {
+        status.reset();
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Outcome.EMPTY;
+            }
+            ZoneId zone = DEFAULT_ZONE;
+            Outcome outcome = Outcome.EMPTY;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("Meta Data".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    zone = readTimeZone(parser, zone);
+                } else if (field.startsWith("Time Series") && parser.currentToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        long epochMillis = parseTimestamp(parser.getTextCharacters(), parser.getTextOffset(),
+                                parser.getTextLength(), zone);
+                        parser.nextToken();
+                        readBar(parser, epochMillis, handler);
+                        outcome = Outcome.DATA;
+                    }
+                } else if (isMessageField(field)) {
+                    outcome = readMessage(parser, field, status);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return outcome;
+        }
+    }
+
+    private void readGlobalQuoteFields(JsonParser parser, QuoteRecord quote) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "01. symbol" -> quote.setSymbol(parser.getText());
+                case "02. open" -> quote.setOpen(readDouble(parser));
+                case "03. high" -> quote.setHigh(readDouble(parser));
+                case "04. low" -> quote.setLow(readDouble(parser));
+                case "05. price" -> quote.setPrice(readDouble(parser));
+                case "06. volume" -> quote.setVolume((long) readDouble(parser));
+                case "07. latest trading day" -> quote.setLatestTradingDay(parser.getText());
+                case "08. previous close" -> quote.setPreviousClose(readDouble(parser));
+                case "09. change" -> quote.setChange(readDouble(parser));
+                case "10. change percent" -> quote.setChangePercent(readDouble(parser));
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readBulkQuoteFields(JsonParser parser, QuoteRecord quote) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "symbol" -> quote.setSymbol(parser.getText());
+                case "open" -> quote.setOpen(readDouble(parser));
+                case "high" -> quote.setHigh(readDouble(parser));
+                case "low" -> quote.setLow(readDouble(parser));
+                case "close" -> quote.setPrice(readDouble(parser));
+                case "volume" -> quote.setVolume((long) readDouble(parser));
+                case "previous_close" -> quote.setPreviousClose(readDouble(parser));
+                case "change" -> quote.setChange(readDouble(parser));
+                case "change_percent" -> quote.setChangePercent(readDouble(parser));
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readBar(JsonParser parser, long epochMillis, BarHandler handler) throws IOException {
+        double open = Double.NaN, high = Double.NaN, low = Double.NaN, close = Double.NaN;
+        long volume = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "1. open" -> open = readDouble(parser);
+                case "2. high" -> high = readDouble(parser);
+                case "3. low" -> low = readDouble(parser);
+                case "4. close" -> close = readDouble(parser);
+                case "5. volume" -> volume = (long) readDouble(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        if (!Double.isNaN(close)) {
+            handler.onBar(epochMillis, open, high, low, close, volume);
+        }
+    }
+
+    private ZoneId readTimeZone(JsonParser parser, ZoneId zone) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.endsWith("Time Zone")) {
+                try {
+                    zone = ZoneId.of(parser.getText());
+                } catch (Exception e) {
+                    // keep the exchange default
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return zone;
+    }
+
+    private static boolean isMessageField(String field) {
+        return "Note".equals(field) || "Information".equals(field) || "Error Message".equals(field);
+    }
+
+    private static Outcome readMessage(JsonParser parser, String field, QuoteRecord target) throws IOException {
+        target.setMessage(parser.getValueAsString());
+        parser.skipChildren();
+        return "Error Message".equals(field) ? Outcome.ERROR : Outcome.NOTE;
+    }
+
+    private static double readDouble(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parseDecimal(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        parser.skipChildren();
+        return Double.NaN;
+    }
+
+    // Parses "123.4500", "-0.52" or "0.9815%" without allocating. Values that do not fit the fast
+    // path (exponents, more than 18 significant digits) fall back to Double.parseDouble.
+    static double parseDecimal(char[] chars, int offset, int length) {
+        int end = offset + length;
+        while (end > offset && (chars[end - 1] == '%' || chars[end - 1] == ' ')) {
+            end--;
+        }
+        int i = offset;
+        while (i < end && chars[i] == ' ') {
+            i++;
+        }
+        if (i == end) {
+            return Double.NaN;
+        }
+
+        boolean negative = false;
+        if (chars[i] == '-' || chars[i] == '+') {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (digits == 18) {
+                    return slowParse(chars, offset, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return slowParse(chars, offset, end);
+            }
+        }
+
+        int scale = Math.max(fractionDigits, 0);
+        if (scale >= POWERS_OF_TEN.length) {
+            return slowParse(chars, offset, end);
+        }
+        // Both operands are exact doubles (mantissa < 2^53 when digits <= 15), so the division is correctly rounded
+        if (digits > 15) {
+            return slowParse(chars, offset, end);
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static double slowParse(char[] chars, int offset, int end) {
+        try {
+            return Double.parseDouble(new String(chars, offset, end - offset).trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // "yyyy-MM-dd HH:mm:ss" (time part optional) in the series' exchange time zone
+    static long parseTimestamp(char[] chars, int offset, int length, ZoneId zone) {
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + 5, 2);
+        int day = digits(chars, offset + 8, 2);
+        int hour = length >= 13 ? digits(chars, offset + 11, 2) : 0;
+        int minute = length >= 16 ? digits(chars, offset + 14, 2) : 0;
+        int second = length >= 19 ? digits(chars, offset + 17, 2) : 0;
+        return LocalDateTime.of(year, month, day, hour, minute, second).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            value = value * 10 + (chars[i] - '0');
+        }
+        return value;
+    }
+}
@@ -1,103 +1,342 @@
 package com.example.stock_dashboard.service;
 
+import com.example.stock_dashboard.model.QuoteRecord;
 import com.example.stock_dashboard.model.Stock;
 import com.example.stock_dashboard.config.AlphaVantageConfig;
+import com.example.stock_dashboard.service.AlphaVantageResponseParser.BarHandler;
+import com.example.stock_dashboard.service.AlphaVantageResponseParser.Outcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.ResourceAccessException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 @Service
 public class AlphaVantageService {
 
+    private static final Logger log = LoggerFactory.getLogger(AlphaVantageService.class);
+
     @Autowired
     private AlphaVantageConfig config;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private HttpClient httpClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // One bucket for the whole provider quota, shared by every symbol
+    private TokenBucketRateLimiter rateLimiter;
+    private Semaphore inFlight;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    private AlphaVantageResponseParser parser;
+    private final ThreadLocal<QuoteRecord> quoteRecords = ThreadLocal.withInitial(QuoteRecord::new);
 
-    private final Map<String, Long> lastApiCall = new ConcurrentHashMap<>();
-    private static final long API_CALL_INTERVAL = 15000; // 15 seconds between calls
+    // Bulk quotes need a premium key; the endpoint accepts up to 100 symbols per request
+    @Value("${alpha.vantage.bulk-quotes.enabled:false}")
+    private boolean bulkQuotesEnabled;
 
+    private static final int BULK_QUOTE_LIMIT = 100;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private Timer requestTimer;
+    private Timer failedRequestTimer;
+    private Timer rateLimitWait;
+    private Counter rateLimitRejections;
+
+    @PostConstruct
+    public void initialize() {
+        rateLimiter = new TokenBucketRateLimiter(config.getRequestsPerMinute(), config.getBurst());
+        inFlight = new Semaphore(config.getMaxConcurrency());
+        parser = new AlphaVantageResponseParser(objectMapper.getFactory());
+
+        requestTimer = requestTimer("success");
+        failedRequestTimer = requestTimer("failure");
+        rateLimitWait = Timer.builder("alphavantage.ratelimit.wait")
+                .description("Delay reserved on the request quota before a call may start")
+                .register(meterRegistry);
+        rateLimitRejections = Counter.builder("alphavantage.ratelimit.rejected")
+                .description("Calls that would have waited longer than allowed for the quota")
+                .register(meterRegistry);
+        FunctionCounter.builder("alphavantage.calls", requests, AtomicLong::get).tag("result", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("alphavantage.calls", rateLimited, AtomicLong::get).tag("result", "rate-limited")
+                .description("Calls answered with the provider's rate-limit notice")
+                .register(meterRegistry);
+        FunctionCounter.builder("alphavantage.calls", failures, AtomicLong::get).tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("alphavantage.inflight", inFlight, permits -> config.getMaxConcurrency() - permits.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("alphavantage.queued", waiting, Collection::size).register(meterRegistry);
+        Gauge.builder("alphavantage.ratelimit.permits", rateLimiter, TokenBucketRateLimiter::availablePermits)
+                .register(meterRegistry);
+    }
+
+    private Timer requestTimer(String outcome) {
+        return Timer.builder("alphavantage.request")
+                .description("HTTP round trip to Alpha Vantage including response parsing")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Non-waiting variant: if the quota has no token right now the caller falls back to cached data
     public Stock fetchRealTimeStockData(String symbol) {
-        if (!canMakeApiCall(symbol)) {
-            System.out.println("Rate limit reached for " + symbol + ", using cached data");
-            return null;
+        return fetchQuoteAsync(symbol, 0).join();
+    }
+
+    // Waits up to maxWaitMillis for a rate-limit token; completes with null when the quote is unavailable
+    public CompletableFuture<Stock> fetchQuoteAsync(String symbol, long maxWaitMillis) {
+        return call(symbol, buildApiUrl("GLOBAL_QUOTE", "symbol", symbol), maxWaitMillis,
+                in -> parseGlobalQuote(symbol, in));
+    }
+
+    // Fetches all symbols in parallel within the quota; symbols that could not be fetched are absent
+    public CompletableFuture<Map<String, Stock>> fetchAll(Collection<String> symbols, long maxWaitMillis) {
+        if (bulkQuotesEnabled) {
+            return fetchBulk(symbols, maxWaitMillis);
         }
 
-        try {
-            String url = buildApiUrl("GLOBAL_QUOTE", symbol);
-            System.out.println("Fetching real data for " + symbol + " from Alpha Vantage...");
+        Map<String, CompletableFuture<Stock>> pending = new LinkedHashMap<>();
+        symbols.forEach(symbol -> pending.put(symbol, fetchQuoteAsync(symbol, maxWaitMillis)));
 
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            Map<String, Object> responseBody = response.getBody();
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    Map<String, Stock> quotes = new LinkedHashMap<>();
+                    pending.forEach((symbol, future) -> {
+                        Stock stock = future.join();
+                        if (stock != null) {
+                            quotes.put(symbol, stock);
+                        }
+                    });
+                    return quotes;
+                });
+    }
 
-            if (responseBody != null && responseBody.containsKey("Global Quote")) {
-                Map<String, String> quote = (Map<String, String>) responseBody.get("Global Quote");
-                return parseStockData(symbol, quote);
-            } else if (responseBody != null && responseBody.containsKey("Note")) {
-                System.out.println("API rate limit note: " + responseBody.get("Note"));
-                return null;
-            } else if (responseBody != null && responseBody.containsKey("Error Message")) {
-                System.err.println("API Error: " + responseBody.get("Error Message"));
-                return null;
-            }
+    public CompletableFuture<Map<String, Stock>> fetchAll(Collection<String> symbols) {
+        return fetchAll(symbols, config.getMaxQueueWaitMs());
+    }
 
-        } catch (HttpClientErrorException.TooManyRequests e) {
-            System.err.println("Alpha Vantage rate limit exceeded for " + symbol);
-        } catch (HttpClientErrorException e) {
-            System.err.println("HTTP Error fetching " + symbol + ": " + e.getStatusCode());
-        } catch (ResourceAccessException e) {
-            System.err.println("Network Error fetching " + symbol + ": " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("Unexpected error fetching " + symbol + ": " + e.getMessage());
+    // One request per 100 symbols instead of one per symbol
+    private CompletableFuture<Map<String, Stock>> fetchBulk(Collection<String> symbols, long maxWaitMillis) {
+        List<String> all = new ArrayList<>(symbols);
+        List<CompletableFuture<Map<String, Stock>>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += BULK_QUOTE_LIMIT) {
+            String joined = String.join(",", all.subList(from, Math.min(all.size(), from + BULK_QUOTE_LIMIT)));
+            chunks.add(call(joined, buildApiUrl("REALTIME_BULK_QUOTES", "symbol", joined), maxWaitMillis,
+                    this::parseBulkQuotes));
         }
 
-        return null;
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    Map<String, Stock> quotes = new LinkedHashMap<>();
+                    chunks.forEach(chunk -> {
+                        Map<String, Stock> result = chunk.join();
+                        if (result != null) {
+                            quotes.putAll(result);
+                        }
+                    });
+                    return quotes;
+                });
+    }
+
+    // Streams TIME_SERIES_INTRADAY bars into the handler; completes with the number of bars, or -1 on failure
+    public CompletableFuture<Integer> fetchIntraday(String symbol, String interval, boolean full,
+                                                    long maxWaitMillis, BarHandler handler) {
+        String url = buildApiUrl("TIME_SERIES_INTRADAY", "symbol", symbol)
+                + "&interval=" + interval + "&outputsize=" + (full ? "full" : "compact");
+        return call(symbol + " intraday", url, maxWaitMillis, in -> {
+            int[] bars = {0};
+            QuoteRecord status = quoteRecords.get();
+            Outcome outcome = parser.parseIntraday(in, status, (ts, open, high, low, close, volume) -> {
+                bars[0]++;
+                handler.onBar(ts, open, high, low, close, volume);
+            });
+            if (outcome != Outcome.DATA) {
+                logUnavailable(symbol, outcome, status);
+                return outcome == Outcome.EMPTY ? 0 : -1;
+            }
+            return bars[0];
+        });
     }
 
-    private boolean canMakeApiCall(String symbol) {
-        Long lastCall = lastApiCall.get(symbol);
-        long currentTime = System.currentTimeMillis();
+    // Rate-limited, concurrency-bounded request whose body is streamed to the handler
+    private <R> CompletableFuture<R> call(String label, String url, long maxWaitMillis, ResponseHandler<R> handler) {
+        long waitNanos = rateLimiter.reserve(TimeUnit.MILLISECONDS.toNanos(maxWaitMillis));
+        if (waitNanos < 0) {
+            rateLimitRejections.increment();
+            log.debug("Rate limit reached for {}, using cached data", label);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        rateLimitWait.record(waitNanos, TimeUnit.NANOSECONDS);
 
-        if (lastCall == null || (currentTime - lastCall) > API_CALL_INTERVAL) {
-            lastApiCall.put(symbol, currentTime);
-            return true;
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Runnable start = () -> submit(() -> {
+            CompletableFuture<R> request;
+            try {
+                request = send(label, url, handler);
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            request.whenComplete((value, error) -> {
+                release();
+                result.complete(error == null ? value : null);
+            });
+        });
+
+        if (waitNanos == 0) {
+            start.run();
+        } else {
+            CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS).execute(start);
         }
-        return false;
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface ResponseHandler<R> {
+        R handle(InputStream body) throws IOException;
     }
 
-    private String buildApiUrl(String function, String symbol) {
-        return String.format("%s?function=%s&symbol=%s&apikey=%s",
-                config.getApiUrl(), function, symbol, config.getApiKey());
+    // Bounded concurrency without parking threads: tasks beyond the limit wait in a queue
+    private void submit(Runnable task) {
+        waiting.add(task);
+        drain();
     }
 
-    private Stock parseStockData(String symbol, Map<String, String> quote) {
-        try {
-            double price = Double.parseDouble(quote.get("05. price"));
-            double change = Double.parseDouble(quote.get("09. change"));
-            double changePercent = Double.parseDouble(quote.get("10. change percent").replace("%", ""));
+    private void release() {
+        inFlight.release();
+        drain();
+    }
 
-            Stock stock = new Stock(symbol, price);
-            stock.setChange(change);
-            stock.setChangePercent(changePercent);
+    private void drain() {
+        while (!waiting.isEmpty() && inFlight.tryAcquire()) {
+            Runnable task = waiting.poll();
+            if (task == null) {
+                inFlight.release();
+                continue;
+            }
+            task.run();
+        }
+    }
 
-            System.out.println("Successfully fetched real data: " + symbol + " = $" + price);
-            return stock;
+    private <R> CompletableFuture<R> send(String label, String url, ResponseHandler<R> handler) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(config.getRequestTimeout())
+                .GET()
+                .build();
 
-        } catch (Exception e) {
-            System.err.println("Error parsing stock data for " + symbol + ": " + e.getMessage());
+        requests.incrementAndGet();
+        log.debug("Fetching real data for {} from Alpha Vantage", label);
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(handleResponse(label, handler))
+                .exceptionally(e -> {
+                    failures.incrementAndGet();
+                    log.warn("Network error fetching {}: {}", label, e.getMessage());
+                    return null;
+                })
+                .whenComplete((value, error) -> (value != null ? requestTimer : failedRequestTimer)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private <R> Function<HttpResponse<InputStream>, R> handleResponse(String label, ResponseHandler<R> handler) {
+        return response -> {
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 429) {
+                    rateLimited.incrementAndGet();
+                    log.warn("Alpha Vantage rate limit exceeded for {}", label);
+                    return null;
+                }
+                if (response.statusCode() / 100 != 2) {
+                    failures.incrementAndGet();
+                    log.warn("HTTP error fetching {}: {}", label, response.statusCode());
+                    return null;
+                }
+                return handler.handle(body);
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                log.warn("Unexpected error fetching {}: {}", label, e.getMessage());
+                return null;
+            }
+        };
+    }
+
+    private Stock parseGlobalQuote(String symbol, InputStream in) throws IOException {
+        QuoteRecord quote = quoteRecords.get();
+        Outcome outcome = parser.parseGlobalQuote(in, quote);
+        if (outcome != Outcome.DATA) {
+            logUnavailable(symbol, outcome, quote);
             return null;
         }
+
+        Stock stock = quote.toStock(symbol);
+        log.debug("Fetched real data: {} = ${}", symbol, stock.getPrice());
+        return stock;
+    }
+
+    private Map<String, Stock> parseBulkQuotes(InputStream in) throws IOException {
+        Map<String, Stock> quotes = new LinkedHashMap<>();
+        QuoteRecord quote = quoteRecords.get();
+        Outcome outcome = parser.parseBulkQuotes(in, quote, q -> quotes.put(q.getSymbol(), q.toStock(q.getSymbol())));
+        if (outcome != Outcome.DATA) {
+            logUnavailable("bulk quotes", outcome, quote);
+        }
+        return quotes;
+    }
+
+    // A Note or Information body is the provider's rate-limit notice, sent with a 200
+    private void logUnavailable(String label, Outcome outcome, QuoteRecord status) {
+        (outcome == Outcome.NOTE ? rateLimited : failures).incrementAndGet();
+        switch (outcome) {
+            case NOTE -> log.warn("API rate limit note: {}", status.getMessage());
+            case ERROR -> log.warn("API error: {}", status.getMessage());
+            default -> log.warn("Error parsing stock data for {}: no quote in response", label);
+        }
+    }
+
+    private String buildApiUrl(String function, String param, String value) {
+        return String.format("%s?function=%s&%s=%s&apikey=%s",
+                config.getApiUrl(), function, param, URLEncoder.encode(value, StandardCharsets.UTF_8), config.getApiKey());
     }
 
     public boolean isApiKeyConfigured() {
         return !"demo".equals(config.getApiKey()) && config.getApiKey() != null
                 && !config.getApiKey().trim().isEmpty();
     }
-}
\ No newline at end of file
+
+}
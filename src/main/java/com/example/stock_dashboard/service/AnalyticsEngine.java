@@ -0,0 +1,63 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class AnalyticsEngine {
+
+    @Value("${stock.analytics.windows:1m,5m,1h}")
+    private List<Duration> windows;
+
+    @Value("${stock.analytics.ema-fast-period:12}")
+    private int emaFastPeriod;
+
+    @Value("${stock.analytics.ema-slow-period:26}")
+    private int emaSlowPeriod;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, RollingAnalytics> analytics = new ConcurrentHashMap<>();
+    private Timer computeTimer;
+
+    @PostConstruct
+    public void initialize() {
+        computeTimer = Timer.builder("stock.analytics.compute")
+                .description("Per-tick update of the rolling analytics")
+                .register(meterRegistry);
+    }
+
+    public AnalyticsSnapshot onTick(String symbol, long epochMillis, double price) {
+        long start = System.nanoTime();
+        AnalyticsSnapshot snapshot = analytics
+                .computeIfAbsent(symbol, s -> new RollingAnalytics(s, windows, emaFastPeriod, emaSlowPeriod))
+                .onTick(epochMillis, price);
+        computeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return snapshot;
+    }
+
+    public void remove(String symbol) {
+        analytics.remove(symbol);
+    }
+
+    public List<Duration> getWindows() {
+        return windows;
+    }
+
+    public AnalyticsSnapshot getSnapshot(String symbol) {
+        RollingAnalytics rolling = analytics.get(symbol);
+        return rolling == null ? null : rolling.getSnapshot();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.stock_dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Meters for the WebSocket broadcast path: payload encoding, fan-out into the outbound channel,
+// hand-off to the session, per-session socket writes and frames dropped for slow consumers
+@Service
+public class BroadcastMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer jsonEncode;
+    private Timer binaryEncode;
+    private DistributionSummary jsonFrameBytes;
+    private DistributionSummary binaryFrameBytes;
+    private Timer fanOut;
+    private Timer handOff;
+    private Timer write;
+    private Counter dropped;
+
+    private final Map<String, AtomicInteger> pendingBySession = new ConcurrentHashMap<>();
+    // Per-session drop counters, removed from the registry when the session goes away
+    private final Map<String, Counter> droppedBySession = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerMeters() {
+        // Tagged by encoding so the two can be compared on live traffic
+        jsonEncode = encodeTimer("json");
+        binaryEncode = encodeTimer("binary");
+        jsonFrameBytes = frameSize("json");
+        binaryFrameBytes = frameSize("binary");
+        fanOut = Timer.builder("stock.broadcast.fanout")
+                .description("Time to hand a frame to the outbound channel for all subscribers")
+                .register(meterRegistry);
+        handOff = Timer.builder("stock.broadcast.handoff")
+                .description("Time from the outbound channel to the session, which writes the frame or buffers it")
+                .register(meterRegistry);
+        write = Timer.builder("stock.broadcast.write")
+                .description("Time a frame's socket write took")
+                .register(meterRegistry);
+        dropped = Counter.builder("stock.broadcast.dropped")
+                .description("Frames dropped for sessions that fell behind")
+                .register(meterRegistry);
+    }
+
+    private Timer encodeTimer(String encoding) {
+        return Timer.builder("stock.broadcast.encode").tag("encoding", encoding).register(meterRegistry);
+    }
+
+    private DistributionSummary frameSize(String encoding) {
+        return DistributionSummary.builder("stock.broadcast.frame.size").baseUnit("bytes").tag("encoding", encoding)
+                .register(meterRegistry);
+    }
+
+    public void recordEncode(int bytes, long nanos) {
+        jsonEncode.record(nanos, TimeUnit.NANOSECONDS);
+        jsonFrameBytes.record(bytes);
+    }
+
+    public void recordBinaryEncode(int bytes, long nanos) {
+        binaryEncode.record(nanos, TimeUnit.NANOSECONDS);
+        binaryFrameBytes.record(bytes);
+    }
+
+    public void recordFanOut(long nanos) {
+        fanOut.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Returns the number of frames not yet written to the session's socket, including this one
+    public int framePending(String sessionId) {
+        return pendingBySession.computeIfAbsent(sessionId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void frameHandedOff(long nanos) {
+        handOff.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // nanos is the time the socket write took
+    public void frameWritten(String sessionId, long nanos) {
+        AtomicInteger pending = pendingBySession.get(sessionId);
+        if (pending != null) {
+            pending.decrementAndGet();
+        }
+        write.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void frameDropped(String sessionId) {
+        AtomicInteger pending = pendingBySession.get(sessionId);
+        if (pending != null) {
+            pending.decrementAndGet();
+        }
+        dropped.increment();
+        droppedBySession.computeIfAbsent(sessionId, id -> Counter.builder("stock.broadcast.session.dropped")
+                .tag("session", id).register(meterRegistry)).increment();
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        pendingBySession.remove(event.getSessionId());
+        Counter counter = droppedBySession.remove(event.getSessionId());
+        if (counter != null) {
+            meterRegistry.remove(counter);
+        }
+    }
+}
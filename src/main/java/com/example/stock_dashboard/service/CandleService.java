@@ -0,0 +1,235 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Candle;
+import com.example.stock_dashboard.model.CandleSeries;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// OHLC rollups maintained at ingest (one CandleSeries per configured level, e.g. 1s/1m/5m/1h) so
+// chart queries read pre-aggregated bars: the work per query is bounded by the number of bars
+// returned, not by the number of ticks in the range. A symbol's levels are only built once it is
+// first charted, and each level holds its own retention; ranges older than what a level still
+// holds are aggregated from the tick store, or from the history tables when it is disabled.
+@Service
+public class CandleService {
+
+    @Autowired
+    private TickStore tickStore;
+
+    @Autowired
+    private PriceSeriesStore seriesStore;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private HistoryArchive historyArchive;
+
+    @Value("${stock.candles.levels:1s,1m,5m,1h}")
+    private List<Duration> levels;
+
+    // How far back each level reaches, one entry per level in the same order
+    @Value("${stock.candles.retention:15m,1d,7d,30d}")
+    private List<Duration> retention;
+
+    // Upper bound on bars per response (1500 fits the default day of 1m bars); a finer interval
+    // over a longer range is widened
+    @Value("${stock.candles.max-bars:1500}")
+    private int maxBars;
+
+    @Value("${stock.candles.max-points:2000}")
+    private int maxPoints;
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final long[] WIDENED_STEPS = {
+            1_000, 5_000, 15_000, 30_000, 60_000, 300_000, 900_000, 1_800_000,
+            3_600_000, 4 * 3_600_000, 12 * 3_600_000, DAY_MILLIS
+    };
+
+    private long[] levelSpans;
+    private int[] levelBars;
+    private final Map<String, CandleSeries[]> rollups = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        if (retention.size() != levels.size()) {
+            throw new IllegalStateException("stock.candles.retention needs one entry per level in stock.candles.levels");
+        }
+        Integer[] order = new Integer[levels.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> levels.get(a).compareTo(levels.get(b)));
+        levelSpans = new long[order.length];
+        levelBars = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            levelSpans[i] = levels.get(order[i]).toMillis();
+            levelBars[i] = (int) Math.max(1, Math.min(Integer.MAX_VALUE, retention.get(order[i]).toMillis() / levelSpans[i]));
+        }
+    }
+
+    // Symbols nobody has charted yet have no levels; their ranges come from the tick store
+    public void onTick(String symbol, long epochMillis, double price) {
+        CandleSeries[] series = rollups.get(symbol);
+        if (series == null) {
+            return;
+        }
+        for (CandleSeries level : series) {
+            level.add(epochMillis, price);
+        }
+    }
+
+    // The symbol's levels, created on its first chart query and kept current by onTick from then on;
+    // null for symbols that aren't tracked
+    private CandleSeries[] levels(String symbol) {
+        if (!symbolRegistry.isTracked(symbol)) {
+            return rollups.get(symbol);
+        }
+        return rollups.computeIfAbsent(symbol, s -> {
+            CandleSeries[] created = new CandleSeries[levelSpans.length];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new CandleSeries(levelSpans[i], levelBars[i]);
+            }
+            return created;
+        });
+    }
+
+    public void remove(String symbol) {
+        rollups.remove(symbol);
+    }
+
+    public Map<String, Object> candles(String symbol, long fromMillis, long toMillis, Duration interval) {
+        long span = interval.toMillis();
+        if (span < levelSpans[0] || span % levelSpans[0] != 0) {
+            throw new IllegalArgumentException("interval must be a multiple of " + Duration.ofMillis(levelSpans[0]));
+        }
+        long range = Math.max(1, toMillis - fromMillis);
+        if (range / span > maxBars) {
+            // Widen to the first chart-friendly step that keeps the response within maxBars
+            long needed = Math.floorDiv(range + maxBars - 1, maxBars);
+            long widened = Math.floorDiv(needed + DAY_MILLIS - 1, DAY_MILLIS) * DAY_MILLIS;
+            for (long step : WIDENED_STEPS) {
+                if (step >= needed && step % levelSpans[0] == 0) {
+                    widened = step;
+                    break;
+                }
+            }
+            span = widened;
+        }
+
+        List<Candle> candles = new ArrayList<>();
+        long bucketSpan = span;
+        long[] lastBucket = {Long.MIN_VALUE};
+        collect(symbol, fromMillis, toMillis, levelFor(span), (start, open, high, low, close, ticks) -> {
+            long bucket = Math.floorDiv(start, bucketSpan) * bucketSpan;
+            if (bucket == lastBucket[0]) {
+                Candle last = candles.get(candles.size() - 1);
+                candles.set(candles.size() - 1, new Candle(last.timestamp(), last.open(), Math.max(last.high(), high),
+                        Math.min(last.low(), low), close, last.ticks() + ticks));
+            } else {
+                candles.add(new Candle(seriesStore.toLocalDateTime(bucket), open, high, low, close, ticks));
+                lastBucket[0] = bucket;
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("symbol", symbol);
+        result.put("interval", Duration.ofMillis(span).toString());
+        result.put("intervalMillis", span);
+        result.put("from", seriesStore.toLocalDateTime(fromMillis));
+        result.put("to", seriesStore.toLocalDateTime(toMillis));
+        result.put("candles", candles);
+        return result;
+    }
+
+    // Close prices downsampled with LTTB to at most points entries, from the finest level whose bar
+    // count over the range stays within a fixed multiple of the requested points
+    public Map<String, Object> series(String symbol, long fromMillis, long toMillis, int points) {
+        int target = Math.max(3, Math.min(points, maxPoints));
+        long range = Math.max(1, toMillis - fromMillis);
+        int level = levelSpans.length - 1;
+        for (int i = 0; i < levelSpans.length; i++) {
+            if (range / levelSpans[i] <= (long) target * 8) {
+                level = i;
+                break;
+            }
+        }
+
+        CloseBuffer closes = new CloseBuffer();
+        collect(symbol, fromMillis, toMillis, level, (start, open, high, low, close, ticks) -> closes.add(start, close));
+
+        int[] selected = Downsampler.lttb(closes.timestamps, closes.prices, closes.size, target);
+        long[] timestamps = new long[selected.length];
+        double[] prices = new double[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            timestamps[i] = closes.timestamps[selected[i]];
+            prices[i] = closes.prices[selected[i]];
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("symbol", symbol);
+        result.put("resolution", Duration.ofMillis(levelSpans[level]).toString());
+        result.put("sourcePoints", closes.size);
+        result.put("timestamps", timestamps);
+        result.put("prices", prices);
+        return result;
+    }
+
+    // Coarsest level whose span divides the requested span
+    private int levelFor(long span) {
+        for (int i = levelSpans.length - 1; i >= 0; i--) {
+            if (span % levelSpans[i] == 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    // Bars of the given level in [from, to], oldest first. The part of the range the in-memory
+    // rollup no longer (or never) held is rebuilt from the tick store or the history tables.
+    private void collect(String symbol, long fromMillis, long toMillis, int level, CandleSeries.BarConsumer consumer) {
+        CandleSeries[] series = levels(symbol);
+        CandleSeries rollup = series == null ? null : series[level];
+        long covered = rollup == null ? Long.MAX_VALUE : rollup.oldestStart();
+
+        if (fromMillis < covered) {
+            CandleSeries rebuilt = new CandleSeries(levelSpans[level], Integer.MAX_VALUE);
+            long end = Math.min(toMillis, covered - 1);
+            if (tickStore.isEnabled()) {
+                tickStore.scan(symbol, fromMillis, end, rebuilt::add);
+            } else {
+                historyArchive.scanBars(symbol, fromMillis, end, rebuilt::add);
+            }
+            rebuilt.forEach(fromMillis, toMillis, consumer);
+        }
+        if (rollup != null) {
+            rollup.forEach(Math.max(fromMillis, covered), toMillis, consumer);
+        }
+    }
+
+    private static final class CloseBuffer {
+        private long[] timestamps = new long[64];
+        private double[] prices = new double[64];
+        private int size;
+
+        void add(long timestamp, double price) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            timestamps[size] = timestamp;
+            prices[size] = price;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.QuoteUpdate;
+import com.example.stock_dashboard.model.Stock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Cluster mode glue between StockService and the quote bus: the leader publishes every quote it
+// applies, followers apply what arrives to their local board and push it to their own WebSocket
+// clients. A no-op unless stock.cluster.enabled is set.
+@Service
+public class ClusterQuoteSync {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterQuoteSync.class);
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private List<QuoteBus> buses;
+
+    @Autowired
+    private QuoteStreamPublisher quotePublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.cluster.bus:embedded}")
+    private String busName;
+
+    private QuoteBus bus;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        if (!leaderElection.isEnabled()) {
+            return;
+        }
+        bus = buses.stream()
+                .filter(candidate -> candidate.getName().equalsIgnoreCase(busName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown stock.cluster.bus: " + busName));
+        FunctionCounter.builder("stock.cluster.quotes", published, AtomicLong::get).tag("result", "published")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.cluster.quotes", applied, AtomicLong::get).tag("result", "applied")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.cluster.quotes", ignored, AtomicLong::get).tag("result", "ignored")
+                .register(meterRegistry);
+        bus.bindTo(meterRegistry);
+    }
+
+    // The applier returns the resulting quote, or null when the update was older than the local one
+    public void start(Function<QuoteUpdate, Stock> applier) {
+        if (bus == null) {
+            return;
+        }
+        bus.start(update -> {
+            // Own updates come back from the broker, and a leader ignores stragglers from a previous leader
+            if (update.origin().equals(leaderElection.getNodeId()) || leaderElection.isLeader()) {
+                ignored.incrementAndGet();
+                return;
+            }
+            Stock stock = applier.apply(update);
+            if (stock == null) {
+                ignored.incrementAndGet();
+                return;
+            }
+            applied.incrementAndGet();
+            quotePublisher.publish(stock);
+        });
+        log.info("Cluster node {} joined the {} quote bus", leaderElection.getNodeId(), bus.getName());
+    }
+
+    public void publish(Stock stock, long epochMillis) {
+        if (bus == null || !leaderElection.isLeader()) {
+            return;
+        }
+        bus.publish(new QuoteUpdate(leaderElection.getNodeId(), stock.getSymbol(), stock.getPrice(), stock.getChange(),
+                stock.getChangePercent(), epochMillis));
+        published.incrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+}
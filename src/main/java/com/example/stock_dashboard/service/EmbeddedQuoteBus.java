@@ -0,0 +1,106 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.QuoteUpdate;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// In-process stand-in for a broker: buses on the same channel within one JVM deliver to each other,
+// so a cluster can run as several application contexts in one process (tests, local experiments).
+// Each node gets its own delivery thread, as it would get its own broker connection, so a slow
+// node never holds up the publisher.
+@Service
+public class EmbeddedQuoteBus implements QuoteBus {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedQuoteBus.class);
+
+    public static final String NAME = "embedded";
+
+    private static final Map<String, List<EmbeddedQuoteBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    @Value("${stock.cluster.bus.channel:stock-quotes}")
+    private String channel;
+
+    private volatile Consumer<QuoteUpdate> consumer;
+    private ExecutorService delivery;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void start(Consumer<QuoteUpdate> consumer) {
+        if (delivery != null) {
+            return;
+        }
+        this.consumer = consumer;
+        delivery = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quote-bus-" + channel);
+            thread.setDaemon(true);
+            return thread;
+        });
+        CHANNELS.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(this);
+    }
+
+    @Override
+    public void publish(QuoteUpdate update) {
+        published.incrementAndGet();
+        for (EmbeddedQuoteBus node : CHANNELS.getOrDefault(channel, List.of())) {
+            node.deliver(update);
+        }
+    }
+
+    private void deliver(QuoteUpdate update) {
+        try {
+            delivery.execute(() -> {
+                try {
+                    consumer.accept(update);
+                    delivered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.warn("Error applying quote update for {}: {}", update.symbol(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Node is shutting down
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        List<EmbeddedQuoteBus> nodes = CHANNELS.get(channel);
+        if (nodes != null) {
+            nodes.remove(this);
+        }
+        if (delivery != null) {
+            delivery.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stock.cluster.bus.messages", published, AtomicLong::get).tag("bus", NAME)
+                .tag("result", "published").register(registry);
+        FunctionCounter.builder("stock.cluster.bus.messages", delivered, AtomicLong::get).tag("bus", NAME)
+                .tag("result", "delivered").register(registry);
+        Gauge.builder("stock.cluster.bus.nodes", CHANNELS, channels -> channels.getOrDefault(channel, List.of()).size())
+                .register(registry);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.CandleSeries;
+import com.example.stock_dashboard.model.PricePoint;
+import com.example.stock_dashboard.model.StockPriceRollup;
+import com.example.stock_dashboard.repo.StockHistoryRepository;
+import com.example.stock_dashboard.repo.StockRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Read side of the price history tables once RetentionService has compacted them: 1-hour rollups,
+// then 1-minute rollups, then the raw rows still inside the raw window. Retention folds oldest
+// first, so each tier only holds times after the coarser one. Serves history, exports and candles
+// when the tick store is disabled; ranges past the raw window come back at the rollups' resolution.
+@Service
+public class HistoryArchive {
+
+    @Autowired
+    private StockHistoryRepository historyRepository;
+
+    @Autowired
+    private StockRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PriceSeriesStore seriesStore;
+
+    // Bars starting in [from, to], oldest first; raw rows come as one-tick bars
+    public void scanBars(String symbol, long fromMillis, long toMillis, CandleSeries.BarConsumer consumer) {
+        LocalDateTime from = seriesStore.toLocalDateTime(fromMillis);
+        LocalDateTime to = seriesStore.toLocalDateTime(toMillis);
+        for (String resolution : List.of(StockPriceRollup.HOUR, StockPriceRollup.MINUTE)) {
+            for (StockPriceRollup bar : rollupRepository.findBySymbolAndResolutionAndBucketStartBetweenOrderByBucketStart(
+                    symbol, resolution, from, to)) {
+                consumer.accept(seriesStore.toEpochMillis(bar.getBucketStart()), bar.getOpen(), bar.getHigh(),
+                        bar.getLow(), bar.getClose(), bar.getTicks());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var rows = historyRepository.streamBySymbolBetween(symbol, from, to)) {
+                rows.forEach(point -> consumer.accept(seriesStore.toEpochMillis(point.timestamp()),
+                        point.price(), point.price(), point.price(), point.price(), 1));
+            }
+        });
+    }
+
+    // Closes of the rollups starting in [from, before), newest first, until out holds limit points
+    public void addRollupsNewestFirst(String symbol, LocalDateTime from, LocalDateTime before, int limit,
+                                      List<PricePoint> out) {
+        for (String resolution : List.of(StockPriceRollup.MINUTE, StockPriceRollup.HOUR)) {
+            if (out.size() >= limit) {
+                return;
+            }
+            rollupRepository.findBySymbolAndResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartDesc(
+                            symbol, resolution, from, before, PageRequest.of(0, limit - out.size()))
+                    .forEach(bar -> out.add(new PricePoint(symbol, bar.getClose(), bar.getBucketStart())));
+        }
+    }
+}
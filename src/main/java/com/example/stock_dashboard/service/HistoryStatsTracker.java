@@ -0,0 +1,72 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.HistoryStats;
+import com.example.stock_dashboard.model.StockPriceHistory;
+import com.example.stock_dashboard.repo.StockHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Running totals for stock_price_history. Seeded once from aggregate queries, then kept current
+// by the history writer and the retention job so reading the stats never touches the table.
+@Service
+public class HistoryStatsTracker {
+
+    @Autowired
+    private StockHistoryRepository historyRepository;
+
+    private final Map<String, Long> rowsBySymbol = new HashMap<>();
+    private long totalRecords;
+    private LocalDateTime oldestRecord;
+    private LocalDateTime newestRecord;
+
+    @PostConstruct
+    public synchronized void initialize() {
+        HistoryStats stats = historyRepository.aggregateStats();
+        totalRecords = stats.totalRecords() == null ? 0 : stats.totalRecords();
+        oldestRecord = stats.oldestRecord();
+        newestRecord = stats.newestRecord();
+        rowsBySymbol.clear();
+        for (Object[] row : historyRepository.countBySymbol()) {
+            rowsBySymbol.put((String) row[0], (Long) row[1]);
+        }
+    }
+
+    public synchronized void onPersisted(List<StockPriceHistory> batch) {
+        for (StockPriceHistory history : batch) {
+            rowsBySymbol.merge(history.getSymbol(), 1L, Long::sum);
+            LocalDateTime timestamp = history.getTimestamp();
+            if (oldestRecord == null || timestamp.isBefore(oldestRecord)) {
+                oldestRecord = timestamp;
+            }
+            if (newestRecord == null || timestamp.isAfter(newestRecord)) {
+                newestRecord = timestamp;
+            }
+        }
+        totalRecords += batch.size();
+    }
+
+    // Rows the retention job deleted, after their transaction committed. Retention deletes the oldest
+    // rows, so the oldest remaining timestamp is looked up again (from the timestamp index).
+    public synchronized void onDeleted(List<StockPriceHistory> rows) {
+        for (StockPriceHistory row : rows) {
+            rowsBySymbol.computeIfPresent(row.getSymbol(), (symbol, count) -> count > 1 ? count - 1 : null);
+        }
+        totalRecords = Math.max(0, totalRecords - rows.size());
+        if (totalRecords == 0) {
+            oldestRecord = null;
+            newestRecord = null;
+        } else {
+            oldestRecord = historyRepository.findOldestTimestamp();
+        }
+    }
+
+    public synchronized HistoryStats snapshot() {
+        return new HistoryStats(totalRecords, (long) rowsBySymbol.size(), oldestRecord, newestRecord);
+    }
+}
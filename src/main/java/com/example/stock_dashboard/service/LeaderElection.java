@@ -0,0 +1,157 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.ClusterLease;
+import com.example.stock_dashboard.repo.ClusterLeaseRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ingest leadership in cluster mode: a lease row in the shared database, renewed every renew
+// interval. Only the leader calls the market data provider and writes history; the other nodes
+// follow its quotes over the QuoteBus. A node stops acting as leader one renew interval before its
+// lease runs out, so a takeover cannot overlap as long as node clocks agree within that interval.
+// Without stock.cluster.enabled every node is its own leader.
+@Service
+public class LeaderElection {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderElection.class);
+
+    static final String INGEST_LEASE = "ingest";
+
+    @Autowired
+    private ClusterLeaseRepository leaseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.cluster.enabled:false}")
+    private boolean enabled;
+
+    // Defaults to pid@host plus a random suffix
+    @Value("${stock.cluster.node-id:}")
+    private String nodeId;
+
+    @Value("${stock.cluster.lease-ttl:15s}")
+    private Duration leaseTtl;
+
+    @Value("${stock.cluster.renew-interval-ms:5000}")
+    private long renewIntervalMs;
+
+    private volatile boolean leading;
+    private volatile long leadingUntilNanos;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong renewals = new AtomicLong();
+    private final AtomicLong renewFailures = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        if (enabled && leaseTtl.toMillis() < 2 * renewIntervalMs) {
+            throw new IllegalStateException("stock.cluster.lease-ttl must be at least twice stock.cluster.renew-interval-ms");
+        }
+        Gauge.builder("stock.cluster.leader", this, election -> election.isLeader() ? 1 : 0).register(meterRegistry);
+        FunctionCounter.builder("stock.cluster.lease", acquisitions, AtomicLong::get).tag("result", "acquired")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.cluster.lease", renewals, AtomicLong::get).tag("result", "renewed")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.cluster.lease", renewFailures, AtomicLong::get).tag("result", "failed")
+                .register(meterRegistry);
+
+        // Claim right away, so the first node of a cluster starts ingesting without waiting a renew interval
+        renew();
+    }
+
+    @Scheduled(fixedDelayString = "${stock.cluster.renew-interval-ms:5000}")
+    public void renew() {
+        if (!enabled) {
+            return;
+        }
+
+        boolean wasLeader = isLeader();
+        long start = System.nanoTime();
+        try {
+            if (claim(LocalDateTime.now())) {
+                leadingUntilNanos = start + leaseTtl.toNanos() - TimeUnit.MILLISECONDS.toNanos(renewIntervalMs);
+                leading = true;
+                renewals.incrementAndGet();
+                if (!wasLeader) {
+                    acquisitions.incrementAndGet();
+                    log.info("Node {} is now the ingest leader", nodeId);
+                }
+            } else {
+                leading = false;
+                if (wasLeader) {
+                    log.warn("Node {} lost the ingest lease", nodeId);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Leadership lapses on its own once leadingUntilNanos passes
+            renewFailures.incrementAndGet();
+            log.warn("Could not renew the ingest lease: {}", e.getMessage());
+        }
+    }
+
+    private boolean claim(LocalDateTime now) {
+        LocalDateTime expiresAt = now.plus(leaseTtl);
+        if (leaseRepository.claim(INGEST_LEASE, nodeId, now, expiresAt) > 0) {
+            return true;
+        }
+        if (leaseRepository.existsById(INGEST_LEASE)) {
+            return false;
+        }
+        try {
+            leaseRepository.saveAndFlush(new ClusterLease(INGEST_LEASE, nodeId, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease first
+            return false;
+        }
+    }
+
+    // Hands the lease over on a clean shutdown instead of letting the next leader wait for it to expire
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled || !leading) {
+            return;
+        }
+        leading = false;
+        try {
+            leaseRepository.release(INGEST_LEASE, nodeId, LocalDateTime.now().minus(leaseTtl));
+            log.info("Node {} released the ingest lease", nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the ingest lease: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isLeader() {
+        return !enabled || (leading && System.nanoTime() - leadingUntilNanos < 0);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Where quotes come from. Pull sources answer fetch calls from the update cycle; streaming sources
+// push ticks into the ingest path themselves once started.
+public interface MarketDataSource {
+
+    String getName();
+
+    // True when quotes reflect the real market
+    boolean isLive();
+
+    // Initial quotes used to seed the cache; symbols missing from the result fall back to the simulator
+    CompletableFuture<Map<String, Stock>> fetchQuotes(Collection<String> symbols);
+
+    // Next quote for a symbol given the cached one; completes with null when no quote is available
+    CompletableFuture<Stock> fetchQuote(String symbol, Stock current);
+
+    // Request quota shared by all symbols; the refresh scheduler spreads it across them
+    default double getRequestsPerMinute() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    default boolean isStreaming() {
+        return false;
+    }
+
+    default void start(TickListener listener) {
+    }
+
+    default void stop() {
+    }
+}
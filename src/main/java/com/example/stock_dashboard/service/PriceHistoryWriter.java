@@ -0,0 +1,207 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.StockPriceHistory;
+import com.example.stock_dashboard.repo.StockHistoryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-behind stage for price history: update threads only enqueue, a single writer thread
+// drains the queue into batched inserts
+@Service
+public class PriceHistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceHistoryWriter.class);
+
+    @Autowired
+    private StockHistoryRepository historyRepository;
+
+    @Autowired
+    private HistoryStatsTracker statsTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.history.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${stock.history.writer.flush-size:500}")
+    private int flushSize;
+
+    @Value("${stock.history.writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${stock.history.writer.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${stock.history.writer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    // Enqueue time travels with the row so the writer can report tick-to-persist latency
+    private record Pending(StockPriceHistory row, long enqueuedNanos) {
+    }
+
+    private BlockingQueue<Pending> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong blockedOffers = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private Timer persistLatency;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        persistLatency = Timer.builder("stock.tick.persist.latency")
+                .description("Time from enqueueing a history row to its batch being committed")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("stock.history.flush")
+                .description("Batched insert of queued history rows")
+                .register(meterRegistry);
+        Gauge.builder("stock.history.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        FunctionCounter.builder("stock.history.rows", persisted, AtomicLong::get).tag("result", "persisted")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.history.rows", dropped, AtomicLong::get).tag("result", "dropped")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.history.rows", enqueued, AtomicLong::get).tag("result", "enqueued")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.history.blocked.offers", blockedOffers, AtomicLong::get)
+                .description("Rows that found the queue full and waited for room")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.history.failed.batches", failedBatches, AtomicLong::get).register(meterRegistry);
+        running = true;
+        writerThread = new Thread(this::runWriter, "price-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // For the update executor: waits up to offer-timeout-ms for room when the queue is full
+    public boolean enqueue(StockPriceHistory history) {
+        return enqueue(history, true);
+    }
+
+    // For the streaming ingest thread, which every tick passes through: sheds the row at once when
+    // the queue is full
+    public boolean offer(StockPriceHistory history) {
+        return enqueue(history, false);
+    }
+
+    private boolean enqueue(StockPriceHistory history, boolean wait) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        Pending pending = new Pending(history, System.nanoTime());
+        boolean accepted = queue.offer(pending);
+        if (!accepted && wait) {
+            // Queue is full: apply backpressure to the producer for a bounded time, then shed the tick
+            blockedOffers.incrementAndGet();
+            try {
+                accepted = queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (accepted) {
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(flushSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+
+        while (running) {
+            try {
+                long waitNanos = deadline - System.nanoTime();
+                Pending head = waitNanos > 0 ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : queue.poll();
+                if (head != null) {
+                    batch.add(head);
+                    queue.drainTo(batch, flushSize - batch.size());
+                }
+
+                if (batch.size() >= flushSize || System.nanoTime() - deadline >= 0) {
+                    flush(batch);
+                    deadline = System.nanoTime() + flushIntervalNanos;
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+
+        // Shutdown: whatever is still queued gets written before the thread exits
+        do {
+            queue.drainTo(batch, flushSize - batch.size());
+            flush(batch);
+        } while (!queue.isEmpty());
+    }
+
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<StockPriceHistory> rows = new ArrayList<>(batch.size());
+            batch.forEach(pending -> rows.add(pending.row()));
+            historyRepository.saveAll(rows);
+            statsTracker.onPersisted(rows);
+            persisted.addAndGet(batch.size());
+
+            long committed = System.nanoTime();
+            flushTimer.record(committed - start, TimeUnit.NANOSECONDS);
+            batch.forEach(pending -> persistLatency.record(committed - pending.enqueuedNanos(), TimeUnit.NANOSECONDS));
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            dropped.addAndGet(batch.size());
+            log.error("Error writing price history batch of {}: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Price history writer did not finish flushing within {}ms", shutdownTimeoutMs);
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.PricePoint;
+import com.example.stock_dashboard.model.PriceSeries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hot in-memory history: one ring buffer per symbol holding the most recent ticks
+@Service
+public class PriceSeriesStore {
+
+    @Value("${stock.history.buffer-capacity:2048}")
+    private int capacity;
+
+    private final Map<String, PriceSeries> series = new ConcurrentHashMap<>();
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public void append(String symbol, long epochMillis, double price) {
+        series.computeIfAbsent(symbol, s -> new PriceSeries(s, capacity)).append(epochMillis, price);
+    }
+
+    public void remove(String symbol) {
+        series.remove(symbol);
+    }
+
+    public PriceSeries get(String symbol) {
+        return series.get(symbol);
+    }
+
+    public List<PricePoint> latest(String symbol, int limit) {
+        PriceSeries s = series.get(symbol);
+        if (s == null) {
+            return new ArrayList<>();
+        }
+
+        List<PricePoint> points = new ArrayList<>(Math.min(limit, s.size()));
+        s.forEachNewestFirst(limit, (ts, price) -> points.add(new PricePoint(symbol, price, toLocalDateTime(ts))));
+        return points;
+    }
+
+    public LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    public long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+// Latest quote per symbol, in a slot per SymbolRegistry id. Each symbol's Stock is replaced
+// atomically with a new immutable instance; the board view is an immutable list in id order,
+// rebuilt at most once per change and shared by all readers until the next change, so reads neither
+// lock nor allocate.
+@Component
+public class QuoteBoard {
+
+    public record Snapshot(long version, List<Stock> stocks) {
+    }
+
+    private record Symbols(long membership, List<String> symbols) {
+    }
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    private final SymbolSlots<Stock> quotes = new SymbolSlots<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong version = new AtomicLong();
+    // Bumped when a symbol gets its first quote or is removed
+    private final AtomicLong membership = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+    private volatile Symbols symbols = new Symbols(0, List.of());
+
+    public Stock get(String symbol) {
+        int id = symbolRegistry.find(symbol);
+        return id < 0 ? null : quotes.get(id);
+    }
+
+    public Stock get(int id) {
+        return quotes.get(id);
+    }
+
+    // Every id that may hold a quote is below this
+    public int idLimit() {
+        return symbolRegistry.size();
+    }
+
+    // Symbols with a quote, in id order
+    public List<String> symbols() {
+        Symbols current = symbols;
+        long latest = membership.get();
+        if (current.membership() == latest) {
+            return current.symbols();
+        }
+        List<String> rebuilt = new ArrayList<>(count.get());
+        int limit = idLimit();
+        for (int id = 0; id < limit; id++) {
+            if (quotes.get(id) != null) {
+                rebuilt.add(symbolRegistry.symbolOf(id));
+            }
+        }
+        current = new Symbols(latest, Collections.unmodifiableList(rebuilt));
+        symbols = current;
+        return current.symbols();
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    // Quotes of symbols that aren't tracked are ignored; returns whether the quote was published
+    public boolean put(Stock stock) {
+        int id = symbolRegistry.find(stock.getSymbol());
+        if (!symbolRegistry.isTracked(id)) {
+            return false;
+        }
+        if (quotes.getAndSet(id, stock) == null) {
+            added();
+        }
+        version.incrementAndGet();
+        return !discardIfRemoved(id, stock);
+    }
+
+    // Applies the update to the current quote (or the initial one for a symbol without a quote yet) and
+    // returns the published instance, or null when the symbol isn't tracked: a quote arriving after its
+    // symbol was removed (a late refresh, a stream tick, a cluster update) must not bring it back.
+    // Lock-free: an update that loses a race with another update of the same symbol is applied again
+    // to the winner, so it must be free of side effects.
+    public Stock update(String symbol, Stock initial, UnaryOperator<Stock> update) {
+        int id = symbolRegistry.find(symbol);
+        if (!symbolRegistry.isTracked(id)) {
+            return null;
+        }
+        while (true) {
+            Stock current = quotes.get(id);
+            Stock published = update.apply(current != null ? current : initial);
+            if (quotes.compareAndSet(id, current, published)) {
+                if (current == null) {
+                    added();
+                }
+                version.incrementAndGet();
+                return discardIfRemoved(id, published) ? null : published;
+            }
+        }
+    }
+
+    // The symbol may have been removed between the tracked check and publishing the quote, after
+    // StockService.removeSymbol cleared the slot
+    private boolean discardIfRemoved(int id, Stock published) {
+        if (symbolRegistry.isTracked(id)) {
+            return false;
+        }
+        if (quotes.compareAndSet(id, published, null)) {
+            removed();
+        }
+        return true;
+    }
+
+    public Stock remove(String symbol) {
+        int id = symbolRegistry.find(symbol);
+        Stock removed = id < 0 ? null : quotes.getAndSet(id, null);
+        if (removed != null) {
+            removed();
+        }
+        return removed;
+    }
+
+    private void added() {
+        count.incrementAndGet();
+        membership.incrementAndGet();
+    }
+
+    private void removed() {
+        count.decrementAndGet();
+        membership.incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        long latest = version.get();
+        if (current.version() == latest) {
+            return current;
+        }
+        // One sequential pass over the slots; racing rebuilds produce equivalent lists and the newest one wins
+        List<Stock> stocks = new ArrayList<>(count.get());
+        int limit = idLimit();
+        for (int id = 0; id < limit; id++) {
+            Stock stock = quotes.get(id);
+            if (stock != null) {
+                stocks.add(stock);
+            }
+        }
+        Snapshot rebuilt = new Snapshot(latest, Collections.unmodifiableList(stocks));
+        if (rebuilt.version() > snapshot.version()) {
+            snapshot = rebuilt;
+        }
+        return rebuilt;
+    }
+
+    public long version() {
+        return version.get();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.QuoteUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.Consumer;
+
+// Carries the ingest leader's quotes to every node of a cluster. Delivery is at most once and in
+// publish order; a node that misses an update catches up with the next quote for that symbol.
+// Subscribers also receive their own node's updates.
+public interface QuoteBus {
+
+    String getName();
+
+    void start(Consumer<QuoteUpdate> consumer);
+
+    void publish(QuoteUpdate update);
+
+    default void stop() {
+    }
+
+    // Registers the bus's message counters; called once for the bus in use
+    void bindTo(MeterRegistry registry);
+}
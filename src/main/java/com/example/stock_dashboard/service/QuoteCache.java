@@ -0,0 +1,178 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Provider quote cache in front of the rate-limited API. An entry is served as-is while fresh; once
+// stale it is still served but a single background revalidation is started, and only after
+// maxStale on top of that is it dropped. Fresh time is longer outside US market hours, when the
+// quote cannot move. Concurrent misses for a symbol share one upstream call, and size is bounded
+// by Caffeine's W-TinyLFU eviction.
+public class QuoteCache {
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("America/New_York");
+    private static final LocalTime MARKET_OPEN = LocalTime.of(9, 30);
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(16, 0);
+
+    private record Entry(Stock stock, long loadedAtNanos, long freshNanos) {}
+
+    private final Function<String, CompletableFuture<Stock>> fetchOne;
+    private final Function<Set<String>, CompletableFuture<Map<String, Stock>>> fetchMany;
+    private final long openFreshNanos;
+    private final long closedFreshNanos;
+    private final long maxStaleNanos;
+    private final Ticker ticker;
+    private final AsyncLoadingCache<String, Entry> cache;
+
+    private final AtomicLong freshHits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong failedRevalidations = new AtomicLong();
+
+    public QuoteCache(Function<String, CompletableFuture<Stock>> fetchOne,
+                      Function<Set<String>, CompletableFuture<Map<String, Stock>>> fetchMany,
+                      long openFreshMillis, long closedFreshMillis, long maxStaleMillis, long maximumSize,
+                      Ticker ticker) {
+        this.fetchOne = fetchOne;
+        this.fetchMany = fetchMany;
+        this.openFreshNanos = TimeUnit.MILLISECONDS.toNanos(openFreshMillis);
+        this.closedFreshNanos = TimeUnit.MILLISECONDS.toNanos(closedFreshMillis);
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(maxStaleMillis);
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return remaining(entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return remaining(entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync(new Loader());
+    }
+
+    // Completes with null when the symbol is neither cached nor fetchable right now
+    public CompletableFuture<Stock> get(String symbol) {
+        return cache.get(symbol).thenApply(entry -> serve(symbol, entry));
+    }
+
+    // Cached symbols are served from the cache; the missing ones are fetched in one bulk call
+    public CompletableFuture<Map<String, Stock>> getAll(Collection<String> symbols) {
+        return cache.getAll(symbols).thenApply(entries -> {
+            Map<String, Stock> quotes = new LinkedHashMap<>();
+            entries.forEach((symbol, entry) -> {
+                Stock stock = serve(symbol, entry);
+                if (stock != null) {
+                    quotes.put(symbol, stock);
+                }
+            });
+            return quotes;
+        });
+    }
+
+    private Stock serve(String symbol, Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+        if (ticker.read() - entry.loadedAtNanos() < entry.freshNanos()) {
+            freshHits.incrementAndGet();
+        } else {
+            // Caffeine joins a refresh that is already running, so this starts at most one upstream call
+            staleHits.incrementAndGet();
+            cache.synchronous().refresh(symbol);
+        }
+        return entry.stock();
+    }
+
+    // Measured from the load, so an entry kept by a failed revalidation still expires on time
+    private long remaining(Entry entry, long currentTime) {
+        return Math.max(0, entry.loadedAtNanos() + entry.freshNanos() + maxStaleNanos - currentTime);
+    }
+
+    private Entry entry(Stock stock) {
+        return stock == null ? null : new Entry(stock, ticker.read(), freshNanos());
+    }
+
+    private long freshNanos() {
+        ZonedDateTime now = ZonedDateTime.now(MARKET_ZONE);
+        boolean weekday = now.getDayOfWeek() != DayOfWeek.SATURDAY && now.getDayOfWeek() != DayOfWeek.SUNDAY;
+        boolean open = weekday && !now.toLocalTime().isBefore(MARKET_OPEN) && now.toLocalTime().isBefore(MARKET_CLOSE);
+        return open ? openFreshNanos : closedFreshNanos;
+    }
+
+    private final class Loader implements AsyncCacheLoader<String, Entry> {
+        // A null result is not cached, so the next request tries the provider again
+        @Override
+        public CompletableFuture<Entry> asyncLoad(String symbol, Executor executor) {
+            return fetchOne.apply(symbol).thenApply(QuoteCache.this::entry);
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Entry>> asyncLoadAll(Set<? extends String> symbols, Executor executor) {
+            return fetchMany.apply(Set.copyOf(symbols)).thenApply(quotes -> {
+                Map<String, Entry> entries = new LinkedHashMap<>();
+                quotes.forEach((symbol, stock) -> entries.put(symbol, entry(stock)));
+                return entries;
+            });
+        }
+
+        // An unavailable quote keeps the stale entry until it expires; the next stale read retries
+        @Override
+        public CompletableFuture<Entry> asyncReload(String symbol, Entry oldEntry, Executor executor) {
+            revalidations.incrementAndGet();
+            return fetchOne.apply(symbol).thenApply(stock -> {
+                if (stock == null) {
+                    failedRevalidations.incrementAndGet();
+                    return oldEntry;
+                }
+                return entry(stock);
+            });
+        }
+    }
+
+    // Caffeine's cache.* meters (hits, misses, loads, evictions) plus hits split by freshness
+    public void bindTo(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        FunctionCounter.builder("stock.quote.cache.served", freshHits, AtomicLong::get)
+                .tag("cache", name).tag("freshness", "fresh").register(registry);
+        FunctionCounter.builder("stock.quote.cache.served", staleHits, AtomicLong::get)
+                .tag("cache", name).tag("freshness", "stale").register(registry);
+        FunctionCounter.builder("stock.quote.cache.revalidations", revalidations, AtomicLong::get)
+                .tag("cache", name).tag("result", "started").register(registry);
+        FunctionCounter.builder("stock.quote.cache.revalidations", failedRevalidations, AtomicLong::get)
+                .tag("cache", name).tag("result", "failed").register(registry);
+    }
+
+}
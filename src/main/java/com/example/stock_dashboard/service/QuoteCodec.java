@@ -0,0 +1,155 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// Fixed-layout binary encoding of quotes (big-endian), negotiated as application/x-stock-quotes over
+// REST and used on the /topic/stocks/binary destinations. Every message starts with an 8-byte header:
+//   magic 'Q''S' (short), format version (byte), message type (byte), symbol table size (int)
+// QUOTES: count (int), then per quote 44 bytes:
+//   symbol id (int), price, change, changePercent (double), lastUpdated epoch millis, version (long)
+// FRAME (stream delta/snapshot): symbol id (int), seq (long), flags (byte), then only the fields
+//   whose flag is set, in flag order: price, change, changePercent (double), lastUpdated (long)
+@Component
+public class QuoteCodec {
+
+    public static final String MEDIA_TYPE = "application/x-stock-quotes";
+
+    public static final short MAGIC = 0x5153;
+    public static final byte VERSION = 1;
+    public static final byte TYPE_QUOTES = 1;
+    public static final byte TYPE_FRAME = 2;
+
+    public static final int FLAG_SNAPSHOT = 1;
+    public static final int FLAG_PRICE = 1 << 1;
+    public static final int FLAG_CHANGE = 1 << 2;
+    public static final int FLAG_CHANGE_PERCENT = 1 << 3;
+    public static final int FLAG_LAST_UPDATED = 1 << 4;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int QUOTE_BYTES = 44;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    public byte[] encodeQuotes(Collection<Stock> stocks) {
+        // Ids first, so the header's table size covers every id in the body
+        int[] ids = new int[stocks.size()];
+        int i = 0;
+        for (Stock stock : stocks) {
+            ids[i++] = symbolRegistry.idOf(stock.getSymbol());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 + QUOTE_BYTES * stocks.size());
+        header(buffer, TYPE_QUOTES);
+        buffer.putInt(stocks.size());
+        i = 0;
+        for (Stock stock : stocks) {
+            buffer.putInt(ids[i++]);
+            buffer.putDouble(stock.getPrice());
+            buffer.putDouble(stock.getChange());
+            buffer.putDouble(stock.getChangePercent());
+            buffer.putLong(epochMillis(stock.getLastUpdated()));
+            buffer.putLong(stock.getVersion());
+        }
+        return buffer.array();
+    }
+
+    // Same field selection as the JSON stream frames: a snapshot carries every field, a delta only
+    // the fields that differ from the previous frame
+    public byte[] encodeFrame(Stock stock, long seq, boolean snapshot, Stock previous) {
+        int id = symbolRegistry.idOf(stock.getSymbol());
+        int flags = snapshot ? FLAG_SNAPSHOT : 0;
+        int size = HEADER_BYTES + 4 + 8 + 1;
+        if (previous == null || previous.getPrice() != stock.getPrice()) {
+            flags |= FLAG_PRICE;
+            size += 8;
+        }
+        if (previous == null || previous.getChange() != stock.getChange()) {
+            flags |= FLAG_CHANGE;
+            size += 8;
+        }
+        if (previous == null || previous.getChangePercent() != stock.getChangePercent()) {
+            flags |= FLAG_CHANGE_PERCENT;
+            size += 8;
+        }
+        if (previous == null || !Objects.equals(previous.getLastUpdated(), stock.getLastUpdated())) {
+            flags |= FLAG_LAST_UPDATED;
+            size += 8;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        header(buffer, TYPE_FRAME);
+        buffer.putInt(id);
+        buffer.putLong(seq);
+        buffer.put((byte) flags);
+        if ((flags & FLAG_PRICE) != 0) {
+            buffer.putDouble(stock.getPrice());
+        }
+        if ((flags & FLAG_CHANGE) != 0) {
+            buffer.putDouble(stock.getChange());
+        }
+        if ((flags & FLAG_CHANGE_PERCENT) != 0) {
+            buffer.putDouble(stock.getChangePercent());
+        }
+        if ((flags & FLAG_LAST_UPDATED) != 0) {
+            buffer.putLong(epochMillis(stock.getLastUpdated()));
+        }
+        return buffer.array();
+    }
+
+    public List<Stock> decodeQuotes(byte[] message) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(message);
+            readHeader(buffer, TYPE_QUOTES);
+            int count = buffer.getInt();
+            List<Stock> stocks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = buffer.getInt();
+                String symbol = symbolRegistry.symbolOf(id);
+                if (symbol == null) {
+                    throw new IllegalArgumentException("Unknown symbol id " + id);
+                }
+                stocks.add(new Stock(symbol, buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong()), ZONE), buffer.getLong()));
+            }
+            return stocks;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated quotes message", e);
+        }
+    }
+
+    private void header(ByteBuffer buffer, byte type) {
+        buffer.putShort(MAGIC);
+        buffer.put(VERSION);
+        buffer.put(type);
+        buffer.putInt(symbolRegistry.size());
+    }
+
+    private static void readHeader(ByteBuffer buffer, byte type) {
+        if (buffer.getShort() != MAGIC || buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Not a stock quotes message");
+        }
+        byte actual = buffer.get();
+        if (actual != type) {
+            throw new IllegalArgumentException("Unexpected message type " + actual);
+        }
+        buffer.getInt();
+    }
+
+    private static long epochMillis(LocalDateTime timestamp) {
+        return timestamp == null ? 0 : timestamp.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
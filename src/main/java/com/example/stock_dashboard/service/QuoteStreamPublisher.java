@@ -0,0 +1,225 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes quotes to /topic/stocks/{symbol} as delta frames: only the fields that changed since the
+// previous frame, a per-symbol sequence number, and a full snapshot periodically or after a new subscription.
+// The same frames go QuoteCodec-encoded to /topic/stocks/binary/{symbol} when that has subscribers.
+// Behind a broker relay every node's frames reach every subscriber in the cluster, and subscriptions
+// made on other nodes are not visible here: only the ingest leader publishes, to every destination.
+@Service
+public class QuoteStreamPublisher {
+
+    @Autowired
+    private StompBroadcaster broadcaster;
+
+    @Autowired
+    private StockSubscriptionRegistry subscriptionRegistry;
+
+    @Autowired
+    private QuoteCodec codec;
+
+    @Autowired
+    private PriceSeriesStore seriesStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Value("${stock.stream.snapshot-every:20}")
+    private int snapshotEvery;
+
+    @Value("${stock.cluster.broker-relay.enabled:false}")
+    private boolean brokerRelay;
+
+    private final Map<String, SymbolStream> streams = new ConcurrentHashMap<>();
+    private final AtomicLong deltaFrames = new AtomicLong();
+    private final AtomicLong snapshotFrames = new AtomicLong();
+    private final AtomicLong skippedUnwatched = new AtomicLong();
+    private final AtomicLong boardFrames = new AtomicLong();
+    private final AtomicBoolean boardDirty = new AtomicBoolean(true);
+    private Timer broadcastLatency;
+
+    @PostConstruct
+    public void initialize() {
+        broadcastLatency = Timer.builder("stock.tick.broadcast.latency")
+                .description("Time from a quote being applied to its stream frame reaching the broker")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.stream.frames", deltaFrames, AtomicLong::get).tag("type", "delta")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.stream.frames", snapshotFrames, AtomicLong::get).tag("type", "snapshot")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.stream.frames", boardFrames, AtomicLong::get).tag("type", "board")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.stream.skipped.unwatched", skippedUnwatched, AtomicLong::get)
+                .description("Quote updates not framed because no session watches the symbol")
+                .register(meterRegistry);
+        Gauge.builder("stock.stream.sessions", subscriptionRegistry, StockSubscriptionRegistry::getSessionCount)
+                .register(meterRegistry);
+        Gauge.builder("stock.stream.watched.symbols", subscriptionRegistry, registry -> registry.getSubscribedSymbols().size())
+                .register(meterRegistry);
+    }
+
+    public void publish(Stock stock) {
+        if (!publishing()) {
+            return;
+        }
+        String symbol = stock.getSymbol();
+        boardDirty.set(true);
+        if (!brokerRelay && subscriptionRegistry.symbolSubscriberCount(symbol) == 0) {
+            skippedUnwatched.incrementAndGet();
+            return;
+        }
+
+        streams.computeIfAbsent(symbol, s -> new SymbolStream())
+                .send(stock, subscriptionRegistry.consumeNewSubscription(symbol));
+    }
+
+    // Forgets the stream of a symbol that is no longer tracked; if it is added back it starts over
+    public void remove(String symbol) {
+        streams.remove(symbol);
+    }
+
+    public void publishAll(List<Stock> stocks) {
+        stocks.forEach(this::publish);
+        if (publishing() && hasBoardSubscribers()) {
+            sendBoard(stocks);
+        }
+    }
+
+    // Board frame only when something was published since the last one
+    public void publishBoard(List<Stock> stocks) {
+        if (publishing() && hasBoardSubscribers() && boardDirty.getAndSet(false)) {
+            sendBoard(stocks);
+        }
+    }
+
+    private void sendBoard(List<Stock> stocks) {
+        if (hasSubscribers(StockSubscriptionRegistry.BOARD_DESTINATION)) {
+            broadcaster.broadcast(StockSubscriptionRegistry.BOARD_DESTINATION, stocks);
+        }
+        if (hasSubscribers(StockSubscriptionRegistry.BINARY_BOARD_DESTINATION)) {
+            long start = System.nanoTime();
+            byte[] body = codec.encodeQuotes(stocks);
+            broadcaster.broadcastBinary(StockSubscriptionRegistry.BINARY_BOARD_DESTINATION, body, System.nanoTime() - start);
+        }
+        boardFrames.incrementAndGet();
+    }
+
+    private boolean publishing() {
+        return !brokerRelay || leaderElection.isLeader();
+    }
+
+    private boolean hasSubscribers(String destination) {
+        return brokerRelay || subscriptionRegistry.subscriberCount(destination) > 0;
+    }
+
+    private boolean hasBoardSubscribers() {
+        return brokerRelay || subscriptionRegistry.hasBoardSubscribers();
+    }
+
+    // Full frame for a client that wants to resync outside of the regular stream
+    public Map<String, Object> snapshotFrame(Stock stock) {
+        SymbolStream stream = streams.computeIfAbsent(stock.getSymbol(), s -> new SymbolStream());
+        synchronized (stream) {
+            return frame(stock, stream.seq, "snapshot", null);
+        }
+    }
+
+    // Frames of one symbol are numbered and sent under the stream's lock, so subscribers see them in
+    // sequence order; quotes not newer than the last one sent (a late refresh, a republished board
+    // quote) are dropped instead of going out as a delta that moves the price backwards
+    private final class SymbolStream {
+        private long seq;
+        private Stock lastSent;
+        private int framesSinceSnapshot;
+
+        synchronized void send(Stock stock, boolean forceSnapshot) {
+            if (lastSent != null && stock.getVersion() <= lastSent.getVersion()) {
+                if (!forceSnapshot) {
+                    return;
+                }
+                // The new subscriber still gets its snapshot, of the latest quote
+                stock = lastSent;
+            }
+            boolean snapshot = forceSnapshot || lastSent == null || framesSinceSnapshot >= snapshotEvery;
+            if (!snapshot && !changed(lastSent, stock)) {
+                lastSent = stock;
+                return;
+            }
+
+            seq++;
+            Stock previous = snapshot ? null : lastSent;
+            if (snapshot) {
+                framesSinceSnapshot = 0;
+                snapshotFrames.incrementAndGet();
+            } else {
+                framesSinceSnapshot++;
+                deltaFrames.incrementAndGet();
+            }
+            lastSent = stock;
+
+            String symbol = stock.getSymbol();
+            String destination = StockSubscriptionRegistry.SYMBOL_DESTINATION_PREFIX + symbol;
+            if (hasSubscribers(destination)) {
+                broadcaster.broadcast(destination, frame(stock, seq, snapshot ? "snapshot" : "delta", previous));
+            }
+            String binaryDestination = StockSubscriptionRegistry.BINARY_SYMBOL_DESTINATION_PREFIX + symbol;
+            if (hasSubscribers(binaryDestination)) {
+                long start = System.nanoTime();
+                byte[] body = codec.encodeFrame(stock, seq, snapshot, previous);
+                broadcaster.broadcastBinary(binaryDestination, body, System.nanoTime() - start);
+            }
+            if (stock.getLastUpdated() != null) {
+                broadcastLatency.record(System.currentTimeMillis() - seriesStore.toEpochMillis(stock.getLastUpdated()),
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static Map<String, Object> frame(Stock stock, long seq, String type, Stock previous) {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("symbol", stock.getSymbol());
+        frame.put("seq", seq);
+        frame.put("type", type);
+        if (previous == null || previous.getPrice() != stock.getPrice()) {
+            frame.put("price", stock.getPrice());
+        }
+        if (previous == null || previous.getChange() != stock.getChange()) {
+            frame.put("change", stock.getChange());
+        }
+        if (previous == null || previous.getChangePercent() != stock.getChangePercent()) {
+            frame.put("changePercent", stock.getChangePercent());
+        }
+        if (previous == null || !Objects.equals(previous.getLastUpdated(), stock.getLastUpdated())) {
+            frame.put("lastUpdated", stock.getLastUpdated());
+        }
+        return frame;
+    }
+
+    private static boolean changed(Stock previous, Stock current) {
+        return previous.getPrice() != current.getPrice()
+                || previous.getChange() != current.getChange()
+                || previous.getChangePercent() != current.getChangePercent()
+                || !Objects.equals(previous.getLastUpdated(), current.getLastUpdated());
+    }
+}
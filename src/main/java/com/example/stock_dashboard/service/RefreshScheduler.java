@@ -0,0 +1,229 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import com.example.stock_dashboard.model.Stock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Refreshes every tracked symbol on its own cadence. Symbols with subscribers or a volatile recent
+// window are refreshed more often; when the data source has a request quota, all intervals are
+// stretched together so the combined refresh rate stays within it. The scheduling thread only
+// picks due symbols; refreshes run on the UpdateExecutor and a symbol is never refreshed twice at once.
+// Schedules sit in SymbolSlots next to the QuoteBoard's, so each pass walks both in id order.
+@Service
+public class RefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshScheduler.class);
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private QuoteBoard quoteBoard;
+
+    @Autowired
+    private StockSubscriptionRegistry subscriptionRegistry;
+
+    @Autowired
+    private AnalyticsEngine analyticsEngine;
+
+    @Autowired
+    private QuoteStreamPublisher quotePublisher;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private WarmStartService warmStart;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Interval for an unwatched, quiet symbol
+    @Value("${stock.refresh.base-interval-ms:60000}")
+    private long baseIntervalMs;
+
+    @Value("${stock.refresh.min-interval-ms:2000}")
+    private long minIntervalMs;
+
+    @Value("${stock.refresh.max-interval-ms:300000}")
+    private long maxIntervalMs;
+
+    // Relative std dev of the shortest analytics window that counts as one unit of volatility boost
+    @Value("${stock.refresh.volatility-reference:0.005}")
+    private double volatilityReference;
+
+    @Value("${stock.refresh.max-volatility-boost:4}")
+    private double maxVolatilityBoost;
+
+    // Share of the provider quota the scheduler may spend; the rest is left for manual refreshes
+    @Value("${stock.refresh.quota-share:0.8}")
+    private double quotaShare;
+
+    // Only the scheduling thread creates and drops schedules
+    private final SymbolSlots<SymbolSchedule> schedules = new SymbolSlots<>();
+    private volatile double quotaScale = 1.0;
+
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong skippedBusy = new AtomicLong();
+
+    @PostConstruct
+    public void registerMeters() {
+        FunctionCounter.builder("stock.refresh.runs", refreshes, AtomicLong::get).tag("result", "refreshed")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.refresh.runs", failures, AtomicLong::get).tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.refresh.runs", skippedBusy, AtomicLong::get).tag("result", "skipped-busy")
+                .description("Due refreshes skipped because the previous one was still running")
+                .register(meterRegistry);
+        Gauge.builder("stock.refresh.quota.scale", this, scheduler -> scheduler.quotaScale)
+                .description("Factor all refresh intervals are stretched by to stay within the provider quota")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${stock.refresh.tick-ms:250}")
+    public void dispatchDue() {
+        // Only the cluster's ingest leader calls the provider; streaming sources push every tick
+        // through StockService.ingestTick and have nothing to refresh
+        if (!leaderElection.isLeader() || stockService.getDataSource().isStreaming()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int limit = quoteBoard.idLimit();
+
+        double requestsPerMinute = 0;
+        for (int id = 0; id < limit; id++) {
+            Stock stock = quoteBoard.get(id);
+            SymbolSchedule schedule = schedules.get(id);
+            if (stock == null) {
+                // Removed (or never quoted); a symbol added back starts over
+                if (schedule != null) {
+                    schedules.set(id, null);
+                }
+                continue;
+            }
+            if (schedule == null) {
+                schedule = new SymbolSchedule(stock.getSymbol(), now, baseIntervalMs);
+                schedules.set(id, schedule);
+            }
+            schedule.rawIntervalMs = rawInterval(schedule.symbol, schedule);
+            requestsPerMinute += 60_000.0 / schedule.rawIntervalMs;
+        }
+
+        double quota = stockService.getDataSource().getRequestsPerMinute() * quotaShare;
+        quotaScale = Double.isInfinite(quota) || requestsPerMinute <= quota ? 1.0 : requestsPerMinute / quota;
+
+        for (int id = 0; id < limit; id++) {
+            SymbolSchedule schedule = schedules.get(id);
+            // A refresh during the warm-start backfill would make the older bars unusable
+            if (schedule == null || now - schedule.lastRefreshMillis < schedule.rawIntervalMs * quotaScale
+                    || warmStart.isBackfilling(schedule.symbol)) {
+                continue;
+            }
+            if (!schedule.inFlight.compareAndSet(false, true)) {
+                skippedBusy.incrementAndGet();
+                continue;
+            }
+            schedule.lastRefreshMillis = now;
+            refresh(schedule.symbol, schedule);
+        }
+    }
+
+    private void refresh(String symbol, SymbolSchedule schedule) {
+        Stock before = quoteBoard.get(symbol);
+        try {
+            stockService.updateStockPrice(symbol).whenComplete((stock, error) -> {
+                try {
+                    if (error != null) {
+                        failures.incrementAndGet();
+                        log.warn("Error refreshing {}: {}", symbol, error.getMessage());
+                    } else if (stock != null) {
+                        refreshes.incrementAndGet();
+                        // An unchanged quote (a repeated provider quote) was already published
+                        if (stock != before) {
+                            quotePublisher.publish(stock);
+                        }
+                    }
+                } finally {
+                    schedule.inFlight.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            schedule.inFlight.set(false);
+            log.warn("Error refreshing {}: {}", symbol, e.getMessage());
+        }
+    }
+
+    // base / (1 + subscriber boost + volatility boost), clamped; board subscribers watch every symbol
+    private long rawInterval(String symbol, SymbolSchedule schedule) {
+        int subscribers = subscriptionRegistry.symbolSubscriberCount(symbol)
+                + subscriptionRegistry.boardSubscriberCount();
+        double subscriberBoost = Math.log(1 + subscribers) / Math.log(2);
+
+        double volatility = 0;
+        AnalyticsSnapshot snapshot = analyticsEngine.getSnapshot(symbol);
+        if (snapshot != null && !snapshot.windows().isEmpty()) {
+            AnalyticsSnapshot.WindowStats window = snapshot.windows().get(0);
+            if (window.count() > 1 && window.avgPrice() > 0) {
+                volatility = window.stdDev() / window.avgPrice();
+            }
+        }
+        double volatilityBoost = Math.min(maxVolatilityBoost, volatility / volatilityReference);
+
+        schedule.subscribers = subscribers;
+        schedule.volatility = volatility;
+        long interval = Math.round(baseIntervalMs / (1 + subscriberBoost + volatilityBoost));
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, interval));
+    }
+
+    // The symbol's refresh schedule, or null when it has none yet
+    public Map<String, Object> describe(String symbol) {
+        int id = symbolRegistry.find(symbol);
+        SymbolSchedule schedule = id < 0 ? null : schedules.get(id);
+        if (schedule == null) {
+            return null;
+        }
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("intervalMs", Math.round(schedule.rawIntervalMs * quotaScale));
+        info.put("subscribers", schedule.subscribers);
+        info.put("volatility", schedule.volatility);
+        info.put("lastRefresh", schedule.lastRefreshMillis);
+        info.put("inFlight", schedule.inFlight.get());
+        return info;
+    }
+
+    private static final class SymbolSchedule {
+        private final String symbol;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private volatile long lastRefreshMillis;
+        private volatile long rawIntervalMs;
+        private volatile int subscribers;
+        private volatile double volatility;
+
+        // A random phase spreads the first refreshes of symbols added together
+        SymbolSchedule(String symbol, long now, long intervalMs) {
+            this.symbol = symbol;
+            this.rawIntervalMs = intervalMs;
+            this.lastRefreshMillis = now - ThreadLocalRandom.current().nextLong(Math.max(1, intervalMs));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Streams recorded ticks from a file at real or accelerated speed, for offline load tests of the
+// ingest -> analytics -> broadcast path.
+//
+// CSV:    symbol,epochMillis,price per line (a non-numeric header line is skipped)
+// Binary: int magic "TICK", int version, int symbolCount, symbolCount x UTF symbol,
+//         then records of (unsigned short symbolId, long epochMillis, double price) until EOF
+@Service
+public class ReplayMarketDataSource implements MarketDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayMarketDataSource.class);
+
+    public static final String NAME = "replay";
+    public static final int BINARY_MAGIC = 0x5449434B; // "TICK"
+    public static final int BINARY_VERSION = 1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.replay.file:}")
+    private String file;
+
+    // Playback speed relative to the recording; 0 replays as fast as the ingest path accepts ticks
+    @Value("${stock.replay.speed:1.0}")
+    private double speed;
+
+    @Value("${stock.replay.loop:false}")
+    private boolean loop;
+
+    private volatile boolean running;
+    private Thread replayThread;
+    private final AtomicLong ticksReplayed = new AtomicLong();
+
+    @PostConstruct
+    public void registerMeters() {
+        FunctionCounter.builder("stock.replay.ticks", ticksReplayed, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("stock.replay.running", this, source -> source.running ? 1 : 0).register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isLive() {
+        return false;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Stock>> fetchQuotes(Collection<String> symbols) {
+        return CompletableFuture.completedFuture(Map.of());
+    }
+
+    @Override
+    public CompletableFuture<Stock> fetchQuote(String symbol, Stock current) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized void start(TickListener listener) {
+        if (running) {
+            return;
+        }
+        if (file == null || file.isBlank()) {
+            throw new IllegalStateException("stock.replay.file must be set to use the replay data source");
+        }
+
+        Path path = Path.of(file);
+        running = true;
+        replayThread = new Thread(() -> {
+            Pacer pacer = new Pacer();
+            do {
+                try {
+                    replay(path, listener, pacer);
+                } catch (IOException e) {
+                    log.error("Error replaying {}: {}", path, e.getMessage());
+                    break;
+                }
+                pacer.nextPass();
+            } while (running && loop);
+            running = false;
+            log.info("Replay finished: {} ticks from {}", ticksReplayed.get(), path);
+        }, "market-data-replay");
+        replayThread.setDaemon(true);
+        replayThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (replayThread != null) {
+            replayThread.interrupt();
+        }
+    }
+
+    private void replay(Path path, TickListener listener, Pacer pacer) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            in.mark(4);
+            int magic = new DataInputStream(in).readInt();
+            in.reset();
+            if (magic == BINARY_MAGIC) {
+                replayBinary(new DataInputStream(in), listener, pacer);
+            } else {
+                replayCsv(path, listener, pacer);
+            }
+        }
+    }
+
+    private void replayCsv(Path path, TickListener listener, Pacer pacer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                int first = line.indexOf(',');
+                int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+                if (second < 0) {
+                    continue;
+                }
+                long epochMillis;
+                double price;
+                try {
+                    epochMillis = Long.parseLong(line, first + 1, second, 10);
+                    price = Double.parseDouble(line.substring(second + 1).trim());
+                } catch (NumberFormatException e) {
+                    continue; // header or malformed row
+                }
+                emit(line.substring(0, first).trim(), epochMillis, price, listener, pacer);
+            }
+        }
+    }
+
+    private void replayBinary(DataInputStream in, TickListener listener, Pacer pacer) throws IOException {
+        in.readInt();
+        int version = in.readInt();
+        if (version != BINARY_VERSION) {
+            throw new IOException("Unsupported replay file version " + version);
+        }
+        String[] symbols = new String[in.readInt()];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = in.readUTF();
+        }
+
+        while (running) {
+            int symbolId;
+            try {
+                symbolId = in.readUnsignedShort();
+            } catch (EOFException e) {
+                return;
+            }
+            long epochMillis = in.readLong();
+            double price = in.readDouble();
+            emit(symbols[symbolId], epochMillis, price, listener, pacer);
+        }
+    }
+
+    private void emit(String symbol, long epochMillis, double price, TickListener listener, Pacer pacer) {
+        long shifted = pacer.shift(epochMillis);
+        pacer.await(shifted);
+        listener.onTick(symbol, shifted, price);
+        ticksReplayed.incrementAndGet();
+    }
+
+    // Writes ticks in the binary replay layout; symbols are given once in the header
+    public static void writeBinary(OutputStream out, List<String> symbols, int[] symbolIds,
+                                   long[] timestamps, double[] prices, int count) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(BINARY_MAGIC);
+        data.writeInt(BINARY_VERSION);
+        data.writeInt(symbols.size());
+        for (String symbol : symbols) {
+            data.writeUTF(symbol);
+        }
+        for (int i = 0; i < count; i++) {
+            data.writeShort(symbolIds[i]);
+            data.writeLong(timestamps[i]);
+            data.writeDouble(prices[i]);
+        }
+        data.flush();
+    }
+
+    // Maps recording time onto wall-clock time at the configured speed. Each looped pass is shifted
+    // past the previous one by the recording's span plus one tick interval, so time keeps moving forward
+    private final class Pacer {
+        private long firstTickMillis = Long.MIN_VALUE;
+        private long wallStartNanos;
+        private long offsetMillis;
+        private long passFirstMillis;
+        private long passLastMillis;
+        private long passTicks;
+
+        long shift(long epochMillis) {
+            if (passTicks++ == 0) {
+                passFirstMillis = epochMillis;
+            }
+            passLastMillis = epochMillis;
+            return epochMillis + offsetMillis;
+        }
+
+        void nextPass() {
+            if (passTicks == 0) {
+                return;
+            }
+            long span = passLastMillis - passFirstMillis;
+            long interval = passTicks > 1 ? span / (passTicks - 1) : 0;
+            offsetMillis += span + Math.max(1, interval);
+            passTicks = 0;
+        }
+
+        void await(long epochMillis) {
+            if (speed <= 0) {
+                return;
+            }
+            if (firstTickMillis == Long.MIN_VALUE) {
+                firstTickMillis = epochMillis;
+                wallStartNanos = System.nanoTime();
+                return;
+            }
+            long dueNanos = wallStartNanos + (long) (TimeUnit.MILLISECONDS.toNanos(epochMillis - firstTickMillis) / speed);
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+        }
+    }
+}
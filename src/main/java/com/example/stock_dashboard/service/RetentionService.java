@@ -0,0 +1,239 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.StockPriceHistory;
+import com.example.stock_dashboard.model.StockPriceRollup;
+import com.example.stock_dashboard.repo.StockHistoryRepository;
+import com.example.stock_dashboard.repo.StockRollupRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps stock_price_history bounded: raw rows older than the raw window are folded into 1-minute
+// rollups, 1-minute rollups older than their window into 1-hour rollups, and 1-hour rollups are
+// finally expired. Work is done oldest first in chunks of chunk-size rows, each chunk in its own
+// short transaction, so a run never holds locks on more than one chunk at a time.
+@Service
+public class RetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionService.class);
+
+    @Autowired
+    private StockHistoryRepository historyRepository;
+
+    @Autowired
+    private StockRollupRepository rollupRepository;
+
+    @Autowired
+    private HistoryStatsTracker statsTracker;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stock.retention.raw:24h}")
+    private Duration rawRetention;
+
+    @Value("${stock.retention.minute-rollups:7d}")
+    private Duration minuteRetention;
+
+    @Value("${stock.retention.hour-rollups:365d}")
+    private Duration hourRetention;
+
+    @Value("${stock.retention.chunk-size:2000}")
+    private int chunkSize;
+
+    // Bounds one run; whatever is left is picked up by the next run
+    @Value("${stock.retention.max-chunks-per-run:25}")
+    private int maxChunksPerRun;
+
+    private final AtomicLong rawRowsCompacted = new AtomicLong();
+    private final AtomicLong minuteRollupsCompacted = new AtomicLong();
+    private final AtomicLong hourRollupsExpired = new AtomicLong();
+    private final AtomicLong rollupsWritten = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private Timer runTimer;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    public void initialize() {
+        // Each tier must outlive the one it is built from, otherwise rows would be folded twice
+        if (minuteRetention.compareTo(rawRetention) < 0) {
+            minuteRetention = rawRetention;
+        }
+        if (hourRetention.compareTo(minuteRetention) < 0) {
+            hourRetention = minuteRetention;
+        }
+
+        // Rows deleted from each tier: raw rows and minute rollups are folded into the next tier, hour rollups expire
+        FunctionCounter.builder("stock.retention.rows", rawRowsCompacted, AtomicLong::get).tag("tier", "raw")
+                .description("Rows reclaimed by retention")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.retention.rows", minuteRollupsCompacted, AtomicLong::get).tag("tier", "minute")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.retention.rows", hourRollupsExpired, AtomicLong::get).tag("tier", "hour")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.retention.rollups.written", rollupsWritten, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("stock.retention.failures", failures, AtomicLong::get).register(meterRegistry);
+        runTimer = Timer.builder("stock.retention.run").register(meterRegistry);
+        chunkTimer = Timer.builder("stock.retention.chunk")
+                .description("One chunk's transaction")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${stock.retention.interval-ms:60000}",
+            fixedDelayString = "${stock.retention.interval-ms:60000}")
+    public void scheduledRun() {
+        // The history tables are shared in cluster mode; one node compacting them is enough
+        if (!enabled || !leaderElection.isLeader()) {
+            return;
+        }
+        try {
+            run(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.error("Retention run failed: {}", e.getMessage());
+        }
+    }
+
+    // One pass over all three tiers relative to now; returns the number of rows deleted
+    public synchronized long run(LocalDateTime now) {
+        long startedAt = System.nanoTime();
+        long reclaimed = 0;
+
+        reclaimed += repeat(() -> compactRawChunk(now.minus(rawRetention)), rawRowsCompacted);
+        reclaimed += repeat(() -> compactMinuteChunk(now.minus(minuteRetention)), minuteRollupsCompacted);
+        reclaimed += repeat(() -> expireHourChunk(now.minus(hourRetention)), hourRollupsExpired);
+
+        runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return reclaimed;
+    }
+
+    private interface Chunk {
+        int process();
+    }
+
+    private long repeat(Chunk chunk, AtomicLong counter) {
+        long total = 0;
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            long chunkStart = System.nanoTime();
+            Integer deleted = transactionTemplate.execute(status -> chunk.process());
+            chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            counter.addAndGet(deleted);
+            total += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int compactRawChunk(LocalDateTime cutoff) {
+        List<StockPriceHistory> rows = historyRepository.findByTimestampBeforeOrderByTimestampAsc(cutoff,
+                PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<String, Map<LocalDateTime, StockPriceRollup>> bars = new LinkedHashMap<>();
+        for (StockPriceHistory row : rows) {
+            fold(bars, row.getSymbol(), StockPriceRollup.MINUTE, row.getTimestamp().truncatedTo(ChronoUnit.MINUTES),
+                    row.getPrice(), row.getPrice(), row.getPrice(), row.getPrice(), 1);
+        }
+        upsert(bars, StockPriceRollup.MINUTE);
+        historyRepository.deleteAllByIdInBatch(rows.stream().map(StockPriceHistory::getId).toList());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statsTracker.onDeleted(rows);
+            }
+        });
+        return rows.size();
+    }
+
+    private int compactMinuteChunk(LocalDateTime cutoff) {
+        List<StockPriceRollup> minutes = rollupRepository.findByResolutionAndBucketStartBeforeOrderByBucketStart(
+                StockPriceRollup.MINUTE, cutoff, PageRequest.of(0, chunkSize));
+        if (minutes.isEmpty()) {
+            return 0;
+        }
+        Map<String, Map<LocalDateTime, StockPriceRollup>> bars = new LinkedHashMap<>();
+        for (StockPriceRollup minute : minutes) {
+            fold(bars, minute.getSymbol(), StockPriceRollup.HOUR, minute.getBucketStart().truncatedTo(ChronoUnit.HOURS),
+                    minute.getOpen(), minute.getHigh(), minute.getLow(), minute.getClose(), minute.getTicks());
+        }
+        upsert(bars, StockPriceRollup.HOUR);
+        rollupRepository.deleteAllByIdInBatch(minutes.stream().map(StockPriceRollup::getId).toList());
+        return minutes.size();
+    }
+
+    private int expireHourChunk(LocalDateTime cutoff) {
+        List<Long> ids = rollupRepository.findIdsOlderThan(StockPriceRollup.HOUR, cutoff, PageRequest.of(0, chunkSize));
+        if (!ids.isEmpty()) {
+            rollupRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+
+    private static void fold(Map<String, Map<LocalDateTime, StockPriceRollup>> bars, String symbol, String resolution,
+                             LocalDateTime bucket, double open, double high, double low, double close, long ticks) {
+        bars.computeIfAbsent(symbol, s -> new LinkedHashMap<>())
+                .computeIfAbsent(bucket, b -> new StockPriceRollup(symbol, resolution, b, open))
+                .merge(high, low, close, ticks);
+    }
+
+    // Chunks are taken oldest first, so a bucket already in the table holds the earlier part of it
+    private void upsert(Map<String, Map<LocalDateTime, StockPriceRollup>> bars, String resolution) {
+        bars.forEach((symbol, buckets) -> {
+            LocalDateTime first = buckets.keySet().iterator().next();
+            LocalDateTime last = first;
+            for (LocalDateTime bucket : buckets.keySet()) {
+                last = bucket;
+            }
+            Map<LocalDateTime, StockPriceRollup> existing = new HashMap<>();
+            for (StockPriceRollup rollup : rollupRepository.findBySymbolAndResolutionAndBucketStartBetweenOrderByBucketStart(
+                    symbol, resolution, first, last)) {
+                existing.put(rollup.getBucketStart(), rollup);
+            }
+            for (StockPriceRollup bar : buckets.values()) {
+                StockPriceRollup stored = existing.get(bar.getBucketStart());
+                if (stored != null) {
+                    stored.merge(bar.getHigh(), bar.getLow(), bar.getClose(), bar.getTicks());
+                } else {
+                    rollupRepository.save(bar);
+                    rollupsWritten.incrementAndGet();
+                }
+            }
+        });
+    }
+}
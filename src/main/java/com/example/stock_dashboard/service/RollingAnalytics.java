@@ -0,0 +1,214 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import com.example.stock_dashboard.model.AnalyticsSnapshot.WindowStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Incremental analytics for one symbol. Every statistic is updated in O(1) amortized per tick and
+// a fresh snapshot is published, so reads cost the same regardless of how much history exists.
+public class RollingAnalytics {
+
+    private final String symbol;
+    private final Window[] windows;
+    private final double fastAlpha;
+    private final double slowAlpha;
+
+    // Session (since first tick) accumulators
+    private long ticks;
+    private double firstPrice;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double m2;
+    private double emaFast;
+    private double emaSlow;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private double lastPrice;
+    private double timeWeightedSum;
+
+    private volatile AnalyticsSnapshot snapshot;
+
+    public RollingAnalytics(String symbol, List<Duration> windowSpans, int fastPeriod, int slowPeriod) {
+        this.symbol = symbol;
+        this.windows = new Window[windowSpans.size()];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window(windowSpans.get(i));
+        }
+        this.fastAlpha = 2.0 / (fastPeriod + 1);
+        this.slowAlpha = 2.0 / (slowPeriod + 1);
+    }
+
+    public synchronized AnalyticsSnapshot onTick(long epochMillis, double price) {
+        if (ticks == 0) {
+            firstPrice = price;
+            firstTimestamp = epochMillis;
+            emaFast = price;
+            emaSlow = price;
+        } else {
+            // Time-weighted average: the previous price held for the elapsed interval
+            timeWeightedSum += lastPrice * Math.max(0, epochMillis - lastTimestamp);
+            emaFast += fastAlpha * (price - emaFast);
+            emaSlow += slowAlpha * (price - emaSlow);
+        }
+
+        ticks++;
+        min = Math.min(min, price);
+        max = Math.max(max, price);
+        double delta = price - mean;
+        mean += delta / ticks;
+        m2 += delta * (price - mean);
+        lastTimestamp = Math.max(lastTimestamp, epochMillis);
+        lastPrice = price;
+
+        for (Window window : windows) {
+            window.add(epochMillis, price);
+            window.expire(lastTimestamp);
+        }
+
+        snapshot = buildSnapshot();
+        return snapshot;
+    }
+
+    public AnalyticsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private AnalyticsSnapshot buildSnapshot() {
+        List<WindowStats> windowStats = new ArrayList<>(windows.length);
+        for (Window window : windows) {
+            windowStats.add(window.stats());
+        }
+
+        long elapsed = lastTimestamp - firstTimestamp;
+        double twap = elapsed > 0 ? timeWeightedSum / elapsed : lastPrice;
+        double stdDev = ticks > 1 ? Math.sqrt(m2 / (ticks - 1)) : 0.0;
+
+        return new AnalyticsSnapshot(symbol, ticks, lastTimestamp, lastPrice, firstPrice, min, max, mean, stdDev,
+                emaFast, emaSlow, twap, List.copyOf(windowStats));
+    }
+
+    // Time-based sliding window: running mean/variance (Welford with removal) plus monotonic
+    // deques whose heads are the window min and max
+    private static final class Window {
+        private final String label;
+        private final long spanMillis;
+        private final TickDeque samples = new TickDeque();
+        private final TickDeque minQueue = new TickDeque();
+        private final TickDeque maxQueue = new TickDeque();
+        private double mean;
+        private double m2;
+
+        Window(Duration span) {
+            this.spanMillis = span.toMillis();
+            this.label = label(span);
+        }
+
+        void add(long ts, double price) {
+            samples.addLast(ts, price);
+            while (!minQueue.isEmpty() && minQueue.lastPrice() >= price) {
+                minQueue.removeLast();
+            }
+            minQueue.addLast(ts, price);
+            while (!maxQueue.isEmpty() && maxQueue.lastPrice() <= price) {
+                maxQueue.removeLast();
+            }
+            maxQueue.addLast(ts, price);
+
+            int n = samples.size();
+            double delta = price - mean;
+            mean += delta / n;
+            m2 += delta * (price - mean);
+        }
+
+        void expire(long now) {
+            long cutoff = now - spanMillis;
+            while (samples.size() > 1 && samples.firstTimestamp() <= cutoff) {
+                double price = samples.removeFirst();
+                int n = samples.size();
+                double delta = price - mean;
+                mean -= delta / n;
+                m2 = Math.max(0, m2 - delta * (price - mean));
+            }
+            while (minQueue.size() > 1 && minQueue.firstTimestamp() <= cutoff) {
+                minQueue.removeFirst();
+            }
+            while (maxQueue.size() > 1 && maxQueue.firstTimestamp() <= cutoff) {
+                maxQueue.removeFirst();
+            }
+        }
+
+        WindowStats stats() {
+            int n = samples.size();
+            double stdDev = n > 1 ? Math.sqrt(m2 / (n - 1)) : 0.0;
+            return new WindowStats(label, spanMillis, n, samples.firstPrice(), minQueue.firstPrice(),
+                    maxQueue.firstPrice(), mean, stdDev);
+        }
+
+        private static String label(Duration span) {
+            long seconds = span.getSeconds();
+            if (seconds % 3600 == 0) {
+                return (seconds / 3600) + "h";
+            }
+            if (seconds % 60 == 0) {
+                return (seconds / 60) + "m";
+            }
+            return seconds + "s";
+        }
+    }
+
+    // Growable circular deque of (timestamp, price) pairs on primitive arrays
+    private static final class TickDeque {
+        private long[] timestamps = new long[16];
+        private double[] prices = new double[16];
+        private int head;
+        private int size;
+
+        int size() { return size; }
+
+        boolean isEmpty() { return size == 0; }
+
+        long firstTimestamp() { return timestamps[head]; }
+
+        double firstPrice() { return size == 0 ? Double.NaN : prices[head]; }
+
+        double lastPrice() { return prices[(head + size - 1) & (prices.length - 1)]; }
+
+        void addLast(long ts, double price) {
+            if (size == prices.length) {
+                grow();
+            }
+            int idx = (head + size) & (prices.length - 1);
+            timestamps[idx] = ts;
+            prices[idx] = price;
+            size++;
+        }
+
+        double removeFirst() {
+            double price = prices[head];
+            head = (head + 1) & (prices.length - 1);
+            size--;
+            return price;
+        }
+
+        void removeLast() {
+            size--;
+        }
+
+        private void grow() {
+            long[] newTimestamps = new long[timestamps.length * 2];
+            double[] newPrices = new double[prices.length * 2];
+            for (int i = 0; i < size; i++) {
+                int idx = (head + i) & (prices.length - 1);
+                newTimestamps[i] = timestamps[idx];
+                newPrices[i] = prices[idx];
+            }
+            timestamps = newTimestamps;
+            prices = newPrices;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Random-walk quotes starting from each symbol's base price in the SymbolRegistry
+@Service
+public class SimulatedMarketDataSource implements MarketDataSource {
+
+    public static final String NAME = "simulated";
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isLive() {
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Stock>> fetchQuotes(Collection<String> symbols) {
+        Map<String, Stock> quotes = new LinkedHashMap<>();
+        symbols.forEach(symbol -> quotes.put(symbol, new Stock(symbol, getBasePrice(symbol))));
+        return CompletableFuture.completedFuture(quotes);
+    }
+
+    @Override
+    public CompletableFuture<Stock> fetchQuote(String symbol, Stock current) {
+        return CompletableFuture.completedFuture(nextQuote(symbol, current.getPrice()));
+    }
+
+    public Stock nextQuote(String symbol, double oldPrice) {
+        // Generate random price change between -4% and +4%
+        // ThreadLocalRandom: refresh workers never contend on a shared seed
+        double changeFactor = 0.96 + (ThreadLocalRandom.current().nextDouble() * 0.08);
+        double newPrice = Math.round(oldPrice * changeFactor * 100.0) / 100.0;
+
+        return new Stock(symbol, newPrice, newPrice - oldPrice, ((newPrice - oldPrice) / oldPrice) * 100,
+                LocalDateTime.now(), 0);
+    }
+
+    public double getBasePrice(String symbol) {
+        return symbolRegistry.basePrice(symbol);
+    }
+}
@@ -1,252 +1,622 @@
 package com.example.stock_dashboard.service;
 
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import com.example.stock_dashboard.model.HistoryStats;
+import com.example.stock_dashboard.model.PricePoint;
+import com.example.stock_dashboard.model.PriceSeries;
+import com.example.stock_dashboard.model.QuoteUpdate;
 import com.example.stock_dashboard.model.Stock;
 import com.example.stock_dashboard.repo.StockHistoryRepository;
 import com.example.stock_dashboard.model.StockPriceHistory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@EnableAsync
 public class StockService {
 
+    private static final Logger log = LoggerFactory.getLogger(StockService.class);
+
     @Autowired
     private StockHistoryRepository historyRepository;
 
     @Autowired
     private AlphaVantageService alphaVantageService;
 
-    private final Map<String, Stock> stockCache = new ConcurrentHashMap<>();
-    private final Random random = new Random();
+    @Autowired
+    private PriceHistoryWriter historyWriter;
+
+    @Autowired
+    private PriceSeriesStore seriesStore;
+
+    @Autowired
+    private AnalyticsEngine analyticsEngine;
+
+    @Autowired
+    private HistoryStatsTracker statsTracker;
+
+    @Autowired
+    private List<MarketDataSource> dataSources;
+
+    @Autowired
+    private QuoteBoard quoteBoard;
+
+    @Autowired
+    private UpdateExecutor updateExecutor;
+
+    @Autowired
+    private TickStore tickStore;
+
+    @Autowired
+    private CandleService candleService;
+
+    @Autowired
+    private SimulatedMarketDataSource simulator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private ClusterQuoteSync clusterQuoteSync;
+
+    @Autowired
+    private AlertEngine alertEngine;
+
+    @Autowired
+    private WarmStartService warmStart;
+
+    @Autowired
+    private TickStreamService tickStream;
+
+    @Autowired
+    private QuoteStreamPublisher quotePublisher;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private HistoryArchive historyArchive;
+
+    // auto = Alpha Vantage when an API key is configured, otherwise simulated
+    @Value("${stock.data-source:auto}")
+    private String dataSourceName;
+
+    private MarketDataSource dataSource;
     private boolean useRealData = false;
 
+    // Provider fetch latency as seen by the update, cache hits included; fallback = no quote, simulated instead
+    private Timer fetchTimer;
+    private Timer fetchFallbackTimer;
+
+    // Distinguishes validators issued before a restart, when quote versions start over
+    private final String tagEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private record CachedAnalytics(AnalyticsSnapshot snapshot, Map<String, Object> analytics) {
+    }
+
+    private final Map<String, CachedAnalytics> analyticsCache = new ConcurrentHashMap<>();
+
+    // Provider quote each symbol last took; the quote cache hands out the same instance until it
+    // revalidates, and getting it (or an identical quote) again is not a new tick
+    private final Map<String, Stock> lastProviderQuotes = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void initialize() {
-        System.out.println("Initializing StockService...");
+        log.info("Initializing StockService");
 
-        useRealData = alphaVantageService.isApiKeyConfigured();
+        dataSource = selectDataSource();
+        useRealData = dataSource.isLive();
+        fetchTimer = fetchTimer("quote");
+        fetchFallbackTimer = fetchTimer("fallback");
         if (useRealData) {
-            System.out.println("Real Alpha Vantage API configured - using live market data");
+            log.info("Real Alpha Vantage API configured - using live market data");
+        } else if (dataSource.isStreaming()) {
+            log.info("Streaming ticks from the {} data source", dataSource.getName());
+        } else {
+            log.info("Using simulated data - configure Alpha Vantage API key for real market data");
+        }
+
+        // Snapshot first: restored symbols are served right away and need no initial fetch
+        Set<String> restored = warmStart.restore();
+        if (!dataSource.isStreaming()) {
+            initializeSampleStocks(restored);
         } else {
-            System.out.println("Using simulated data - configure Alpha Vantage API key for real market data");
+            dataSource.start(this::ingestTick);
         }
+        clusterQuoteSync.start(this::applyRemoteQuote);
+        if (useRealData) {
+            warmStart.backfill(quoteBoard.symbols(), this::backfillTick);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dataSource.stop();
+    }
+
+    private MarketDataSource selectDataSource() {
+        String name = "auto".equalsIgnoreCase(dataSourceName)
+                ? (alphaVantageService.isApiKeyConfigured() ? AlphaVantageMarketDataSource.NAME : SimulatedMarketDataSource.NAME)
+                : dataSourceName;
+        return dataSources.stream()
+                .filter(source -> source.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown stock.data-source: " + dataSourceName));
+    }
+
+    private Timer fetchTimer(String outcome) {
+        return Timer.builder("stock.provider.fetch")
+                .description("Quote fetch from the market data source")
+                .tag("source", dataSource.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void initializeSampleStocks(Set<String> restored) {
+        List<String> symbols = new ArrayList<>(symbolRegistry.tracked());
+        symbols.removeAll(restored);
+        // The backfill fills the history up to now; a seed tick would be newer than every bar
+        seedQuotes(symbols, useRealData && warmStart.isBackfillAvailable());
 
-        initializeSampleStocks();
+        log.info("StockService initialization complete: tracking {} stocks ({} warm-started), data source {}",
+                quoteBoard.size(), restored.size(), useRealData ? "Alpha Vantage API" : "Simulated Data");
     }
 
-    private void initializeSampleStocks() {
-        String[] symbols = {"AAPL", "GOOGL", "MSFT", "TSLA", "AMZN", "META"};
+    // First quote of each symbol, from the data source or else the simulated base price
+    private void seedQuotes(List<String> symbols, boolean backfill) {
+        // All symbols are requested in parallel; the rate limiter spaces them within the quota.
+        // Cluster followers start from the simulated base prices and take over the leader's quotes
+        boolean leader = leaderElection.isLeader();
+        Map<String, Stock> realStocks = useRealData && leader && !symbols.isEmpty()
+                ? dataSource.fetchQuotes(symbols).join()
+                : Map.of();
 
         for (String symbol : symbols) {
-            if (useRealData) {
-                Stock realStock = alphaVantageService.fetchRealTimeStockData(symbol);
+            if (useRealData && leader) {
+                Stock realStock = realStocks.get(symbol);
                 if (realStock != null) {
-                    stockCache.put(symbol, realStock);
-                    savePriceHistory(symbol, realStock.getPrice());
-                    System.out.println("Initialized " + symbol + " with real data: $" + realStock.getPrice());
+                    if (!quoteBoard.put(realStock)) {
+                        // Removed while its quote was being fetched
+                        continue;
+                    }
+                    lastProviderQuotes.put(symbol, realStock);
+                    if (!backfill) {
+                        savePriceHistory(symbol, realStock.getPrice());
+                    }
+                    log.debug("Initialized {} with real data: ${}", symbol, realStock.getPrice());
                     continue;
                 } else {
-                    System.out.println("Failed to fetch real data for " + symbol + ", using simulated data");
+                    log.warn("Failed to fetch real data for {}, using simulated data", symbol);
                 }
             }
 
             // Fallback to simulated data
-            double simulatedPrice = getSimulatedPrice(symbol);
+            double simulatedPrice = simulator.getBasePrice(symbol);
             Stock simulatedStock = new Stock(symbol, simulatedPrice);
-            stockCache.put(symbol, simulatedStock);
-            savePriceHistory(symbol, simulatedPrice);
-            System.out.println("Initialized " + symbol + " with simulated data: $" + simulatedPrice);
+            if (quoteBoard.put(simulatedStock) && leader) {
+                savePriceHistory(symbol, simulatedPrice);
+            }
+            log.debug("Initialized {} with simulated data: ${}", symbol, simulatedPrice);
         }
+    }
 
-        System.out.println("StockService initialization complete");
-        System.out.println("Tracking " + stockCache.size() + " stocks");
-        System.out.println("Data source: " + (useRealData ? "Alpha Vantage API" : "Simulated Data"));
+    // Starts tracking the symbols (symbol -> base price, null for the default) and seeds their quotes;
+    // returns the symbols that were new
+    public List<String> addSymbols(Map<String, Double> symbols) {
+        List<String> added = symbolRegistry.add(symbols);
+        // Streaming sources quote new symbols with their first tick
+        if (!dataSource.isStreaming()) {
+            seedQuotes(added.stream().filter(symbol -> quoteBoard.get(symbol) == null).toList(), false);
+        }
+        log.info("Tracking {} new symbols, {} in total", added.size(), quoteBoard.size());
+        return added;
     }
 
-    private double getSimulatedPrice(String symbol) {
-        // Different base prices for different symbols for realism
-        Map<String, Double> basePrices = Map.of(
-                "AAPL", 150.0, "GOOGL", 2700.0, "MSFT", 300.0,
-                "TSLA", 200.0, "AMZN", 3400.0, "META", 320.0
-        );
-        return basePrices.getOrDefault(symbol, 100.0);
+    // Stops tracking the symbol and drops its in-memory state; stored history stays until retention expires it
+    public boolean removeSymbol(String symbol) {
+        String canonical = symbolRegistry.canonical(symbol);
+        if (!symbolRegistry.remove(canonical)) {
+            return false;
+        }
+        quoteBoard.remove(canonical);
+        analyticsCache.remove(canonical);
+        lastProviderQuotes.remove(canonical);
+        seriesStore.remove(canonical);
+        analyticsEngine.remove(canonical);
+        candleService.remove(canonical);
+        quotePublisher.remove(canonical);
+        log.info("Stopped tracking {}", canonical);
+        return true;
     }
 
+    // Shared immutable list; rebuilt only after a quote changed
     public List<Stock> getAllStocks() {
-        return new ArrayList<>(stockCache.values());
+        return quoteBoard.snapshot().stocks();
+    }
+
+    public QuoteBoard.Snapshot getBoard() {
+        return quoteBoard.snapshot();
     }
 
     public Stock getStockBySymbol(String symbol) {
-        return stockCache.get(symbol.toUpperCase());
+        return quoteBoard.get(symbolRegistry.canonical(symbol));
     }
 
-    @Async
+    public List<String> getTrackedSymbols() {
+        return quoteBoard.symbols();
+    }
+
+    public MarketDataSource getDataSource() {
+        return dataSource;
+    }
+
+    // Runs on the update executor, after any pending update of the same symbol
     public CompletableFuture<Stock> updateStockPrice(String symbol) {
-        Stock stock = stockCache.get(symbol);
-        if (stock == null) {
-            return CompletableFuture.completedFuture(null);
+        return updateExecutor.submit(symbol, () -> refreshStock(symbol));
+    }
+
+    // Completes once the quote is applied; the calling thread never waits on the provider
+    private CompletableFuture<Stock> refreshStock(String symbol) {
+        Stock stock = quoteBoard.get(symbol);
+        if (stock == null || dataSource.isStreaming() || !leaderElection.isLeader()) {
+            // Streaming sources push their own ticks through ingestTick; cluster followers get theirs from the leader
+            return CompletableFuture.completedFuture(stock);
         }
 
-        if (useRealData) {
-            // Try to get real data from Alpha Vantage
-            Stock realStock = alphaVantageService.fetchRealTimeStockData(symbol);
-            if (realStock != null) {
-                // Update the existing stock object with real data
-                stock.setPrice(realStock.getPrice());
-                stock.setChange(realStock.getChange());
-                stock.setChangePercent(realStock.getChangePercent());
-                stock.setLastUpdated(LocalDateTime.now());
-                savePriceHistory(symbol, realStock.getPrice());
-                System.out.println("Real data update: " + symbol + " = $" + realStock.getPrice() +
-                        " (" + realStock.getChangePercent() + "%)");
-                return CompletableFuture.completedFuture(stock);
-            } else {
-                System.out.println("Real data fetch failed for " + symbol + ", using simulated update");
+        long start = System.nanoTime();
+        return dataSource.fetchQuote(symbol, stock).thenApply(quote -> {
+            (quote != null ? fetchTimer : fetchFallbackTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (quote != null && useRealData) {
+                if (isRepeat(symbol, quote)) {
+                    log.debug("Provider quote for {} unchanged, nothing to apply", symbol);
+                    return stock;
+                }
+                Stock updated = applyQuote(symbol, quote.getPrice(), quote.getChange(), quote.getChangePercent(),
+                        System.currentTimeMillis());
+                log.debug("Real data update: {} = ${} ({}%)", symbol, quote.getPrice(), quote.getChangePercent());
+                return updated;
             }
+
+            if (quote == null) {
+                if (useRealData) {
+                    log.debug("Real data fetch failed for {}, using simulated update", symbol);
+                }
+                quote = simulator.nextQuote(symbol, stock.getPrice());
+            }
+
+            Stock updated = applyQuote(symbol, quote.getPrice(), quote.getChange(), quote.getChangePercent(),
+                    System.currentTimeMillis());
+            log.debug("Simulated update: {} = ${} ({}%)", symbol, quote.getPrice(), quote.getChangePercent());
+            return updated;
+        });
+    }
+
+    private boolean isRepeat(String symbol, Stock quote) {
+        Stock previous = lastProviderQuotes.put(symbol, quote);
+        return previous == quote || previous != null && previous.getPrice() == quote.getPrice()
+                && previous.getChange() == quote.getChange() && previous.getChangePercent() == quote.getChangePercent();
+    }
+
+    // Entry point for streaming sources; symbols never seen before start being tracked on their first
+    // tick, removed ones are ignored. Each tick goes straight to the symbol's WebSocket stream:
+    // RefreshScheduler only republishes the board's latest quote at its own cadence, which would hide
+    // the per-tick load of a fast replay.
+    public void ingestTick(String symbol, long epochMillis, double price) {
+        if (!leaderElection.isLeader() || !symbolRegistry.trackFirstQuote(symbol)) {
+            return;
+        }
+        LocalDateTime timestamp = seriesStore.toLocalDateTime(epochMillis);
+        Stock updated = quoteBoard.update(symbol, new Stock(symbol, price), current -> {
+            double change = price - current.getPrice();
+            return current.withQuote(price, change,
+                    current.getPrice() == 0 ? 0.0 : change / current.getPrice() * 100, timestamp);
+        });
+        if (updated == null) {
+            return;
+        }
+        recordTick(symbol, price, epochMillis, HistoryWrite.SHED);
+        publish(updated, epochMillis);
+        quotePublisher.publish(updated);
+    }
+
+    // A quote from the cluster leader; returns null when the local quote is already newer or this node
+    // doesn't track the symbol
+    public Stock applyRemoteQuote(QuoteUpdate update) {
+        String symbol = update.symbol();
+        LocalDateTime timestamp = seriesStore.toLocalDateTime(update.epochMillis());
+        Stock current = quoteBoard.get(symbol);
+        if (current != null && current.getLastUpdated() != null && timestamp.isBefore(current.getLastUpdated())) {
+            return null;
+        }
+        Stock updated = quoteBoard.update(symbol, new Stock(symbol, update.price()),
+                stock -> stock.withQuote(update.price(), update.change(), update.changePercent(), timestamp));
+        if (updated == null) {
+            return null;
         }
+        // The leader already wrote the history row to the shared database
+        recordTick(symbol, update.price(), update.epochMillis(), HistoryWrite.SKIP);
+        tickStream.append(updated, update.epochMillis());
+        return updated;
+    }
 
-        double oldPrice = stock.getPrice();
-        // Generate random price change between -2% and +2%
-        double changeFactor = 0.96 + (random.nextDouble() * 0.08);
-        double newPrice = Math.round(oldPrice * changeFactor * 100.0) / 100.0;
+    // Publishes a new immutable quote for the symbol; readers see either the old or the new one.
+    // Returns null when the symbol was removed while its quote was being fetched.
+    private Stock applyQuote(String symbol, double price, double change, double changePercent, long epochMillis) {
+        LocalDateTime timestamp = seriesStore.toLocalDateTime(epochMillis);
+        Stock updated = quoteBoard.update(symbol, new Stock(symbol, price),
+                current -> current.withQuote(price, change, changePercent, timestamp));
+        if (updated == null) {
+            return null;
+        }
+        recordTick(symbol, price, epochMillis, HistoryWrite.WAIT);
+        publish(updated, epochMillis);
+        return updated;
+    }
 
-        stock.setPrice(newPrice);
-        stock.setChange(newPrice - oldPrice);
-        stock.setChangePercent(((newPrice - oldPrice) / oldPrice) * 100);
-        stock.setLastUpdated(LocalDateTime.now());
-        savePriceHistory(symbol, newPrice);
-        System.out.println("Simulated update: " + symbol + " = $" + newPrice +
-                " (" + stock.getChangePercent() + "%)");
+    // Fans a freshly applied quote out to the cluster and to the HTTP streams
+    private void publish(Stock updated, long epochMillis) {
+        clusterQuoteSync.publish(updated, epochMillis);
+        tickStream.append(updated, epochMillis);
+    }
 
-        return CompletableFuture.completedFuture(stock);
+    // Intraday bar from the warm-start backfill, recorded like a tick of its time
+    private void backfillTick(String symbol, long epochMillis, double price) {
+        recordTick(symbol, price, epochMillis, HistoryWrite.WAIT);
     }
 
     private void savePriceHistory(String symbol, double price) {
-        try {
-            StockPriceHistory history = new StockPriceHistory(symbol, price);
-            historyRepository.save(history);
-        } catch (Exception e) {
-            System.err.println("Error saving price history for " + symbol + ": " + e.getMessage());
-        }
+        recordTick(symbol, price, System.currentTimeMillis(), HistoryWrite.WAIT);
     }
 
-    // Update all stock prices at once
-    public void updateAllStockPrices() {
-        stockCache.keySet().forEach(symbol -> {
-            updateStockPrice(symbol);
-        });
+    // How a tick's history row is written: not at all (the leader already wrote it), queued without
+    // waiting (the streaming ingest thread must not stall) or queued with bounded backpressure
+    private enum HistoryWrite {
+        SKIP, SHED, WAIT
     }
 
-    public List<StockPriceHistory> getPriceHistory(String symbol) {
-        try {
-            return historyRepository.findTop10BySymbolOrderByTimestampDesc(symbol);
-        } catch (Exception e) {
-            System.err.println("Error fetching price history for " + symbol + ": " + e.getMessage());
-            return new ArrayList<>();
+    private void recordTick(String symbol, double price, long epochMillis, HistoryWrite write) {
+        seriesStore.append(symbol, epochMillis, price);
+        alertEngine.onTick(analyticsEngine.onTick(symbol, epochMillis, price));
+        tickStore.append(symbol, epochMillis, price);
+        candleService.onTick(symbol, epochMillis, price);
+        if (write == HistoryWrite.SKIP) {
+            return;
+        }
+
+        StockPriceHistory history = new StockPriceHistory(symbol, price);
+        history.setTimestamp(seriesStore.toLocalDateTime(epochMillis));
+        boolean queued = write == HistoryWrite.SHED ? historyWriter.offer(history) : historyWriter.enqueue(history);
+        if (!queued) {
+            log.warn("Price history queue full, dropped tick for {}", symbol);
         }
     }
 
-    public Map<String, Object> getStockAnalytics(String symbol) {
-        try {
-            List<StockPriceHistory> history = historyRepository.findBySymbolOrderByTimestampDesc(symbol);
+    // Update all stock prices at once; completes after every update of the cycle has landed
+    public CompletableFuture<List<Stock>> updateAllStockPrices() {
+        return updateExecutor.submitAll(quoteBoard.symbols(), this::refreshStock);
+    }
 
-            if (history.isEmpty()) {
-                return Map.of("error", "No historical data available for " + symbol);
-            }
+    public List<PricePoint> getPriceHistory(String symbol) {
+        return getRecentPriceHistory(symbol, 10);
+    }
 
-            double currentPrice = history.get(0).getPrice();
-            List<Double> prices = history.stream()
-                    .map(StockPriceHistory::getPrice)
-                    .toList();
-
-            double minPrice = prices.stream().mapToDouble(Double::doubleValue).min().orElse(currentPrice);
-            double maxPrice = prices.stream().mapToDouble(Double::doubleValue).max().orElse(currentPrice);
-            double avgPrice = prices.stream().mapToDouble(Double::doubleValue).average().orElse(currentPrice);
-
-            double trend = currentPrice - history.get(history.size() - 1).getPrice();
-            String trendDirection = trend >= 0 ? "up" : "down";
-
-            return Map.of(
-                    "symbol", symbol,
-                    "currentPrice", currentPrice,
-                    "minPrice", Math.round(minPrice * 100.0) / 100.0,
-                    "maxPrice", Math.round(maxPrice * 100.0) / 100.0,
-                    "avgPrice", Math.round(avgPrice * 100.0) / 100.0,
-                    "dataPoints", history.size(),
-                    "trend", Math.round(trend * 100.0) / 100.0,
-                    "trendDirection", trendDirection,
-                    "priceChange", Math.round(((currentPrice - history.get(history.size() - 1).getPrice()) / history.get(history.size() - 1).getPrice() * 100) * 100.0) / 100.0 + "%",
-                    "dataSource", useRealData ? "Alpha Vantage API" : "Simulated Data"
-            );
-        } catch (Exception e) {
-            System.err.println("Error calculating analytics for " + symbol + ": " + e.getMessage());
-            return Map.of("error", "Failed to calculate analytics for " + symbol);
+    // Built once per analytics snapshot; repeated calls between ticks return the same map
+    public Map<String, Object> getStockAnalytics(String symbol) {
+        AnalyticsSnapshot snapshot = analyticsEngine.getSnapshot(symbol);
+        if (snapshot == null) {
+            return Map.of("error", "No historical data available for " + symbol);
+        }
+        CachedAnalytics cached = analyticsCache.get(symbol);
+        if (cached != null && cached.snapshot() == snapshot) {
+            return cached.analytics();
         }
+        Map<String, Object> analytics = Collections.unmodifiableMap(buildAnalytics(symbol, snapshot));
+        analyticsCache.put(symbol, new CachedAnalytics(snapshot, analytics));
+        return analytics;
+    }
+
+    private Map<String, Object> buildAnalytics(String symbol, AnalyticsSnapshot snapshot) {
+
+        double currentPrice = snapshot.currentPrice();
+        double trend = currentPrice - snapshot.firstPrice();
+
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("symbol", symbol);
+        analytics.put("currentPrice", currentPrice);
+        analytics.put("minPrice", round2(snapshot.minPrice()));
+        analytics.put("maxPrice", round2(snapshot.maxPrice()));
+        analytics.put("avgPrice", round2(snapshot.avgPrice()));
+        analytics.put("stdDev", round2(snapshot.stdDev()));
+        analytics.put("emaFast", round2(snapshot.emaFast()));
+        analytics.put("emaSlow", round2(snapshot.emaSlow()));
+        analytics.put("twap", round2(snapshot.twap()));
+        analytics.put("dataPoints", snapshot.ticks());
+        analytics.put("trend", round2(trend));
+        analytics.put("trendDirection", trend >= 0 ? "up" : "down");
+        analytics.put("priceChange", round2(trend / snapshot.firstPrice() * 100) + "%");
+
+        Map<String, Object> windows = new LinkedHashMap<>();
+        for (AnalyticsSnapshot.WindowStats window : snapshot.windows()) {
+            windows.put(window.label(), Map.of(
+                    "dataPoints", window.count(),
+                    "minPrice", round2(window.minPrice()),
+                    "maxPrice", round2(window.maxPrice()),
+                    "avgPrice", round2(window.avgPrice()),
+                    "stdDev", round2(window.stdDev()),
+                    "priceChange", round2((currentPrice - window.oldestPrice()) / window.oldestPrice() * 100) + "%"
+            ));
+        }
+        analytics.put("windows", windows);
+        analytics.put("dataSource", useRealData ? "Alpha Vantage API" : "Simulated Data");
+        return analytics;
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
     }
 
     public Map<String, Map<String, Object>> getAllStocksAnalytics() {
-        Map<String, Map<String, Object>> allAnalytics = new HashMap<>();
-        stockCache.keySet().forEach(symbol -> {
+        return getStocksAnalytics(quoteBoard.symbols());
+    }
+
+    public Map<String, Map<String, Object>> getStocksAnalytics(Collection<String> symbols) {
+        Map<String, Map<String, Object>> allAnalytics = new LinkedHashMap<>();
+        symbols.forEach(symbol -> {
             allAnalytics.put(symbol, getStockAnalytics(symbol));
         });
         return allAnalytics;
     }
 
-    public List<StockPriceHistory> getRecentPriceHistory(String symbol, int limit) {
+    // Latest quotes of the given symbols; untracked symbols are left out
+    public List<Stock> getStocks(Collection<String> symbols) {
+        List<Stock> stocks = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            Stock stock = quoteBoard.get(symbol);
+            if (stock != null) {
+                stocks.add(stock);
+            }
+        }
+        return stocks;
+    }
+
+    public Map<String, List<PricePoint>> getRecentPriceHistory(Collection<String> symbols, int limit) {
+        Map<String, List<PricePoint>> history = new LinkedHashMap<>();
+        symbols.forEach(symbol -> history.put(symbol, getRecentPriceHistory(symbol, limit)));
+        return history;
+    }
+
+    // Weak ETag for a response built from these symbols' quotes, analytics or history: it changes
+    // whenever any of them takes a tick. The variant folds in whatever else shapes the response.
+    public String versionTag(Collection<String> symbols, String variant) {
+        long hash = variant.hashCode();
+        for (String symbol : symbols) {
+            Stock stock = quoteBoard.get(symbol);
+            AnalyticsSnapshot snapshot = analyticsEngine.getSnapshot(symbol);
+            hash = hash * 31 + symbol.hashCode();
+            hash = hash * 1_000_003 + (stock == null ? -1 : stock.getVersion());
+            hash = hash * 1_000_003 + (snapshot == null ? -1 : snapshot.ticks());
+        }
+        return "W/\"" + tagEpoch + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    // Newest-first history: served from the ring buffer; the tick store (or the database and its
+    // rollups when the store is disabled) only covers points older than the buffer
+    public List<PricePoint> getRecentPriceHistory(String symbol, int limit) {
         try {
-            return historyRepository.findBySymbolOrderByTimestampDesc(symbol)
-                    .stream()
-                    .limit(limit)
-                    .toList();
+            List<PricePoint> points = seriesStore.latest(symbol, limit);
+            if (points.size() >= limit) {
+                return points;
+            }
+
+            PriceSeries series = seriesStore.get(symbol);
+            if (tickStore.isEnabled()) {
+                long before = series == null ? Long.MAX_VALUE : series.oldestTimestamp() - 1;
+                tickStore.scanNewestFirst(symbol, Long.MIN_VALUE, before, limit - points.size(),
+                        (ts, price) -> points.add(new PricePoint(symbol, price, seriesStore.toLocalDateTime(ts))));
+                return points;
+            }
+
+            List<StockPriceHistory> older = series == null
+                    ? historyRepository.findRecentBySymbol(symbol, PageRequest.of(0, limit))
+                    : historyRepository.findBySymbolAndTimestampBeforeOrderByTimestampDesc(symbol,
+                            seriesStore.toLocalDateTime(series.oldestTimestamp()), PageRequest.of(0, limit - points.size()));
+            older.forEach(h -> points.add(new PricePoint(h.getSymbol(), h.getPrice(), h.getTimestamp())));
+            historyArchive.addRollupsNewestFirst(symbol, seriesStore.toLocalDateTime(0),
+                    points.isEmpty() ? seriesStore.toLocalDateTime(System.currentTimeMillis()) : points.get(points.size() - 1).timestamp(),
+                    limit, points);
+            return points;
         } catch (Exception e) {
-            System.err.println("Error fetching recent history for " + symbol + ": " + e.getMessage());
+            log.warn("Error fetching recent history for {}: {}", symbol, e.getMessage());
             return new ArrayList<>();
         }
     }
 
-    public Map<String, Object> getDatabaseStats() {
-        try {
-            long totalRecords = historyRepository.count();
-            long uniqueStocks = historyRepository.findAll().stream()
-                    .map(StockPriceHistory::getSymbol)
-                    .distinct()
-                    .count();
-
-            Optional<StockPriceHistory> oldestRecord = historyRepository.findAll().stream()
-                    .min(Comparator.comparing(StockPriceHistory::getTimestamp));
-
-            Optional<StockPriceHistory> newestRecord = historyRepository.findAll().stream()
-                    .max(Comparator.comparing(StockPriceHistory::getTimestamp));
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalRecords", totalRecords);
-            stats.put("uniqueStocks", uniqueStocks);
-            stats.put("oldestRecord", oldestRecord.map(StockPriceHistory::getTimestamp).orElse(null));
-            stats.put("newestRecord", newestRecord.map(StockPriceHistory::getTimestamp).orElse(null));
-            stats.put("dataSource", useRealData ? "Alpha Vantage API" : "Simulated Data");
-
-            return stats;
-        } catch (Exception e) {
-            System.err.println("Error fetching database stats: " + e.getMessage());
-            return Map.of("error", "Failed to fetch database statistics");
+    // Newest-first ticks between from and to (inclusive), e.g. months back from the tick store; without
+    // it, the part of the range retention has compacted comes back as rollup closes
+    public List<PricePoint> getPriceHistory(String symbol, LocalDateTime from, LocalDateTime to, int limit) {
+        long fromMillis = from == null ? 0 : seriesStore.toEpochMillis(from);
+        long toMillis = to == null ? System.currentTimeMillis() : seriesStore.toEpochMillis(to);
+        List<PricePoint> points = new ArrayList<>();
+        if (tickStore.isEnabled()) {
+            tickStore.scanNewestFirst(symbol, fromMillis, toMillis, limit,
+                    (ts, price) -> points.add(new PricePoint(symbol, price, seriesStore.toLocalDateTime(ts))));
+            return points;
+        }
+
+        historyRepository.findBySymbolAndTimestampBetweenOrderByTimestampDesc(symbol,
+                        seriesStore.toLocalDateTime(fromMillis), seriesStore.toLocalDateTime(toMillis),
+                        PageRequest.of(0, limit))
+                .forEach(h -> points.add(new PricePoint(h.getSymbol(), h.getPrice(), h.getTimestamp())));
+        historyArchive.addRollupsNewestFirst(symbol, seriesStore.toLocalDateTime(fromMillis),
+                points.isEmpty() ? seriesStore.toLocalDateTime(toMillis + 1) : points.get(points.size() - 1).timestamp(),
+                limit, points);
+        return points;
+    }
+
+    // Every tick between from and to, oldest first, handed over one at a time so exports of any size
+    // run in constant memory: straight off the tick store, or from the history tables, where the
+    // compacted part of the range is one point per rollup bar
+    public void exportHistory(String symbol, LocalDateTime from, LocalDateTime to, PriceSeries.PointConsumer consumer) {
+        long fromMillis = from == null ? 0 : seriesStore.toEpochMillis(from);
+        long toMillis = to == null ? System.currentTimeMillis() : seriesStore.toEpochMillis(to);
+        if (tickStore.isEnabled()) {
+            tickStore.scan(symbol, fromMillis, toMillis, consumer);
+            return;
         }
+
+        historyArchive.scanBars(symbol, fromMillis, toMillis,
+                (start, open, high, low, close, ticks) -> consumer.accept(start, close));
+    }
+
+    public Map<String, Object> getCandles(String symbol, LocalDateTime from, LocalDateTime to, Duration interval) {
+        long toMillis = to == null ? System.currentTimeMillis() : seriesStore.toEpochMillis(to);
+        long fromMillis = from == null ? toMillis - Duration.ofDays(1).toMillis() : seriesStore.toEpochMillis(from);
+        return candleService.candles(symbol, fromMillis, toMillis, interval);
+    }
+
+    public Map<String, Object> getSeries(String symbol, LocalDateTime from, LocalDateTime to, int points) {
+        long toMillis = to == null ? System.currentTimeMillis() : seriesStore.toEpochMillis(to);
+        long fromMillis = from == null ? toMillis - Duration.ofDays(1).toMillis() : seriesStore.toEpochMillis(from);
+        return candleService.series(symbol, fromMillis, toMillis, points);
+    }
+
+    public Map<String, Object> getDatabaseStats() {
+        HistoryStats snapshot = statsTracker.snapshot();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalRecords", snapshot.totalRecords());
+        stats.put("uniqueStocks", snapshot.uniqueStocks());
+        stats.put("oldestRecord", snapshot.oldestRecord());
+        stats.put("newestRecord", snapshot.newestRecord());
+        stats.put("dataSource", useRealData ? "Alpha Vantage API" : "Simulated Data");
+        return stats;
     }
 
     // Get information about data source
     public Map<String, Object> getDataSourceInfo() {
         return Map.of(
+                "dataSource", dataSource.getName(),
                 "usingRealData", useRealData,
                 "apiConfigured", alphaVantageService.isApiKeyConfigured(),
-                "trackedStocks", stockCache.size(),
-                "stocks", String.join(", ", stockCache.keySet()),
+                "trackedStocks", quoteBoard.size(),
+                "stocks", String.join(", ", quoteBoard.symbols()),
                 "message", useRealData ?
                         "Connected to Alpha Vantage API - Live market data" :
                         alphaVantageService.isApiKeyConfigured() ?
@@ -255,24 +625,29 @@ public class StockService {
         );
     }
 
-    public void refreshAllWithRealData() {
+    // Fetches every symbol in one batch, then applies each quote on the update executor behind any
+    // pending update of its symbol; completes once all of them have landed
+    public CompletableFuture<List<Stock>> refreshAllWithRealData() {
         if (!useRealData) {
-            System.out.println("Cannot refresh with real data - API not configured");
-            return;
+            log.warn("Cannot refresh with real data - API not configured");
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (!leaderElection.isLeader()) {
+            log.warn("Cannot refresh with real data - node {} is not the ingest leader", leaderElection.getNodeId());
+            return CompletableFuture.completedFuture(List.of());
         }
 
-        System.out.println("Manually refreshing all stocks with real data...");
-        stockCache.keySet().forEach(symbol -> {
-            Stock realStock = alphaVantageService.fetchRealTimeStockData(symbol);
-            if (realStock != null) {
-                Stock existingStock = stockCache.get(symbol);
-                existingStock.setPrice(realStock.getPrice());
-                existingStock.setChange(realStock.getChange());
-                existingStock.setChangePercent(realStock.getChangePercent());
-                existingStock.setLastUpdated(LocalDateTime.now());
-                savePriceHistory(symbol, realStock.getPrice());
-                System.out.println("Refreshed " + symbol + " with real data: $" + realStock.getPrice());
-            }
-        });
+        log.info("Manually refreshing all stocks with real data");
+        return dataSource.fetchQuotes(quoteBoard.symbols()).thenCompose(realStocks ->
+                updateExecutor.submitAll(realStocks.keySet(), symbol -> {
+                    Stock realStock = realStocks.get(symbol);
+                    if (isRepeat(symbol, realStock)) {
+                        return CompletableFuture.completedFuture(quoteBoard.get(symbol));
+                    }
+                    Stock updated = applyQuote(symbol, realStock.getPrice(), realStock.getChange(),
+                            realStock.getChangePercent(), System.currentTimeMillis());
+                    log.info("Refreshed {} with real data: ${}", symbol, realStock.getPrice());
+                    return CompletableFuture.completedFuture(updated);
+                }));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.example.stock_dashboard.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Tracks which STOMP destinations currently have subscribers so broadcasts can skip symbols nobody watches
+@Service
+public class StockSubscriptionRegistry {
+
+    public static final String BOARD_DESTINATION = "/topic/stocks";
+    public static final String SYMBOL_DESTINATION_PREFIX = "/topic/stocks/";
+    // Same streams encoded with QuoteCodec; binary frames need a raw WebSocket session (/ws-binary)
+    public static final String BINARY_BOARD_DESTINATION = "/topic/stocks/binary";
+    public static final String BINARY_SYMBOL_DESTINATION_PREFIX = "/topic/stocks/binary/";
+
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> destinationCounts = new ConcurrentHashMap<>();
+    private final Set<String> newlySubscribedSymbols = ConcurrentHashMap.newKeySet();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        String destination = accessor.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        destinationCounts.merge(destination, 1, Integer::sum);
+
+        String symbol = symbolOf(destination);
+        if (symbol != null) {
+            newlySubscribedSymbols.add(symbol);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessions.get(accessor.getSessionId());
+        if (subscriptions != null && accessor.getSubscriptionId() != null) {
+            String destination = subscriptions.remove(accessor.getSubscriptionId());
+            if (destination != null) {
+                decrement(destination);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    public int subscriberCount(String destination) {
+        return destinationCounts.getOrDefault(destination, 0);
+    }
+
+    // JSON and binary subscribers together
+    public int symbolSubscriberCount(String symbol) {
+        return subscriberCount(SYMBOL_DESTINATION_PREFIX + symbol) + subscriberCount(BINARY_SYMBOL_DESTINATION_PREFIX + symbol);
+    }
+
+    public int boardSubscriberCount() {
+        return subscriberCount(BOARD_DESTINATION) + subscriberCount(BINARY_BOARD_DESTINATION);
+    }
+
+    public boolean hasBoardSubscribers() {
+        return boardSubscriberCount() > 0;
+    }
+
+    public Set<String> getSubscribedSymbols() {
+        return destinationCounts.keySet().stream()
+                .map(StockSubscriptionRegistry::symbolOf)
+                .filter(symbol -> symbol != null)
+                .collect(Collectors.toSet());
+    }
+
+    // True once per new subscription so the next frame for the symbol is a full snapshot
+    public boolean consumeNewSubscription(String symbol) {
+        return newlySubscribedSymbols.remove(symbol);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void decrement(String destination) {
+        destinationCounts.computeIfPresent(destination, (d, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static String symbolOf(String destination) {
+        String prefix = destination.startsWith(BINARY_SYMBOL_DESTINATION_PREFIX) ? BINARY_SYMBOL_DESTINATION_PREFIX
+                : SYMBOL_DESTINATION_PREFIX;
+        if (!destination.startsWith(prefix) || destination.equals(BINARY_BOARD_DESTINATION)) {
+            return null;
+        }
+        String symbol = destination.substring(prefix.length());
+        return symbol.isEmpty() || symbol.contains("/") ? null : symbol;
+    }
+}
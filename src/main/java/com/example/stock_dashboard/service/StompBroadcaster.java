@@ -0,0 +1,63 @@
+package com.example.stock_dashboard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+// Encodes a broadcast payload to JSON bytes once and hands the same byte[] to the broker, which
+// reuses it for every subscriber instead of going through message conversion per send
+@Service
+public class StompBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(StompBroadcaster.class);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BroadcastMetrics metrics;
+
+    public void broadcast(String destination, Object payload) {
+        long start = System.nanoTime();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Error encoding frame for {}: {}", destination, e.getMessage());
+            return;
+        }
+        metrics.recordEncode(body.length, System.nanoTime() - start);
+        send(destination, body, MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    // Already-encoded QuoteCodec message. Sent as application/octet-stream, the content type for which
+    // Spring writes binary WebSocket frames (SockJS sessions cannot carry them).
+    public void broadcastBinary(String destination, byte[] body, long encodeNanos) {
+        metrics.recordBinaryEncode(body.length, encodeNanos);
+        send(destination, body, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+    }
+
+    private void send(String destination, byte[] body, MimeType contentType) {
+        long start = System.nanoTime();
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+
+        messagingTemplate.send(destination, message);
+        metrics.recordFanOut(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.QuoteUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Quote bus over an external STOMP broker (RabbitMQ with the STOMP plugin, ActiveMQ, ...), by default
+// the broker the WebSocket relay uses. Each node keeps one connection subscribed to the bus
+// destination and reconnects in the background when it drops; updates published while
+// disconnected are dropped, like any other missed update.
+@Service
+public class StompQuoteBus implements QuoteBus {
+
+    private static final Logger log = LoggerFactory.getLogger(StompQuoteBus.class);
+
+    public static final String NAME = "stomp";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${stock.cluster.bus.host:${stock.cluster.broker-relay.host:localhost}}")
+    private String host;
+
+    @Value("${stock.cluster.bus.port:${stock.cluster.broker-relay.port:61613}}")
+    private int port;
+
+    @Value("${stock.cluster.bus.login:${stock.cluster.broker-relay.login:guest}}")
+    private String login;
+
+    @Value("${stock.cluster.bus.passcode:${stock.cluster.broker-relay.passcode:guest}}")
+    private String passcode;
+
+    @Value("${stock.cluster.bus.destination:/topic/stock-dashboard.quotes}")
+    private String destination;
+
+    @Value("${stock.cluster.bus.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private ReactorNettyTcpStompClient client;
+    private ThreadPoolTaskScheduler scheduler;
+    private volatile Consumer<QuoteUpdate> consumer;
+    private volatile StompSession session;
+    private volatile boolean running;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void start(Consumer<QuoteUpdate> consumer) {
+        if (running) {
+            return;
+        }
+        this.consumer = consumer;
+        running = true;
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("quote-bus-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        client = new ReactorNettyTcpStompClient(host, port);
+        client.setMessageConverter(converter);
+        client.setTaskScheduler(scheduler);
+        connect();
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        StompHeaders headers = new StompHeaders();
+        headers.setLogin(login);
+        headers.setPasscode(passcode);
+        client.connectAsync(headers, new Handler()).whenComplete((connected, error) -> {
+            if (error != null) {
+                connectFailures.incrementAndGet();
+                log.warn("Quote bus could not connect to {}:{}: {}", host, port, error.getMessage());
+                scheduleReconnect();
+            }
+        });
+    }
+
+    private void scheduleReconnect() {
+        session = null;
+        if (running) {
+            scheduler.schedule(this::connect, Instant.now().plusMillis(reconnectDelayMs));
+        }
+    }
+
+    @Override
+    public void publish(QuoteUpdate update) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        try {
+            current.send(destination, update);
+            published.incrementAndGet();
+        } catch (RuntimeException e) {
+            dropped.incrementAndGet();
+            log.warn("Error publishing quote update for {}: {}", update.symbol(), e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stock.cluster.bus.messages", published, AtomicLong::get).tag("bus", NAME)
+                .tag("result", "published").register(registry);
+        FunctionCounter.builder("stock.cluster.bus.messages", received, AtomicLong::get).tag("bus", NAME)
+                .tag("result", "received").register(registry);
+        FunctionCounter.builder("stock.cluster.bus.messages", dropped, AtomicLong::get).tag("bus", NAME)
+                .tag("result", "dropped").register(registry);
+        FunctionCounter.builder("stock.cluster.bus.connects", connects, AtomicLong::get).tag("result", "connected")
+                .register(registry);
+        FunctionCounter.builder("stock.cluster.bus.connects", connectFailures, AtomicLong::get).tag("result", "failed")
+                .register(registry);
+        Gauge.builder("stock.cluster.bus.connected", this, bus -> bus.session != null && bus.session.isConnected() ? 1 : 0)
+                .register(registry);
+    }
+
+    private final class Handler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void afterConnected(StompSession connected, StompHeaders connectedHeaders) {
+            connected.subscribe(destination, this);
+            session = connected;
+            connects.incrementAndGet();
+            log.info("Quote bus connected to {}:{} on {}", host, port, destination);
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return QuoteUpdate.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            received.incrementAndGet();
+            try {
+                consumer.accept((QuoteUpdate) payload);
+            } catch (RuntimeException e) {
+                log.warn("Error applying quote update: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void handleException(StompSession failed, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            log.warn("Quote bus error on {}: {}", command, exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(StompSession failed, Throwable exception) {
+            if (running) {
+                log.warn("Quote bus connection lost: {}", exception.getMessage());
+                scheduleReconnect();
+            }
+        }
+    }
+}
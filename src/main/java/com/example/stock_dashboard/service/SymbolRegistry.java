@@ -0,0 +1,275 @@
+package com.example.stock_dashboard.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// The tracked symbol universe. Every symbol gets a dense, stable id (0, 1, 2, ... in order of first
+// use) and one interned String instance; per-symbol state elsewhere (QuoteBoard, RefreshScheduler) is
+// kept in SymbolSlots indexed by that id. Ids are never reused while the process runs, so binary
+// frames can carry them and clients map them back through /api/stocks/symbol-table, refetching it
+// when a frame reports a larger table. The initial universe comes from stock.symbols.initial and
+// stock.symbols.file; /api/symbols adds and removes symbols at runtime.
+@Component
+public class SymbolRegistry implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SymbolRegistry.class);
+
+    private static final Pattern VALID = Pattern.compile("[A-Z0-9.^=-]{1,16}");
+
+    // SYMBOL or SYMBOL:basePrice
+    @Value("${stock.symbols.initial:AAPL:150,GOOGL:2700,MSFT:300,TSLA:200,AMZN:3400,META:320}")
+    private List<String> initial;
+
+    // One SYMBOL or SYMBOL,basePrice per line; # starts a comment
+    @Value("${stock.symbols.file:}")
+    private String file;
+
+    @Value("${stock.symbols.max:20000}")
+    private int maxSymbols;
+
+    @Value("${stock.symbols.default-base-price:100}")
+    private double defaultBasePrice;
+
+    // basePrice is NaN until the symbol is tracked
+    private record Entry(String symbol, double basePrice, boolean tracked) {
+    }
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final SymbolSlots<Entry> entries = new SymbolSlots<>();
+    private volatile int size;
+    // Tracked symbols in id order, shared by readers; null after a change until the next read rebuilds it
+    private volatile List<String> tracked = List.of();
+
+    @PostConstruct
+    public void load() throws IOException {
+        Map<String, Double> symbols = new LinkedHashMap<>();
+        // Split here as well: plain (non-Boot) contexts inject the whole comma-separated list as one element
+        initial.stream().flatMap(specs -> Arrays.stream(specs.split(",")))
+                .filter(spec -> !spec.isBlank()).forEach(spec -> parse(spec, ':', symbols));
+        if (!file.isBlank()) {
+            try (Stream<String> lines = Files.lines(Path.of(file))) {
+                lines.map(String::trim).filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(line -> parse(line, ',', symbols));
+            }
+        }
+        add(symbols);
+        log.info("Symbol registry loaded {} symbols", tracked().size());
+    }
+
+    private static void parse(String spec, char separator, Map<String, Double> out) {
+        int at = spec.indexOf(separator);
+        try {
+            out.put(at < 0 ? spec.trim() : spec.substring(0, at).trim(),
+                    at < 0 ? null : Double.valueOf(spec.substring(at + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid symbol spec '" + spec + "'", e);
+        }
+    }
+
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : assign(symbol);
+    }
+
+    // -1 for a symbol that never had an id; no id is assigned
+    public int find(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    private synchronized int assign(String symbol) {
+        Integer existing = ids.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        String interned = symbol.intern();
+        entries.set(id, new Entry(interned, Double.NaN, false));
+        size = id + 1;
+        ids.put(interned, id);
+        return id;
+    }
+
+    public String symbolOf(int id) {
+        Entry entry = id >= 0 && id < size ? entries.get(id) : null;
+        return entry != null ? entry.symbol() : null;
+    }
+
+    // Ids are below this
+    public int size() {
+        return size;
+    }
+
+    // Every symbol that ever had an id; the index in the list is the id
+    public List<String> symbols() {
+        int count = size;
+        List<String> symbols = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            symbols.add(entries.get(id).symbol());
+        }
+        return Collections.unmodifiableList(symbols);
+    }
+
+    // The registry's own instance of a known symbol, found without allocating when the caller already
+    // has the canonical spelling; unknown symbols come back trimmed and upper-cased
+    public String canonical(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return entries.get(id).symbol();
+        }
+        String normalized = symbol.trim().toUpperCase(Locale.ROOT);
+        id = ids.get(normalized);
+        return id != null ? entries.get(id).symbol() : normalized;
+    }
+
+    // Canonical form of a symbol about to be tracked or used in a file name or header
+    public String validate(String symbol) {
+        String normalized = canonical(symbol);
+        if (!VALID.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Invalid symbol '" + symbol + "'");
+        }
+        return normalized;
+    }
+
+    public boolean isTracked(String symbol) {
+        return isTracked(find(symbol));
+    }
+
+    public List<String> tracked() {
+        List<String> current = tracked;
+        return current != null ? current : rebuildTracked();
+    }
+
+    private synchronized List<String> rebuildTracked() {
+        List<String> current = tracked;
+        if (current == null) {
+            List<String> symbols = new ArrayList<>();
+            int count = size;
+            for (int id = 0; id < count; id++) {
+                Entry entry = entries.get(id);
+                if (entry.tracked()) {
+                    symbols.add(entry.symbol());
+                }
+            }
+            current = Collections.unmodifiableList(symbols);
+            tracked = current;
+        }
+        return current;
+    }
+
+    // Tracks the symbols (a null base price keeps the known one, or uses the default) and returns
+    // the ones that weren't tracked yet. All or nothing: one invalid symbol rejects the whole batch.
+    public synchronized List<String> add(Map<String, Double> symbols) {
+        Map<String, Double> valid = new LinkedHashMap<>();
+        symbols.forEach((symbol, basePrice) -> {
+            if (basePrice != null && !(basePrice > 0)) {
+                throw new IllegalArgumentException("Base price of " + symbol + " must be positive");
+            }
+            valid.put(validate(symbol), basePrice);
+        });
+        long untracked = valid.keySet().stream().filter(symbol -> !isTracked(symbol)).count();
+        if (tracked().size() + untracked > maxSymbols) {
+            throw new IllegalArgumentException("At most " + maxSymbols + " tracked symbols");
+        }
+
+        List<String> added = new ArrayList<>();
+        valid.forEach((symbol, basePrice) -> {
+            int id = idOf(symbol);
+            Entry entry = entries.get(id);
+            if (!entry.tracked()) {
+                added.add(entry.symbol());
+            }
+            entries.set(id, new Entry(entry.symbol(), basePrice != null ? basePrice : basePriceOf(entry), true));
+        });
+        tracked = null;
+        return added;
+    }
+
+    public synchronized boolean remove(String symbol) {
+        int id = find(canonical(symbol));
+        Entry entry = id < 0 ? null : entries.get(id);
+        if (entry == null || !entry.tracked()) {
+            return false;
+        }
+        entries.set(id, new Entry(entry.symbol(), entry.basePrice(), false));
+        tracked = null;
+        return true;
+    }
+
+    public boolean isTracked(int id) {
+        Entry entry = id >= 0 && id < size ? entries.get(id) : null;
+        return entry != null && entry.tracked();
+    }
+
+    // A symbol that first shows up as a quote (a streaming source's tick, the warm-start snapshot) joins
+    // the universe with it. Only a symbol never seen before is tracked this way: one removed at runtime
+    // stays removed until it is added again. Returns whether the symbol is tracked.
+    public boolean trackFirstQuote(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? entries.get(id).tracked() : trackNew(symbol);
+    }
+
+    private synchronized boolean trackNew(String symbol) {
+        if (ids.containsKey(symbol)) {
+            return isTracked(symbol);
+        }
+        int id = assign(symbol);
+        Entry entry = entries.get(id);
+        entries.set(id, new Entry(entry.symbol(), basePriceOf(entry), true));
+        tracked = null;
+        return true;
+    }
+
+    public double basePrice(String symbol) {
+        int id = find(symbol);
+        return id < 0 ? defaultBasePrice : basePriceOf(entries.get(id));
+    }
+
+    private double basePriceOf(Entry entry) {
+        return Double.isNaN(entry.basePrice()) ? defaultBasePrice : entry.basePrice();
+    }
+
+    // null for a symbol that never had an id
+    public Map<String, Object> describe(String symbol) {
+        int id = find(canonical(symbol));
+        if (id < 0) {
+            return null;
+        }
+        Entry entry = entries.get(id);
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("symbol", entry.symbol());
+        info.put("id", id);
+        info.put("tracked", entry.tracked());
+        info.put("basePrice", basePriceOf(entry));
+        return info;
+    }
+
+    // Bound by Spring Boot's metrics auto-configuration
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("stock.symbols.tracked", this, symbols -> symbols.tracked().size()).register(registry);
+        Gauge.builder("stock.symbols.ids", this, SymbolRegistry::size)
+                .description("Symbols that ever had an id, tracked or not")
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.stock_dashboard.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Per-symbol state indexed by SymbolRegistry id. Slots live in fixed-size chunks: growing only adds
+// chunks, so a slot is never copied and a compareAndSet on it can't be lost to a concurrent resize.
+// Iterating ids in order walks the chunks sequentially.
+public class SymbolSlots<T> {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    @SuppressWarnings("unchecked")
+    private volatile AtomicReferenceArray<T>[] chunks = new AtomicReferenceArray[0];
+
+    public T get(int id) {
+        AtomicReferenceArray<T>[] current = chunks;
+        int chunk = id >>> CHUNK_BITS;
+        return chunk < current.length ? current[chunk].get(id & (CHUNK_SIZE - 1)) : null;
+    }
+
+    public void set(int id, T value) {
+        chunk(id).set(id & (CHUNK_SIZE - 1), value);
+    }
+
+    public T getAndSet(int id, T value) {
+        return chunk(id).getAndSet(id & (CHUNK_SIZE - 1), value);
+    }
+
+    public boolean compareAndSet(int id, T expected, T value) {
+        return chunk(id).compareAndSet(id & (CHUNK_SIZE - 1), expected, value);
+    }
+
+    private AtomicReferenceArray<T> chunk(int id) {
+        AtomicReferenceArray<T>[] current = chunks;
+        int chunk = id >>> CHUNK_BITS;
+        return chunk < current.length ? current[chunk] : grow(chunk);
+    }
+
+    private synchronized AtomicReferenceArray<T> grow(int chunk) {
+        AtomicReferenceArray<T>[] current = chunks;
+        if (chunk >= current.length) {
+            AtomicReferenceArray<T>[] grown = Arrays.copyOf(current, Math.max(chunk + 1, current.length * 2));
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            }
+            chunks = grown;
+            current = grown;
+        }
+        return current[chunk];
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+
+import java.util.List;
+
+// Bounded journal of applied quotes numbered 1, 2, 3, ... so stream consumers can resume after a
+// disconnect. Holds the last capacity quotes in a ring; older sequence numbers are gone.
+public class TickJournal {
+
+    public record Entry(long seq, Stock quote, long epochMillis) {
+    }
+
+    private final Stock[] quotes;
+    private final long[] timestamps;
+    private long next = 1;
+
+    public TickJournal(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.quotes = new Stock[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    public synchronized long append(Stock quote, long epochMillis) {
+        int slot = (int) (next % quotes.length);
+        quotes[slot] = quote;
+        timestamps[slot] = epochMillis;
+        return next++;
+    }
+
+    // 0 while empty
+    public synchronized long lastSeq() {
+        return next - 1;
+    }
+
+    public synchronized long firstSeq() {
+        return Math.max(1, next - quotes.length);
+    }
+
+    // Adds up to max entries after the given seq, oldest first. Returns false, adding nothing, when
+    // entries right after it were already overwritten or the seq was never issued.
+    public synchronized boolean readAfter(long after, int max, List<Entry> out) {
+        if (after > next - 1 || after + 1 < next - quotes.length) {
+            return false;
+        }
+        long end = Math.min(next, after + 1 + max);
+        for (long seq = after + 1; seq < end; seq++) {
+            int slot = (int) (seq % quotes.length);
+            out.add(new Entry(seq, quotes[slot], timestamps[slot]));
+        }
+        return true;
+    }
+
+    public int capacity() {
+        return quotes.length;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.stock_dashboard.service;
+
+@FunctionalInterface
+public interface TickListener {
+    void onTick(String symbol, long epochMillis, double price);
+}
@@ -0,0 +1,462 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.PriceSeries.PointConsumer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// One symbol-day of ticks in an append-only, memory-mapped file.
+//
+// Segment: 64-byte header (magic, version, price scale, index interval, tick count, bytes used,
+//          min and max timestamp, unordered flag), then one record per tick: zigzag varint of the timestamp delta
+//          and zigzag varint of the price delta, in units of 1/PRICE_SCALE, against the previous tick.
+// Index:   sidecar file with one 32-byte entry per INDEX_INTERVAL ticks (first timestamp of the block,
+//          its byte offset, and the previous tick's timestamp and price units the block decodes against),
+//          so a range scan can start decoding at any block instead of at the start of the day.
+//
+// Opening a segment maps the file and reads the header and the small index; nothing is decoded.
+// No file handle stays open: the data file is reopened only to grow the mapping, the index file
+// only to add an entry, so thousands of writable segments can be open at once.
+// Sealed segments may be gzip-compressed; they are then inflated into memory when read.
+// A tick older than the one before it (e.g. a backfilled bar) marks the segment unordered: the
+// block index can no longer be searched, so scans decode the whole segment and sort it.
+public final class TickSegment implements Closeable {
+
+    public static final int MAGIC = 0x54534547; // "TSEG"
+    public static final int VERSION = 1;
+    public static final long PRICE_SCALE = 10_000; // prices are stored to 4 decimal places
+    static final int HEADER_SIZE = 64;
+    private static final int INDEX_ENTRY_SIZE = 32;
+
+    private static final int OFF_COUNT = 16;
+    private static final int OFF_WRITE_POS = 24;
+    private static final int OFF_MIN_TS = 32;
+    private static final int OFF_MAX_TS = 40;
+    private static final int OFF_UNORDERED = 48;
+
+    private final Path segmentPath;
+    private final Path indexPath;
+    private final int indexInterval;
+    private ByteBuffer data;
+    private final boolean writable;
+
+    private long count;
+    private int writePos;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long lastTimestamp;
+    private long lastPriceUnits;
+    private boolean unordered;
+
+    // Sparse index, one entry per block
+    private int blocks;
+    private long[] blockTimestamps = new long[16];
+    private int[] blockOffsets = new int[16];
+    private long[] blockBaseTimestamps = new long[16];
+    private long[] blockBasePrices = new long[16];
+
+    private TickSegment(Path segmentPath, Path indexPath, int indexInterval, boolean writable) {
+        this.segmentPath = segmentPath;
+        this.indexPath = indexPath;
+        this.indexInterval = indexInterval;
+        this.writable = writable;
+    }
+
+    public static TickSegment openWritable(Path segmentPath, Path indexPath, int initialCapacity,
+                                           int indexInterval) throws IOException {
+        TickSegment segment = new TickSegment(segmentPath, indexPath, indexInterval, true);
+        boolean exists = Files.exists(segmentPath) && Files.size(segmentPath) >= HEADER_SIZE;
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), Math.max(initialCapacity, HEADER_SIZE * 2));
+            segment.data = channel.map(FileChannel.MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (exists) {
+            segment.readHeader();
+            segment.loadIndex();
+            segment.restoreTail();
+        } else {
+            segment.writeHeader(indexInterval);
+        }
+        // Drops index entries past the committed data; creates the index of a new segment
+        try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            index.truncate((long) segment.blocks * INDEX_ENTRY_SIZE);
+        }
+        return segment;
+    }
+
+    // Read-only view of a sealed segment, raw (mapped) or gzip-compressed (inflated on the heap)
+    public static TickSegment openReadOnly(Path segmentPath, Path indexPath) throws IOException {
+        TickSegment segment = new TickSegment(segmentPath, indexPath, 0, false);
+        if (segmentPath.getFileName().toString().endsWith(".gz")) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(segmentPath), 1 << 16)) {
+                segment.data = ByteBuffer.wrap(in.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } else {
+            try (FileChannel ch = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+                segment.data = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        segment.readHeader();
+        segment.loadIndex();
+        return segment;
+    }
+
+    private void writeHeader(int indexInterval) {
+        data.putInt(0, MAGIC);
+        data.putInt(4, VERSION);
+        data.putInt(8, (int) PRICE_SCALE);
+        data.putInt(12, indexInterval);
+        writePos = HEADER_SIZE;
+        updateHeader();
+    }
+
+    private void readHeader() throws IOException {
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not a tick segment: " + segmentPath);
+        }
+        count = data.getLong(OFF_COUNT);
+        writePos = (int) data.getLong(OFF_WRITE_POS);
+        minTimestamp = data.getLong(OFF_MIN_TS);
+        maxTimestamp = data.getLong(OFF_MAX_TS);
+        unordered = data.getInt(OFF_UNORDERED) != 0;
+    }
+
+    private void updateHeader() {
+        data.putLong(OFF_WRITE_POS, writePos);
+        data.putLong(OFF_MIN_TS, minTimestamp);
+        data.putLong(OFF_MAX_TS, maxTimestamp);
+        data.putInt(OFF_UNORDERED, unordered ? 1 : 0);
+        // Count last: a reader of the header never sees ticks beyond writePos
+        data.putLong(OFF_COUNT, count);
+    }
+
+    // Index entries past the committed data (written just before a crash) are ignored
+    private void loadIndex() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            long entries = ch.size() / INDEX_ENTRY_SIZE;
+            for (long i = 0; i < entries; i++) {
+                entry.clear();
+                ch.read(entry, i * INDEX_ENTRY_SIZE);
+                int offset = (int) entry.getLong(8);
+                if (offset >= writePos) {
+                    break;
+                }
+                addBlock(entry.getLong(0), offset, entry.getLong(16), entry.getLong(24));
+            }
+        }
+    }
+
+    // Re-derive the last tick (the base for the next delta) by decoding the final block
+    private void restoreTail() {
+        if (blocks == 0) {
+            return;
+        }
+        int pos = blockOffsets[blocks - 1];
+        long ts = blockBaseTimestamps[blocks - 1];
+        long units = blockBasePrices[blocks - 1];
+        while (pos < writePos) {
+            long value = readVarLong(pos);
+            pos = nextPos;
+            ts += zigzagDecode(value);
+            value = readVarLong(pos);
+            pos = nextPos;
+            units += zigzagDecode(value);
+        }
+        lastTimestamp = ts;
+        lastPriceUnits = units;
+    }
+
+    public synchronized void append(long epochMillis, double price) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("Segment is sealed: " + segmentPath);
+        }
+        long units = Math.round(price * PRICE_SCALE);
+        if (count % indexInterval == 0) {
+            writeIndexEntry(epochMillis, writePos, lastTimestamp, lastPriceUnits);
+        }
+        ensureCapacity(20);
+        if (count > 0 && epochMillis < lastTimestamp) {
+            unordered = true;
+        }
+        writePos = writeVarLong(writePos, zigzagEncode(epochMillis - lastTimestamp));
+        writePos = writeVarLong(writePos, zigzagEncode(units - lastPriceUnits));
+        lastTimestamp = epochMillis;
+        lastPriceUnits = units;
+        count++;
+        minTimestamp = Math.min(minTimestamp, epochMillis);
+        maxTimestamp = Math.max(maxTimestamp, epochMillis);
+        updateHeader();
+    }
+
+    private void writeIndexEntry(long blockTimestamp, int offset, long baseTimestamp, long basePrice) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        entry.putLong(blockTimestamp).putLong(offset).putLong(baseTimestamp).putLong(basePrice).flip();
+        try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            index.write(entry, (long) blocks * INDEX_ENTRY_SIZE);
+        }
+        addBlock(blockTimestamp, offset, baseTimestamp, basePrice);
+    }
+
+    private void addBlock(long blockTimestamp, int offset, long baseTimestamp, long basePrice) {
+        if (blocks == blockOffsets.length) {
+            int newLength = blocks * 2;
+            blockTimestamps = Arrays.copyOf(blockTimestamps, newLength);
+            blockOffsets = Arrays.copyOf(blockOffsets, newLength);
+            blockBaseTimestamps = Arrays.copyOf(blockBaseTimestamps, newLength);
+            blockBasePrices = Arrays.copyOf(blockBasePrices, newLength);
+        }
+        blockTimestamps[blocks] = blockTimestamp;
+        blockOffsets[blocks] = offset;
+        blockBaseTimestamps[blocks] = baseTimestamp;
+        blockBasePrices[blocks] = basePrice;
+        blocks++;
+    }
+
+    // Grows the mapping by doubling the file; the old mapping is released by the GC
+    private void ensureCapacity(int bytes) throws IOException {
+        if (writePos + bytes <= data.capacity()) {
+            return;
+        }
+        long newSize = (long) data.capacity() * 2;
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IOException("Tick segment full: " + segmentPath);
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            data = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public synchronized long count() { return count; }
+
+    public synchronized long minTimestamp() { return count == 0 ? Long.MAX_VALUE : minTimestamp; }
+
+    public synchronized long maxTimestamp() { return count == 0 ? Long.MIN_VALUE : maxTimestamp; }
+
+    public synchronized int blockCount() { return blocks; }
+
+    public int indexInterval() { return data.getInt(12); }
+
+    public synchronized int sizeBytes() { return writePos; }
+
+    public synchronized boolean isUnordered() { return unordered; }
+
+    // Index of the block that contains the first tick at or after epochMillis; the first block when
+    // the segment is unordered
+    public synchronized int findBlock(long epochMillis) {
+        if (unordered) {
+            return 0;
+        }
+        int idx = Arrays.binarySearch(blockTimestamps, 0, blocks, epochMillis);
+        if (idx < 0) {
+            idx = -idx - 2;
+        } else {
+            // Equal timestamps can span blocks; start at the first of them
+            while (idx > 0 && blockTimestamps[idx - 1] == epochMillis) {
+                idx--;
+            }
+            idx = Math.max(0, idx - 1);
+        }
+        return Math.max(0, idx);
+    }
+
+    public synchronized long blockTimestamp(int block) {
+        return blockTimestamps[block];
+    }
+
+    // Decodes one block into the arrays (sized at least indexInterval) and returns the tick count
+    public synchronized int readBlock(int block, long[] timestampsOut, double[] pricesOut) {
+        int pos = blockOffsets[block];
+        int end = block + 1 < blocks ? blockOffsets[block + 1] : writePos;
+        long ts = blockBaseTimestamps[block];
+        long units = blockBasePrices[block];
+        int n = 0;
+        while (pos < end) {
+            long value = readVarLong(pos);
+            pos = nextPos;
+            ts += zigzagDecode(value);
+            value = readVarLong(pos);
+            pos = nextPos;
+            units += zigzagDecode(value);
+            timestampsOut[n] = ts;
+            pricesOut[n] = (double) units / PRICE_SCALE;
+            n++;
+        }
+        return n;
+    }
+
+    // Ticks with from <= ts <= to, oldest first
+    public void scan(long fromMillis, long toMillis, PointConsumer consumer) {
+        if (isUnordered()) {
+            Ticks sorted = sortedTicks();
+            for (int i = 0; i < sorted.size(); i++) {
+                if (sorted.timestamps()[i] >= fromMillis && sorted.timestamps()[i] <= toMillis) {
+                    consumer.accept(sorted.timestamps()[i], sorted.prices()[i]);
+                }
+            }
+            return;
+        }
+        int interval = indexInterval();
+        long[] timestamps = new long[interval];
+        double[] prices = new double[interval];
+        int blockCount = blockCount();
+        for (int block = findBlock(fromMillis); block < blockCount; block++) {
+            if (blockTimestamp(block) > toMillis) {
+                return;
+            }
+            int n = readBlock(block, timestamps, prices);
+            for (int i = 0; i < n; i++) {
+                if (timestamps[i] >= fromMillis && timestamps[i] <= toMillis) {
+                    consumer.accept(timestamps[i], prices[i]);
+                }
+            }
+        }
+    }
+
+    // Newest-first within [from, to]; stops once the consumer has taken limit ticks. Returns the count taken.
+    public int scanNewestFirst(long fromMillis, long toMillis, int limit, PointConsumer consumer) {
+        if (isUnordered()) {
+            Ticks sorted = sortedTicks();
+            int taken = 0;
+            for (int i = sorted.size() - 1; i >= 0 && taken < limit; i--) {
+                if (sorted.timestamps()[i] >= fromMillis && sorted.timestamps()[i] <= toMillis) {
+                    consumer.accept(sorted.timestamps()[i], sorted.prices()[i]);
+                    taken++;
+                }
+            }
+            return taken;
+        }
+        int interval = indexInterval();
+        long[] timestamps = new long[interval];
+        double[] prices = new double[interval];
+        int taken = 0;
+        for (int block = blockCount() - 1; block >= 0 && taken < limit; block--) {
+            int n = readBlock(block, timestamps, prices);
+            for (int i = n - 1; i >= 0 && taken < limit; i--) {
+                if (timestamps[i] >= fromMillis && timestamps[i] <= toMillis) {
+                    consumer.accept(timestamps[i], prices[i]);
+                    taken++;
+                }
+            }
+            if (blockTimestamp(block) < fromMillis) {
+                break;
+            }
+        }
+        return taken;
+    }
+
+    private record Ticks(long[] timestamps, double[] prices, int size) {
+    }
+
+    // Every tick of the segment in time order (stable for equal timestamps)
+    private synchronized Ticks sortedTicks() {
+        int n = (int) count;
+        long[] timestamps = new long[n];
+        double[] prices = new double[n];
+        long[] blockTimes = new long[indexInterval()];
+        double[] blockPrices = new double[blockTimes.length];
+        int size = 0;
+        for (int block = 0; block < blocks; block++) {
+            int read = readBlock(block, blockTimes, blockPrices);
+            System.arraycopy(blockTimes, 0, timestamps, size, read);
+            System.arraycopy(blockPrices, 0, prices, size, read);
+            size += read;
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(timestamps[a], timestamps[b]));
+        long[] sortedTimestamps = new long[size];
+        double[] sortedPrices = new double[size];
+        for (int i = 0; i < size; i++) {
+            sortedTimestamps[i] = timestamps[order[i]];
+            sortedPrices[i] = prices[order[i]];
+        }
+        return new Ticks(sortedTimestamps, sortedPrices, size);
+    }
+
+    public synchronized void force() {
+        if (writable && data instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    // Writes the used part of the segment as <name>.gz; the raw file stays until the caller removes it
+    public synchronized Path compress() throws IOException {
+        Path target = segmentPath.resolveSibling(segmentPath.getFileName() + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 1 << 16)) {
+            byte[] chunk = new byte[1 << 16];
+            ByteBuffer view = data.duplicate();
+            view.position(0).limit(writePos);
+            while (view.hasRemaining()) {
+                int len = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, len);
+                out.write(chunk, 0, len);
+            }
+        }
+        return target;
+    }
+
+    // Restores the raw segment from its .gz form so it can be appended to again
+    public static void decompress(Path compressed, Path target) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed), 1 << 16)) {
+            Files.copy(in, target);
+        }
+        Files.delete(compressed);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+    }
+
+    // Varint helpers; readVarLong leaves the position after the value in nextPos (always used under the lock)
+    private int nextPos;
+
+    private int writeVarLong(int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            data.put(pos++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.put(pos++, (byte) value);
+        return pos;
+    }
+
+    private long readVarLong(int pos) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get(pos++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        nextPos = pos;
+        return value;
+    }
+
+    static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
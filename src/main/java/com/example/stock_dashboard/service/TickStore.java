@@ -0,0 +1,433 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.PriceSeries.PointConsumer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Persistent long-term tick history: <dir>/<SYMBOL>/<yyyy-MM-dd>.seg (+ .idx), one TickSegment per
+// symbol and UTC day. The current day's segment is kept mapped for appends; earlier days are
+// sealed (optionally gzip-compressed) on a background thread and opened read-only when a query
+// reaches them. Startup only lists the directory, so restart cost does not grow with the amount
+// of history. A tick arriving late for an already rolled-over day goes to that day's segment,
+// which is reopened if it was already sealed and then sealed again. At most max-open-segments current-day segments stay mapped; beyond that the least recently
+// appended ones are closed and reopened on their next tick.
+@Service
+public class TickStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TickStore.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.tickstore.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stock.tickstore.dir:./data/ticks}")
+    private String directory;
+
+    @Value("${stock.tickstore.initial-segment-bytes:262144}")
+    private int initialSegmentBytes;
+
+    @Value("${stock.tickstore.index-interval:256}")
+    private int indexInterval;
+
+    @Value("${stock.tickstore.compress-sealed:true}")
+    private boolean compressSealed;
+
+    @Value("${stock.tickstore.max-open-segments:16384}")
+    private int maxOpenSegments;
+
+    private Path root;
+    private final Map<String, SymbolTicks> symbols = new ConcurrentHashMap<>();
+    // Symbols with an open current-day segment, oldest opened first
+    private final Queue<SymbolTicks> openSegments = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final Object evictLock = new Object();
+    private ExecutorService sealer;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong appendErrors = new AtomicLong();
+    private final AtomicLong sealedSegments = new AtomicLong();
+    private final AtomicLong evictedSegments = new AtomicLong();
+    private final AtomicLong lateTicks = new AtomicLong();
+
+    @PostConstruct
+    public void open() throws IOException {
+        registerMeters();
+        if (!enabled) {
+            return;
+        }
+        root = Path.of(directory);
+        Files.createDirectories(root);
+        sealer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tick-store-sealer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (DirectoryStream<Path> symbolDirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path symbolDir : symbolDirs) {
+                SymbolTicks ticks = new SymbolTicks(symbolDir.getFileName().toString(), symbolDir);
+                ticks.discover();
+                symbols.put(ticks.symbol, ticks);
+            }
+        }
+        log.info("Tick store opened at {} with {} symbols", root.toAbsolutePath(), symbols.size());
+    }
+
+    // Seals still queued are finished first; segments left unsealed stay raw and are read as they are
+    @PreDestroy
+    public void close() {
+        if (sealer != null) {
+            sealer.shutdown();
+            try {
+                sealer.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        symbols.values().forEach(SymbolTicks::close);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(String symbol, long epochMillis, double price) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            symbols.computeIfAbsent(symbol, s -> new SymbolTicks(s, root.resolve(s))).append(epochMillis, price);
+            appended.incrementAndGet();
+            if (openCount.get() > maxOpenSegments) {
+                evictIdle();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            if (appendErrors.incrementAndGet() == 1) {
+                log.error("Tick store append failed for {}: {}", symbol, e.getMessage());
+            }
+        }
+    }
+
+    // Second chance: a segment appended to since the last pass goes to the back of the queue once
+    private void evictIdle() {
+        synchronized (evictLock) {
+            int passes = 2 * openCount.get();
+            while (openCount.get() > maxOpenSegments && passes-- > 0) {
+                SymbolTicks ticks = openSegments.poll();
+                if (ticks == null) {
+                    return;
+                }
+                if (ticks.recentlyUsed) {
+                    ticks.recentlyUsed = false;
+                    openSegments.add(ticks);
+                } else {
+                    ticks.release();
+                }
+            }
+        }
+    }
+
+    // Ticks in [from, to], oldest first
+    public void scan(String symbol, long fromMillis, long toMillis, PointConsumer consumer) {
+        SymbolTicks ticks = enabled ? symbols.get(symbol) : null;
+        if (ticks == null) {
+            return;
+        }
+        for (long day : ticks.days.subMap(epochDay(fromMillis), true, epochDay(toMillis), true).keySet()) {
+            withSegment(ticks, day, segment -> {
+                if (segment.maxTimestamp() >= fromMillis && segment.minTimestamp() <= toMillis) {
+                    segment.scan(fromMillis, toMillis, consumer);
+                }
+                return 0;
+            });
+        }
+    }
+
+    // Ticks in [from, to], newest first, at most limit of them; returns how many were produced
+    public int scanNewestFirst(String symbol, long fromMillis, long toMillis, int limit, PointConsumer consumer) {
+        SymbolTicks ticks = enabled ? symbols.get(symbol) : null;
+        if (ticks == null) {
+            return 0;
+        }
+        int taken = 0;
+        for (long day : ticks.days.subMap(epochDay(fromMillis), true, epochDay(toMillis), true)
+                .descendingKeySet()) {
+            int remaining = limit - taken;
+            if (remaining <= 0) {
+                break;
+            }
+            taken += withSegment(ticks, day, segment -> segment.maxTimestamp() >= fromMillis && segment.minTimestamp() <= toMillis
+                    ? segment.scanNewestFirst(fromMillis, toMillis, remaining, consumer)
+                    : 0);
+        }
+        return taken;
+    }
+
+    public Set<String> getSymbols() {
+        return symbols.keySet();
+    }
+
+    private interface SegmentReader {
+        int read(TickSegment segment) throws IOException;
+    }
+
+    // Writable segments are read in place; sealed days are opened for the duration of the read
+    private int withSegment(SymbolTicks ticks, long day, SegmentReader reader) {
+        try {
+            TickSegment writable = ticks.writableFor(day);
+            if (writable != null) {
+                return reader.read(writable);
+            }
+            Path segmentPath = ticks.days.get(day);
+            if (segmentPath == null) {
+                return 0;
+            }
+            try (TickSegment sealed = TickSegment.openReadOnly(segmentPath, indexPath(ticks.dir, day))) {
+                return reader.read(sealed);
+            }
+        } catch (IOException e) {
+            log.warn("Error reading ticks for {} on {}: {}", ticks.symbol, LocalDate.ofEpochDay(day), e.getMessage());
+            return 0;
+        }
+    }
+
+    private static long epochDay(long epochMillis) {
+        return Math.floorDiv(epochMillis, 86_400_000L);
+    }
+
+    private static Path segmentPath(Path dir, long day) {
+        return dir.resolve(LocalDate.ofEpochDay(day) + ".seg");
+    }
+
+    private static Path indexPath(Path dir, long day) {
+        return dir.resolve(LocalDate.ofEpochDay(day) + ".idx");
+    }
+
+    private void registerMeters() {
+        Gauge.builder("stock.tickstore.symbols", symbols, Map::size).register(meterRegistry);
+        Gauge.builder("stock.tickstore.segments", this, TickStore::segmentCount).register(meterRegistry);
+        Gauge.builder("stock.tickstore.disk", this, TickStore::diskBytes).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("stock.tickstore.open.segments", openCount, AtomicInteger::get)
+                .description("Current-day segments kept mapped for appends")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.tickstore.appended", appended, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("stock.tickstore.append.errors", appendErrors, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("stock.tickstore.segments.sealed", sealedSegments, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("stock.tickstore.segments.evicted", evictedSegments, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.tickstore.late", lateTicks, AtomicLong::get)
+                .description("Ticks for a day the symbol had already rolled over from")
+                .register(meterRegistry);
+    }
+
+    private double segmentCount() {
+        long segments = 0;
+        for (SymbolTicks ticks : symbols.values()) {
+            segments += ticks.days.size();
+        }
+        return segments;
+    }
+
+    private double diskBytes() {
+        long bytes = 0;
+        for (SymbolTicks ticks : symbols.values()) {
+            for (Path path : ticks.days.values()) {
+                try {
+                    bytes += Files.size(path);
+                } catch (IOException e) {
+                    // segment sealed or removed concurrently
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private final class SymbolTicks {
+        private final String symbol;
+        private final Path dir;
+        // epoch day -> segment file (.seg or .seg.gz)
+        private final NavigableMap<Long, Path> days = new ConcurrentSkipListMap<>();
+        private volatile TickSegment active;
+        private volatile long activeDay = Long.MIN_VALUE;
+        private volatile boolean recentlyUsed;
+        // Rolled-over days (and reopened ones) waiting for the sealer, still appendable
+        private final Map<Long, TickSegment> unsealed = new ConcurrentHashMap<>();
+
+        SymbolTicks(String symbol, Path dir) {
+            this.symbol = symbol;
+            this.dir = dir;
+        }
+
+        void discover() throws IOException {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.seg*")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    try {
+                        days.put(LocalDate.parse(name.substring(0, name.indexOf('.'))).toEpochDay(), file);
+                    } catch (RuntimeException e) {
+                        log.warn("Ignoring unexpected file in tick store: {}", file);
+                    }
+                }
+            }
+        }
+
+        TickSegment writableFor(long day) {
+            TickSegment current = active;
+            return current != null && day == activeDay ? current : unsealed.get(day);
+        }
+
+        // A later day rolls the segment over; an evicted segment is reopened for its day or a later one
+        synchronized void append(long epochMillis, double price) throws IOException {
+            long day = epochDay(epochMillis);
+            if (activeDay != Long.MIN_VALUE && day < activeDay) {
+                lateTicks.incrementAndGet();
+                lateSegment(day).append(epochMillis, price);
+                return;
+            }
+            if (active == null || day > activeDay) {
+                roll(day);
+            }
+            active.append(epochMillis, price);
+            recentlyUsed = true;
+        }
+
+        private void roll(long day) throws IOException {
+            TickSegment previous = active;
+            long previousDay = activeDay;
+            active = openWritable(day);
+            activeDay = day;
+
+            if (previous != null) {
+                unsealed.put(previousDay, previous);
+                scheduleSeal(previousDay, previous);
+            } else {
+                openCount.incrementAndGet();
+                openSegments.add(this);
+            }
+        }
+
+        // The earlier day's segment, still waiting to be sealed or reopened for this tick
+        private TickSegment lateSegment(long day) throws IOException {
+            TickSegment segment = unsealed.get(day);
+            if (segment == null) {
+                segment = openWritable(day);
+                unsealed.put(day, segment);
+                scheduleSeal(day, segment);
+            }
+            return segment;
+        }
+
+        private TickSegment openWritable(long day) throws IOException {
+            Files.createDirectories(dir);
+            Path path = segmentPath(dir, day);
+            Path existing = days.get(day);
+            if (existing != null && !existing.equals(path)) {
+                // Ticks for a day that was already sealed and compressed: reopen it for appends
+                TickSegment.decompress(existing, path);
+            }
+            TickSegment segment = TickSegment.openWritable(path, indexPath(dir, day), initialSegmentBytes, indexInterval);
+            days.put(day, path);
+            return segment;
+        }
+
+        // Closes the current-day segment; readers fall back to opening it like a sealed one
+        synchronized void release() {
+            if (active == null) {
+                return;
+            }
+            try {
+                active.close();
+            } catch (IOException e) {
+                log.warn("Error closing tick segment for {}: {}", symbol, e.getMessage());
+            }
+            active = null;
+            openCount.decrementAndGet();
+            evictedSegments.incrementAndGet();
+        }
+
+        private void scheduleSeal(long day, TickSegment segment) {
+            try {
+                sealer.execute(() -> seal(day, segment));
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the segment is closed unsealed
+            }
+        }
+
+        // On the sealer thread. Compression runs outside the symbol's lock; a late tick appended
+        // meanwhile means the copy is stale and the segment is compressed again.
+        private void seal(long day, TickSegment segment) {
+            try {
+                long count = segment.count();
+                Path compressed = null;
+                if (compressSealed) {
+                    compressed = segment.compress();
+                } else {
+                    segment.force();
+                }
+                synchronized (this) {
+                    if (unsealed.get(day) != segment) {
+                        return;
+                    }
+                    if (segment.count() != count) {
+                        scheduleSeal(day, segment);
+                        return;
+                    }
+                    unsealed.remove(day);
+                    segment.close();
+                    if (compressed != null) {
+                        days.put(day, compressed);
+                        Files.delete(segmentPath(dir, day));
+                    }
+                    sealedSegments.incrementAndGet();
+                }
+            } catch (IOException e) {
+                log.warn("Error sealing tick segment for {} on {}: {}", symbol, LocalDate.ofEpochDay(day), e.getMessage());
+            }
+        }
+
+        synchronized void close() {
+            if (active != null) {
+                closeQuietly(active);
+            }
+            unsealed.values().forEach(this::closeQuietly);
+            unsealed.clear();
+        }
+
+        private void closeQuietly(TickSegment segment) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.warn("Error closing tick segment for {}: {}", symbol, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Quote streams over plain HTTP (server-sent events or NDJSON) for consumers that cannot use STOMP.
+// Every applied quote is appended to a TickJournal; each consumer keeps a cursor into it and is
+// drained on a small sender pool, one batch per turn, so consumers share the senders. Writes block
+// on a slow socket, so a consumer whose backlog passes max-backlog is closed, and every stream ends
+// after timeout-ms; clients resume where they stopped by event id. Event ids are "<stream epoch>-<seq>"; a consumer resuming from an id the journal no
+// longer holds (or from before a restart) gets a snapshot of the current quotes instead.
+@Service
+public class TickStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(TickStreamService.class);
+
+    public enum Format {
+        SSE, NDJSON
+    }
+
+    @Autowired
+    private QuoteBoard quoteBoard;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.stream.journal-capacity:65536}")
+    private int journalCapacity;
+
+    @Value("${stock.stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${stock.stream.batch-size:256}")
+    private int batchSize;
+
+    @Value("${stock.stream.max-consumers:1000}")
+    private int maxConsumers;
+
+    // Bounds how long a stuck socket write can hold a sender thread; SSE clients reconnect on their own
+    @Value("${stock.stream.timeout-ms:300000}")
+    private long timeoutMs;
+
+    // Journal entries a consumer may fall behind before it is closed
+    @Value("${stock.stream.max-backlog:16384}")
+    private long maxBacklog;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Consumer> consumers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger senderIds = new AtomicInteger();
+    private TickJournal journal;
+    private ExecutorService senders;
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        journal = new TickJournal(journalCapacity);
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "tick-stream-" + senderIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("stock.stream.http.consumers", consumers, Set::size).register(meterRegistry);
+        FunctionCounter.builder("stock.stream.http.opened", opened, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("stock.stream.http.events", events, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("stock.stream.http.resyncs", resyncs, AtomicLong::get)
+                .description("Consumers too far behind the journal that were sent a snapshot instead")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.stream.http.overflows", overflows, AtomicLong::get)
+                .description("Consumers closed for falling more than max-backlog quotes behind")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        consumers.forEach(consumer -> consumer.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    public void append(Stock quote, long epochMillis) {
+        journal.append(quote, epochMillis);
+        for (Consumer consumer : consumers) {
+            if (consumer.accepts(quote.getSymbol())) {
+                schedule(consumer);
+            }
+        }
+    }
+
+    // symbols null = all; resumeFrom is a previous event id, or null to start at the next quote
+    public ResponseBodyEmitter open(Format format, Set<String> symbols, String resumeFrom, boolean snapshot) {
+        if (consumers.size() >= maxConsumers) {
+            throw new IllegalStateException("At most " + maxConsumers + " stream consumers");
+        }
+        ResponseBodyEmitter emitter = format == Format.SSE ? new SseEmitter(timeoutMs) : new ResponseBodyEmitter(timeoutMs);
+        Consumer consumer = new Consumer(format, symbols, emitter);
+        emitter.onCompletion(() -> close(consumer));
+        emitter.onTimeout(() -> close(consumer));
+        emitter.onError(error -> close(consumer));
+
+        // Sends before registration cannot race with a drain
+        try {
+            long resumeSeq = parseSeq(resumeFrom);
+            if (resumeSeq >= 0 && journal.readAfter(resumeSeq, 0, new ArrayList<>())) {
+                consumer.cursor = resumeSeq;
+            } else if (resumeSeq >= 0 || snapshot) {
+                if (resumeSeq >= 0) {
+                    resyncs.incrementAndGet();
+                }
+                sendSnapshot(consumer);
+            } else {
+                consumer.cursor = journal.lastSeq();
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        consumers.add(consumer);
+        opened.incrementAndGet();
+        schedule(consumer);
+        return emitter;
+    }
+
+    private long parseSeq(String id) {
+        if (id == null || id.isBlank()) {
+            return -1;
+        }
+        int dash = id.lastIndexOf('-');
+        if (dash < 0 || !id.substring(0, dash).equals(epoch)) {
+            // Issued before a restart: the numbering started over
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(id.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Heartbeats keep intermediaries from closing idle streams and surface dead connections
+    @Scheduled(fixedRateString = "${stock.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Consumer consumer : consumers) {
+            consumer.heartbeatDue = true;
+            schedule(consumer);
+        }
+    }
+
+    private void schedule(Consumer consumer) {
+        if (consumer.closed || !consumer.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(consumer));
+        } catch (RejectedExecutionException e) {
+            consumer.scheduled.set(false);
+        }
+    }
+
+    // Sends at most one batch, then goes back in the queue behind the other consumers
+    private void drain(Consumer consumer) {
+        List<TickJournal.Entry> batch = new ArrayList<>(batchSize);
+        try {
+            if (journal.lastSeq() - consumer.cursor > maxBacklog) {
+                overflows.incrementAndGet();
+                log.debug("Closing stream consumer {} quotes behind", journal.lastSeq() - consumer.cursor);
+                consumer.emitter.complete();
+                close(consumer);
+            } else if (!journal.readAfter(consumer.cursor, batchSize, batch)) {
+                // Fell further behind than the journal reaches
+                resyncs.incrementAndGet();
+                sendSnapshot(consumer);
+            } else {
+                for (TickJournal.Entry entry : batch) {
+                    if (consumer.closed) {
+                        break;
+                    }
+                    if (consumer.accepts(entry.quote().getSymbol())) {
+                        send(consumer, "quote", entry.seq(), entry.quote(), entry.epochMillis());
+                    }
+                    consumer.cursor = entry.seq();
+                }
+            }
+            if (consumer.heartbeatDue && !consumer.closed) {
+                consumer.heartbeatDue = false;
+                if (consumer.format == Format.SSE) {
+                    ((SseEmitter) consumer.emitter).send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    consumer.emitter.send(line(Map.of("type", "heartbeat", "id", id(consumer.cursor))),
+                            MediaType.APPLICATION_NDJSON);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Closing stream consumer: {}", e.getMessage());
+            consumer.emitter.completeWithError(e);
+            close(consumer);
+        } finally {
+            consumer.scheduled.set(false);
+        }
+        if (!consumer.closed && journal.lastSeq() > consumer.cursor) {
+            schedule(consumer);
+        }
+    }
+
+    // Current quotes of the consumer's symbols, all tagged with the seq they are current as of
+    private void sendSnapshot(Consumer consumer) throws IOException {
+        long seq = journal.lastSeq();
+        for (Stock stock : quoteBoard.snapshot().stocks()) {
+            if (consumer.accepts(stock.getSymbol())) {
+                send(consumer, "snapshot", seq, stock, 0);
+            }
+        }
+        consumer.cursor = seq;
+    }
+
+    private void send(Consumer consumer, String type, long seq, Stock quote, long epochMillis) throws IOException {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", id(seq));
+        event.put("type", type);
+        event.put("symbol", quote.getSymbol());
+        event.put("price", quote.getPrice());
+        event.put("change", quote.getChange());
+        event.put("changePercent", quote.getChangePercent());
+        event.put("lastUpdated", quote.getLastUpdated());
+        event.put("version", quote.getVersion());
+        if (consumer.format == Format.SSE) {
+            ((SseEmitter) consumer.emitter).send(SseEmitter.event().id(id(seq)).name(type)
+                    .data(objectMapper.writeValueAsString(event), MediaType.APPLICATION_JSON));
+        } else {
+            consumer.emitter.send(line(event), MediaType.APPLICATION_NDJSON);
+        }
+        events.incrementAndGet();
+    }
+
+    private String line(Map<String, Object> event) throws IOException {
+        return objectMapper.writeValueAsString(event) + "\n";
+    }
+
+    private String id(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    private void close(Consumer consumer) {
+        consumer.closed = true;
+        consumers.remove(consumer);
+    }
+
+    private static final class Consumer {
+        private final Format format;
+        private final Set<String> symbols;
+        private final ResponseBodyEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Only touched by the drain holding scheduled, or before registration
+        private long cursor;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+
+        Consumer(Format format, Set<String> symbols, ResponseBodyEmitter emitter) {
+            this.format = format;
+            this.symbols = symbols;
+            this.emitter = emitter;
+        }
+
+        boolean accepts(String symbol) {
+            return symbols == null || symbols.contains(symbol);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.stock_dashboard.service;
+
+import java.util.concurrent.TimeUnit;
+
+// Global token bucket. reserve() hands out future tokens (the balance may go negative) and tells the
+// caller how long to wait, so waiting callers are spaced out at the refill rate instead of polling.
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucketRateLimiter(double permitsPerMinute, int burst) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerMinute and burst must be positive");
+        }
+        this.capacity = burst;
+        this.tokensPerNano = permitsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Returns nanos to wait before the reserved permit may be used, or -1 if that would exceed maxWaitNanos
+    public synchronized long reserve(long maxWaitNanos) {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    public synchronized double availablePermits() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
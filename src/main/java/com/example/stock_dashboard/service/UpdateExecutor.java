@@ -0,0 +1,207 @@
+package com.example.stock_dashboard.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Runs quote updates on a sized pool with a bounded queue. Tasks submitted under the same key
+// (the symbol) run one after another, each starting only once the previous one's future has
+// completed, so two updates to a symbol never race. Different symbols run in parallel. A key has
+// at most one update waiting to start: a refresh submitted while one is waiting shares its result.
+@Component
+public class UpdateExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateExecutor.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.update.pool-size:0}")
+    private int poolSize;
+
+    @Value("${stock.update.queue-capacity:20000}")
+    private int queueCapacity;
+
+    @Value("${stock.update.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    // Per key: completes when the last queued task has finished, and the coalescable task that
+    // hasn't started yet, if any. Only changed inside compute on the map.
+    private static final class Lane {
+        private final CompletableFuture<Void> tail;
+        private CompletableFuture<?> waiting;
+
+        Lane(CompletableFuture<Void> tail, CompletableFuture<?> waiting) {
+            this.tail = tail;
+            this.waiting = waiting;
+        }
+    }
+
+    private ThreadPoolExecutor pool;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private Timer queueWait;
+    private Timer latency;
+
+    @PostConstruct
+    public void start() {
+        int threads = poolSize > 0 ? poolSize : Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadIds = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "stock-update-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+
+        queueWait = Timer.builder("stock.update.queue.wait")
+                .description("Time an update waited for a pool thread")
+                .register(meterRegistry);
+        latency = Timer.builder("stock.update.latency")
+                .description("Time from dispatching an update to its completion, provider call included")
+                .register(meterRegistry);
+        Gauge.builder("stock.update.queue.depth", pool, executor -> executor.getQueue().size())
+                .description("Updates waiting for a pool thread")
+                .register(meterRegistry);
+        Gauge.builder("stock.update.active", pool, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("stock.update.pending.keys", lanes, Map::size)
+                .description("Symbols with an update queued or running")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.update.tasks", completed, AtomicLong::get).tag("result", "completed")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.update.tasks", failed, AtomicLong::get).tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.update.tasks", coalesced, AtomicLong::get).tag("result", "coalesced")
+                .description("Updates that joined one already waiting for the same key")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.update.tasks", rejected, AtomicLong::get).tag("result", "rejected")
+                .description("Updates refused because the pool queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Update executor did not drain within {} ms", shutdownTimeoutMs);
+            pool.shutdownNow();
+        }
+    }
+
+    // Queues the task behind any pending task for the same key, or returns the future of the key's
+    // task that is still waiting to start. Tasks submitted under one key must produce the same type.
+    // The future fails with RejectedExecutionException when the pool queue is full.
+    public <T> CompletableFuture<T> submit(String key, Supplier<CompletableFuture<T>> task) {
+        return submit(key, task, true);
+    }
+
+    // Like submit, but the task always runs, e.g. a backfill that must not be merged with a refresh
+    public <T> CompletableFuture<T> enqueue(String key, Supplier<CompletableFuture<T>> task) {
+        return submit(key, task, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(String key, Supplier<CompletableFuture<T>> task, boolean coalesce) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<Void> tail = result.handle((value, error) -> null);
+
+        // [0] the future handed back, [1] the tail this task waits for
+        Object[] queued = new Object[2];
+        lanes.compute(key, (k, lane) -> {
+            if (coalesce && lane != null && lane.waiting != null) {
+                queued[0] = lane.waiting;
+                return lane;
+            }
+            queued[0] = result;
+            queued[1] = lane == null ? null : lane.tail;
+            // Only a task queued behind another one can be joined; one dispatched right away has started
+            return new Lane(tail, coalesce && lane != null ? result : null);
+        });
+        if (queued[0] != result) {
+            coalesced.incrementAndGet();
+            return (CompletableFuture<T>) queued[0];
+        }
+
+        CompletableFuture<Void> previous = (CompletableFuture<Void>) queued[1];
+        if (previous == null) {
+            dispatch(task, result);
+        } else {
+            previous.whenComplete((value, error) -> {
+                // From here on a new update for the key runs after this one
+                lanes.computeIfPresent(key, (k, lane) -> {
+                    if (lane.waiting == result) {
+                        lane.waiting = null;
+                    }
+                    return lane;
+                });
+                dispatch(task, result);
+            });
+        }
+        tail.whenComplete((value, error) -> lanes.computeIfPresent(key, (k, lane) -> lane.tail == tail ? null : lane));
+        return result;
+    }
+
+    // Cycle barrier: completes once every key's update has finished, successful or not
+    public <T> CompletableFuture<List<T>> submitAll(Collection<String> keys, Function<String, CompletableFuture<T>> task) {
+        List<CompletableFuture<T>> futures = keys.stream()
+                .map(key -> submit(key, () -> task.apply(key)).exceptionally(error -> null))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private <T> void dispatch(Supplier<CompletableFuture<T>> task, CompletableFuture<T> result) {
+        long queuedAt = System.nanoTime();
+        try {
+            pool.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                CompletableFuture<T> running;
+                try {
+                    running = task.get();
+                } catch (Throwable e) {
+                    running = CompletableFuture.failedFuture(e);
+                }
+                running.whenComplete((value, error) -> {
+                    latency.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                    if (error != null) {
+                        failed.incrementAndGet();
+                        result.completeExceptionally(error);
+                    } else {
+                        completed.incrementAndGet();
+                        result.complete(value);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.PriceSeries;
+import com.example.stock_dashboard.model.Stock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Warm start: the quote board and the ring-buffer history are saved to a WarmStartSnapshot on
+// shutdown (and every save interval, in case of a crash) and restored on boot before the first
+// update, so quotes, analytics and charts are served right away. With a live provider the ingest
+// leader then backfills the downtime from intraday bars in the background, all symbols at once
+// within the provider's rate limit; scheduled refreshes of a symbol wait until its backfill is in.
+@Service
+public class WarmStartService {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmStartService.class);
+
+    // Bars in a compact intraday response; longer gaps need the full series
+    private static final int COMPACT_BARS = 100;
+
+    @Autowired
+    private QuoteBoard quoteBoard;
+
+    @Autowired
+    private SymbolRegistry symbolRegistry;
+
+    @Autowired
+    private PriceSeriesStore seriesStore;
+
+    @Autowired
+    private AnalyticsEngine analyticsEngine;
+
+    @Autowired
+    private CandleService candleService;
+
+    @Autowired
+    private AlphaVantageService alphaVantageService;
+
+    @Autowired
+    private UpdateExecutor updateExecutor;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.warmstart.enabled:true}")
+    private boolean enabled;
+
+    // Next to the tick store by default, so every node of a local cluster keeps its own
+    @Value("${stock.warmstart.file:${stock.tickstore.dir:./data/ticks}/warm-start.snap}")
+    private String file;
+
+    // Older snapshots are ignored
+    @Value("${stock.warmstart.max-age:7d}")
+    private Duration maxAge;
+
+    @Value("${stock.warmstart.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    // Alpha Vantage intraday interval: 1min, 5min, 15min, 30min or 60min
+    @Value("${stock.warmstart.backfill.interval:1min}")
+    private String backfillInterval;
+
+    @Value("${stock.warmstart.backfill.max-gap:24h}")
+    private Duration maxGap;
+
+    @Value("${stock.warmstart.backfill.max-wait-ms:300000}")
+    private long backfillMaxWaitMs;
+
+    private long intervalMillis;
+    private final Set<String> backfilling = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong restoredSymbols = new AtomicLong();
+    private final AtomicLong restoredPoints = new AtomicLong();
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong saveFailures = new AtomicLong();
+    private final AtomicLong backfilledSymbols = new AtomicLong();
+    private final AtomicLong backfilledBars = new AtomicLong();
+    private final AtomicLong backfillFailures = new AtomicLong();
+    private volatile long restoreMillis;
+
+    @PostConstruct
+    public void initialize() {
+        if (!backfillInterval.matches("(1|5|15|30|60)min")) {
+            throw new IllegalStateException("stock.warmstart.backfill.interval must be 1min, 5min, 15min, 30min or 60min");
+        }
+        intervalMillis = Duration.ofMinutes(Long.parseLong(backfillInterval.replace("min", ""))).toMillis();
+
+        Gauge.builder("stock.warmstart.restored.symbols", restoredSymbols, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("stock.warmstart.restored.points", restoredPoints, AtomicLong::get).register(meterRegistry);
+        TimeGauge.builder("stock.warmstart.restore.duration", this, TimeUnit.MILLISECONDS, service -> service.restoreMillis)
+                .register(meterRegistry);
+        Gauge.builder("stock.warmstart.snapshot.size", this, WarmStartService::snapshotSize).baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.warmstart.saves", saves, AtomicLong::get).tag("result", "saved")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.warmstart.saves", saveFailures, AtomicLong::get).tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("stock.warmstart.backfilling", backfilling, Set::size)
+                .description("Symbols whose downtime backfill is still running")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.warmstart.backfill.symbols", backfilledSymbols, AtomicLong::get)
+                .tag("result", "backfilled")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.warmstart.backfill.symbols", backfillFailures, AtomicLong::get)
+                .tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("stock.warmstart.backfill.bars", backfilledBars, AtomicLong::get).register(meterRegistry);
+    }
+
+    // Loads the snapshot into the board, ring buffers, analytics and candles; returns the restored symbols
+    public Set<String> restore() {
+        Set<String> restored = new HashSet<>();
+        if (!enabled) {
+            return restored;
+        }
+        long start = System.nanoTime();
+        Path path = Path.of(file);
+        WarmStartSnapshot.Contents contents;
+        try {
+            contents = WarmStartSnapshot.read(path);
+        } catch (NoSuchFileException e) {
+            log.info("No warm-start snapshot at {}, starting cold", path.toAbsolutePath());
+            return restored;
+        } catch (IOException e) {
+            log.warn("Ignoring warm-start snapshot: {}", e.getMessage());
+            return restored;
+        }
+        if (System.currentTimeMillis() - contents.savedAt() > maxAge.toMillis()) {
+            log.info("Warm-start snapshot from {} is older than {}, starting cold",
+                    seriesStore.toLocalDateTime(contents.savedAt()), maxAge);
+            return restored;
+        }
+
+        for (WarmStartSnapshot.Entry entry : contents.entries()) {
+            String symbol = entry.symbol();
+            // Symbols added at runtime before the restart are tracked again; configured ones already are
+            if (!symbolRegistry.trackFirstQuote(symbol)) {
+                continue;
+            }
+            long[] timestamps = entry.timestamps();
+            double[] prices = entry.prices();
+            // Same path as a live tick minus persistence: the tick store and database already hold these
+            for (int i = 0; i < timestamps.length; i++) {
+                seriesStore.append(symbol, timestamps[i], prices[i]);
+                analyticsEngine.onTick(symbol, timestamps[i], prices[i]);
+                candleService.onTick(symbol, timestamps[i], prices[i]);
+            }
+            quoteBoard.put(new Stock(symbol, entry.price(), entry.change(), entry.changePercent(),
+                    entry.lastUpdated() == 0 ? null : seriesStore.toLocalDateTime(entry.lastUpdated()), entry.version()));
+            restored.add(symbol);
+            restoredPoints.addAndGet(timestamps.length);
+        }
+        restoredSymbols.set(restored.size());
+        restoreMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        log.info("Warm start: restored {} symbols and {} points from {} (saved {}) in {} ms", restored.size(),
+                restoredPoints.get(), path.toAbsolutePath(), seriesStore.toLocalDateTime(contents.savedAt()), restoreMillis);
+        return restored;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        save();
+    }
+
+    @Scheduled(fixedDelayString = "${stock.warmstart.save-interval-ms:300000}",
+            initialDelayString = "${stock.warmstart.save-interval-ms:300000}")
+    public synchronized void save() {
+        if (!enabled) {
+            return;
+        }
+        List<WarmStartSnapshot.Entry> entries = new ArrayList<>();
+        for (Stock stock : quoteBoard.snapshot().stocks()) {
+            PriceSeries series = seriesStore.get(stock.getSymbol());
+            int capacity = series == null ? 0 : series.size();
+            long[] timestamps = new long[capacity];
+            double[] prices = new double[capacity];
+            int n = series == null ? 0 : series.copyLatest(capacity, timestamps, prices);
+            // copyLatest is newest first; the snapshot stores oldest first
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                long ts = timestamps[i];
+                timestamps[i] = timestamps[j];
+                timestamps[j] = ts;
+                double price = prices[i];
+                prices[i] = prices[j];
+                prices[j] = price;
+            }
+            entries.add(new WarmStartSnapshot.Entry(stock.getSymbol(), stock.getPrice(), stock.getChange(),
+                    stock.getChangePercent(),
+                    stock.getLastUpdated() == null ? 0 : seriesStore.toEpochMillis(stock.getLastUpdated()),
+                    stock.getVersion(), timestamps, prices));
+        }
+        try {
+            long bytes = WarmStartSnapshot.write(Path.of(file), System.currentTimeMillis(), entries);
+            saves.incrementAndGet();
+            log.debug("Saved warm-start snapshot of {} symbols ({} bytes)", entries.size(), bytes);
+        } catch (IOException | RuntimeException e) {
+            saveFailures.incrementAndGet();
+            log.warn("Could not save warm-start snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Whether backfill() will fetch anything on this node
+    public boolean isBackfillAvailable() {
+        return enabled && backfillEnabled && alphaVantageService.isApiKeyConfigured() && leaderElection.isLeader();
+    }
+
+    public boolean isBackfilling(String symbol) {
+        return backfilling.contains(symbol);
+    }
+
+    // Fetches the bars since each symbol's newest point (at most max-gap back) and hands them to the
+    // sink oldest first, on the symbol's update queue; bars older than a tick recorded meanwhile are skipped
+    public void backfill(Collection<String> symbols, TickListener sink) {
+        if (!isBackfillAvailable()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String symbol : symbols) {
+            PriceSeries series = seriesStore.get(symbol);
+            long since = Math.max(now - maxGap.toMillis(), series == null ? Long.MIN_VALUE : series.latestTimestamp());
+            if (now - since < 2 * intervalMillis) {
+                continue;
+            }
+            backfilling.add(symbol);
+            NavigableMap<Long, Double> bars = new ConcurrentSkipListMap<>();
+            boolean full = now - since > COMPACT_BARS * intervalMillis;
+            alphaVantageService.fetchIntraday(symbol, backfillInterval, full, backfillMaxWaitMs,
+                            (ts, open, high, low, close, volume) -> {
+                                if (ts > since && ts <= now) {
+                                    bars.put(ts, close);
+                                }
+                            })
+                    .thenCompose(count -> count == null || count < 0
+                            ? CompletableFuture.<Integer>completedFuture(null)
+                            : updateExecutor.enqueue(symbol, () -> CompletableFuture.completedFuture(apply(symbol, bars, sink))))
+                    .whenComplete((applied, error) -> {
+                        backfilling.remove(symbol);
+                        if (error != null || applied == null) {
+                            backfillFailures.incrementAndGet();
+                            log.warn("Backfill of {} failed{}", symbol, error == null ? "" : ": " + error.getMessage());
+                        } else {
+                            backfilledSymbols.incrementAndGet();
+                            backfilledBars.addAndGet(applied);
+                            log.info("Backfilled {} with {} {} bars", symbol, applied, backfillInterval);
+                        }
+                    });
+        }
+    }
+
+    private int apply(String symbol, NavigableMap<Long, Double> bars, TickListener sink) {
+        PriceSeries series = seriesStore.get(symbol);
+        long latest = series == null ? Long.MIN_VALUE : series.latestTimestamp();
+        int applied = 0;
+        for (Map.Entry<Long, Double> bar : bars.tailMap(latest, false).entrySet()) {
+            sink.onTick(symbol, bar.getKey(), bar.getValue());
+            applied++;
+        }
+        return applied;
+    }
+
+    private double snapshotSize() {
+        try {
+            return Files.size(Path.of(file));
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
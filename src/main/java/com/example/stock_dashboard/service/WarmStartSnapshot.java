@@ -0,0 +1,132 @@
+package com.example.stock_dashboard.service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Binary warm-start file (big-endian): the quote board plus each symbol's ring buffer, read back
+// through a memory mapping. Layout:
+//   magic 'W''S' (short), format version (byte), reserved (byte), saved at epoch millis (long), count (int)
+//   per symbol: symbol length (short), UTF-8 symbol, price, change, changePercent (double),
+//     lastUpdated epoch millis, version (long), point count (int), timestamps (long[]), prices (double[])
+//   CRC32 of everything before it (int)
+// Points are oldest first. Written to a temporary file and moved into place, so a crash while
+// saving leaves the previous snapshot intact.
+public final class WarmStartSnapshot {
+
+    public static final short MAGIC = 0x5753;
+    public static final byte VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+
+    public record Entry(String symbol, double price, double change, double changePercent, long lastUpdated,
+                        long version, long[] timestamps, double[] prices) {
+    }
+
+    public record Contents(long savedAt, List<Entry> entries) {
+    }
+
+    private WarmStartSnapshot() {
+    }
+
+    // Returns the number of bytes written
+    public static long write(Path file, long savedAt, List<Entry> entries) throws IOException {
+        int size = HEADER_BYTES + 4;
+        List<byte[]> symbols = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            byte[] symbol = entry.symbol().getBytes(StandardCharsets.UTF_8);
+            symbols.add(symbol);
+            size += 2 + symbol.length + 3 * 8 + 2 * 8 + 4 + entry.timestamps().length * 16;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putShort(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) 0);
+        buffer.putLong(savedAt);
+        buffer.putInt(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            byte[] symbol = symbols.get(i);
+            buffer.putShort((short) symbol.length);
+            buffer.put(symbol);
+            buffer.putDouble(entry.price());
+            buffer.putDouble(entry.change());
+            buffer.putDouble(entry.changePercent());
+            buffer.putLong(entry.lastUpdated());
+            buffer.putLong(entry.version());
+            buffer.putInt(entry.timestamps().length);
+            buffer.asLongBuffer().put(entry.timestamps());
+            buffer.position(buffer.position() + entry.timestamps().length * 8);
+            buffer.asDoubleBuffer().put(entry.prices());
+            buffer.position(buffer.position() + entry.prices().length * 8);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    // Throws IOException when the file is not a complete snapshot of this format version
+    public static Contents read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES + 4 || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a warm-start snapshot: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            int bodyLength = (int) length - 4;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+                throw new IOException("Warm-start snapshot checksum mismatch: " + file);
+            }
+            if (buffer.getShort() != MAGIC || buffer.get() != VERSION) {
+                throw new IOException("Not a warm-start snapshot: " + file);
+            }
+            buffer.get();
+            long savedAt = buffer.getLong();
+            int count = buffer.getInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] symbol = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(symbol);
+                double price = buffer.getDouble();
+                double change = buffer.getDouble();
+                double changePercent = buffer.getDouble();
+                long lastUpdated = buffer.getLong();
+                long version = buffer.getLong();
+                int points = buffer.getInt();
+                long[] timestamps = new long[points];
+                double[] prices = new double[points];
+                buffer.asLongBuffer().get(timestamps);
+                buffer.position(buffer.position() + points * 8);
+                buffer.asDoubleBuffer().get(prices);
+                buffer.position(buffer.position() + points * 8);
+                entries.add(new Entry(new String(symbol, StandardCharsets.UTF_8), price, change, changePercent,
+                        lastUpdated, version, timestamps, prices));
+            }
+            return new Contents(savedAt, entries);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated warm-start snapshot: " + file, e);
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.example.stock_dashboard;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import java.nio.file.Path;
+
+@SpringBootTest(properties = "stock.warmstart.enabled=false")
+@DirtiesContext
 class StockDashboardApplicationTests {
 
+	@TempDir
+	static Path ticks;
+
+	@DynamicPropertySource
+	static void tickStore(DynamicPropertyRegistry registry) {
+		registry.add("stock.tickstore.dir", ticks::toString);
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,88 @@
+package com.example.stock_dashboard.config;
+
+import com.example.stock_dashboard.service.BroadcastMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundFlowControlTests {
+
+	private static final int MAX_PENDING = 16;
+	private static final int BUFFER_LIMIT = 32 * 1024;
+	private static final String FRAME = "MESSAGE\ndestination:/topic/stocks/AAPL\n\n" + "x".repeat(1000) + "\0";
+
+	@Test
+	void slowSessionLosesFramesInsteadOfBeingClosed() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BroadcastMetrics metrics = new BroadcastMetrics();
+		ReflectionTestUtils.setField(metrics, "meterRegistry", registry);
+		metrics.registerMeters();
+		OutboundFlowControlInterceptor interceptor = new OutboundFlowControlInterceptor();
+		ReflectionTestUtils.setField(interceptor, "metrics", metrics);
+		ReflectionTestUtils.setField(interceptor, "maxPendingFrames", MAX_PENDING);
+		OutboundDeliveryDecoratorFactory factory = new OutboundDeliveryDecoratorFactory();
+		ReflectionTestUtils.setField(factory, "metrics", metrics);
+
+		// A client that takes 5 ms per frame, behind the same send buffer the STOMP handler puts in front of it
+		WebSocketSession socket = mock(WebSocketSession.class);
+		when(socket.getId()).thenReturn("slow");
+		when(socket.isOpen()).thenReturn(true);
+		doAnswer(invocation -> {
+			Thread.sleep(5);
+			return null;
+		}).when(socket).sendMessage(any());
+		ConcurrentWebSocketSessionDecorator session =
+				new ConcurrentWebSocketSessionDecorator(factory.decorate(socket), 60_000, BUFFER_LIMIT);
+
+		ExecutorService outbound = Executors.newFixedThreadPool(4);
+		AtomicInteger maxBuffered = new AtomicInteger();
+		for (int i = 0; i < 500; i++) {
+			Message<?> sent = interceptor.preSend(message("slow"), null);
+			if (sent == null) {
+				continue;
+			}
+			outbound.execute(() -> {
+				Exception failure = null;
+				try {
+					session.sendMessage(new TextMessage(FRAME));
+				} catch (Exception e) {
+					failure = e;
+				}
+				maxBuffered.accumulateAndGet(session.getBufferSize(), Math::max);
+				interceptor.afterMessageHandled(sent, null, null, failure);
+			});
+		}
+		outbound.shutdown();
+		assertTrue(outbound.awaitTermination(30, TimeUnit.SECONDS));
+
+		verify(socket, never()).close(any(CloseStatus.class));
+		long delivered = registry.get("stock.broadcast.write").timer().count();
+		long dropped = (long) registry.get("stock.broadcast.session.dropped").tag("session", "slow").counter().count();
+		assertEquals(500, delivered + dropped);
+		assertTrue(dropped > 0, "a slow session should have frames dropped");
+		assertTrue(maxBuffered.get() <= MAX_PENDING * (FRAME.length() + 1), "buffered " + maxBuffered.get());
+	}
+
+	private static Message<byte[]> message(String sessionId) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		accessor.setSessionId(sessionId);
+		return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+	}
+}
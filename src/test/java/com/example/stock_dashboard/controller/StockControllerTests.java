@@ -0,0 +1,149 @@
+package com.example.stock_dashboard.controller;
+
+import com.example.stock_dashboard.model.Stock;
+import com.example.stock_dashboard.service.QuoteCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"stock.warmstart.enabled=false", "stock.api.max-bulk-symbols=4"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext
+class StockControllerTests {
+
+	// Empty tick store per run: history assertions must not see ticks left by an earlier build
+	@TempDir
+	static Path ticks;
+
+	@DynamicPropertySource
+	static void tickStore(DynamicPropertyRegistry registry) {
+		registry.add("stock.tickstore.dir", ticks::toString);
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private QuoteCodec codec;
+
+	@Test
+	void bulkQuotesProjectFieldsAndRevalidateWithEtag() throws Exception {
+		MvcResult first = mockMvc.perform(get("/api/stocks").param("symbols", "aapl,MSFT").param("fields", "price"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].symbol").value("AAPL"))
+				.andExpect(jsonPath("$[0].price").isNumber())
+				.andExpect(jsonPath("$[0].change").doesNotExist())
+				.andReturn();
+		String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+
+		mockMvc.perform(get("/api/stocks").param("symbols", "AAPL,MSFT").param("fields", "price")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(post("/api/stocks/MSFT/update")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/stocks").param("symbols", "AAPL,MSFT").param("fields", "price")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void quotesAreEncodedInBinaryWhenRequested() throws Exception {
+		byte[] body = mockMvc.perform(get("/api/stocks").param("symbols", "AAPL,GOOGL")
+						.accept(QuoteCodec.MEDIA_TYPE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(QuoteCodec.MEDIA_TYPE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		List<Stock> stocks = codec.decodeQuotes(body);
+		assertEquals(List.of("AAPL", "GOOGL"), stocks.stream().map(Stock::getSymbol).toList());
+	}
+
+	@Test
+	void onlyQuotesAreEncodedInBinary() throws Exception {
+		mockMvc.perform(get("/api/stocks").param("symbols", "AAPL").param("fields", "price")
+						.accept(QuoteCodec.MEDIA_TYPE))
+				.andExpect(status().isNotAcceptable());
+		mockMvc.perform(get("/api/stocks/history").param("symbols", "AAPL").accept(QuoteCodec.MEDIA_TYPE))
+				.andExpect(status().isNotAcceptable());
+		mockMvc.perform(get("/api/stocks/AAPL/history").accept(QuoteCodec.MEDIA_TYPE))
+				.andExpect(status().isNotAcceptable());
+
+		byte[] body = mockMvc.perform(get("/api/stocks/AAPL").accept(QuoteCodec.MEDIA_TYPE))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		assertEquals("AAPL", codec.decodeQuotes(body).get(0).getSymbol());
+	}
+
+	@Test
+	void tickLifecycleTimersAreScrapedByPrometheus() throws Exception {
+		mockMvc.perform(post("/api/stocks/AAPL/update")).andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(scrape.contains("stock_provider_fetch_seconds_count{"), "provider fetch timer");
+		assertTrue(scrape.contains("stock_analytics_compute_seconds_bucket{"), "analytics histogram");
+		assertTrue(scrape.contains("stock_history_queue_depth{"), "writer queue gauge");
+		assertTrue(scrape.contains("stock_update_tasks_total{"), "update executor counters");
+		assertTrue(scrape.contains("stock_update_latency_seconds_count{"), "update executor latency");
+		assertTrue(scrape.contains("stock_broadcast_encode_seconds_count{"), "broadcast encode timer");
+		assertTrue(scrape.contains("stock_retention_rows_total{"), "retention counters");
+		assertTrue(scrape.contains("stock_tickstore_appended_total{"), "tick store counters");
+		assertTrue(scrape.contains("stock_symbols_tracked{"), "symbol registry gauge");
+	}
+
+	@Test
+	void bulkAnalyticsAndHistoryAndFieldValidation() throws Exception {
+		mockMvc.perform(get("/api/stocks/analytics").param("symbols", "AAPL,TSLA"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.AAPL.symbol").value("AAPL"))
+				.andExpect(jsonPath("$.TSLA.dataPoints").isNumber());
+		mockMvc.perform(get("/api/stocks/history").param("symbols", "AAPL,GOOGL").param("limit", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.GOOGL").isArray());
+		mockMvc.perform(get("/api/stocks").param("fields", "price,bogus"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void bulkRequestsWithoutSymbolsPageThroughTheTrackedSet() throws Exception {
+		// Six tracked symbols, at most four per request
+		mockMvc.perform(get("/api/stocks/analytics"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("X-Total-Count", "6"))
+				.andExpect(jsonPath("$.length()").value(4))
+				.andExpect(jsonPath("$.AAPL.symbol").value("AAPL"));
+		mockMvc.perform(get("/api/stocks").param("fields", "price").param("page", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[1].symbol").value("META"));
+		mockMvc.perform(get("/api/stocks/history").param("size", "5"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/stocks/analytics").param("symbols", "AAPL,GOOGL,MSFT,TSLA,AMZN"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/api/stocks/aapl/analytics"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.symbol").value("AAPL"));
+	}
+}
@@ -0,0 +1,25 @@
+package com.example.stock_dashboard.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSeriesTests {
+
+	@Test
+	void keepsNewestPointsOnceFull() {
+		PriceSeries series = new PriceSeries("AAPL", 3);
+		for (int i = 1; i <= 5; i++) {
+			series.append(i * 1000L, i);
+		}
+
+		long[] timestamps = new long[10];
+		double[] prices = new double[10];
+		int n = series.copyLatest(10, timestamps, prices);
+
+		assertEquals(3, n);
+		assertArrayEquals(new double[]{5, 4, 3}, java.util.Arrays.copyOf(prices, n));
+		assertEquals(3000L, series.oldestTimestamp());
+		assertTrue(series.hasEvicted());
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.AlertRule;
+import com.example.stock_dashboard.model.AlertRule.Direction;
+import com.example.stock_dashboard.model.AlertRule.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertEngineTests {
+
+	private final AlertEngine engine = new AlertEngine();
+
+	AlertEngineTests() {
+		AnalyticsEngine analyticsEngine = new AnalyticsEngine();
+		ReflectionTestUtils.setField(analyticsEngine, "windows", List.of(Duration.ofMinutes(1)));
+		ReflectionTestUtils.setField(engine, "analyticsEngine", analyticsEngine);
+		ReflectionTestUtils.setField(engine, "symbolRegistry", new SymbolRegistry());
+		ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(engine, "maxRules", 100);
+		ReflectionTestUtils.setField(engine, "maxRulesPerUser", 10);
+		engine.initialize();
+	}
+
+	@Test
+	void symbolsAreValidatedLikeEverywhereElse() {
+		assertEquals("BRK.B", add("alice", " brk.b ").symbol());
+		assertThrows(IllegalArgumentException.class, () -> add("alice", "NOT A SYMBOL"));
+	}
+
+	@Test
+	void concurrentAddsStopAtThePerUserLimit() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> added = new ArrayList<>();
+		try {
+			for (int t = 0; t < threads; t++) {
+				added.add(executor.submit(() -> {
+					start.await();
+					int count = 0;
+					for (int i = 0; i < 5; i++) {
+						try {
+							add("alice", "AAPL");
+							count++;
+						} catch (IllegalArgumentException e) {
+							// limit reached
+						}
+					}
+					return count;
+				}));
+			}
+			start.countDown();
+			int total = 0;
+			for (Future<Integer> future : added) {
+				total += future.get();
+			}
+			assertEquals(10, total);
+			assertEquals(10, engine.getRules("alice").size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private AlertRule add(String user, String symbol) {
+		return engine.addRule(user, symbol, Type.PRICE_CROSS, Direction.UP, 150, null, false);
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Alert;
+import com.example.stock_dashboard.model.AlertRule;
+import com.example.stock_dashboard.model.AlertRule.Direction;
+import com.example.stock_dashboard.model.AlertRule.Type;
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertIndexTests {
+
+	private static final long FIVE_MINUTES = 300_000;
+
+	private final AlertIndex index = new AlertIndex("AAPL");
+	private long nextId;
+
+	@Test
+	void priceCrossFiresOnlyTheLevelsBetweenTwoTicks() {
+		AlertRule above155 = rule(Type.PRICE_CROSS, Direction.UP, 155, false);
+		AlertRule above160 = rule(Type.PRICE_CROSS, Direction.UP, 160, false);
+		AlertRule below145 = rule(Type.PRICE_CROSS, Direction.DOWN, 145, false);
+		AlertRule any150 = rule(Type.PRICE_CROSS, Direction.ANY, 150, true);
+
+		assertTrue(tick(149, 0).isEmpty(), "nothing to cross from on the first tick");
+		assertEquals(List.of(above155.id(), any150.id()), ids(tick(157, 0)));
+		assertTrue(tick(158, 0).isEmpty());
+
+		// One-shot rules are gone after firing; repeating ones fire again on the next crossing
+		assertEquals(List.of(below145.id(), any150.id()), ids(tick(140, 0)));
+		assertEquals(List.of(any150.id()), ids(tick(156, 0)));
+		assertEquals(2, index.size());
+		assertTrue(index.remove(above160));
+		assertTrue(tick(165, 0).isEmpty());
+	}
+
+	@Test
+	void percentMoveAndMovingAverageCross() {
+		AlertRule rise = rule(Type.PERCENT_MOVE, Direction.UP, 2, false);
+		AlertRule fall = rule(Type.PERCENT_MOVE, Direction.DOWN, 2, false);
+		AlertRule bullish = rule(Type.MA_CROSS, Direction.UP, 0, false);
+
+		tick(100, -0.5);
+		List<Alert> risen = tick(102.5, 0.3);
+		assertEquals(List.of(rise.id(), bullish.id()), ids(risen));
+		assertEquals(2.5, risen.get(0).value(), 1e-9);
+		assertTrue(tick(102.6, 0.4).isEmpty());
+
+		List<Alert> fell = tick(97, -0.2);
+		assertEquals(List.of(fall.id()), ids(fell));
+		assertEquals(Direction.DOWN, fell.get(0).direction());
+		assertEquals(0, index.size());
+	}
+
+	private AlertRule rule(Type type, Direction direction, double level, boolean repeat) {
+		AlertRule rule = new AlertRule(++nextId, "alice", "AAPL", type, direction, level,
+				type == Type.PERCENT_MOVE ? FIVE_MINUTES : 0, repeat);
+		index.add(rule);
+		return rule;
+	}
+
+	// Window oldest price fixed at 100; spread is emaFast - emaSlow
+	private List<Alert> tick(double price, double spread) {
+		AnalyticsSnapshot.WindowStats window = new AnalyticsSnapshot.WindowStats("5m", FIVE_MINUTES, 10, 100, price,
+				price, price, 0);
+		return index.onTick(new AnalyticsSnapshot("AAPL", 10, System.currentTimeMillis(), price, 100, price, price,
+				price, 0, price + spread, price, price, List.of(window)));
+	}
+
+	private static List<Long> ids(List<Alert> alerts) {
+		return alerts.stream().map(Alert::ruleId).sorted().toList();
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.QuoteRecord;
+import com.example.stock_dashboard.service.AlphaVantageResponseParser.Outcome;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaVantageResponseParserTests {
+
+	private final AlphaVantageResponseParser parser = new AlphaVantageResponseParser(new JsonFactory());
+
+	@Test
+	void parsesGlobalQuote() throws Exception {
+		QuoteRecord quote = new QuoteRecord();
+		Outcome outcome = parser.parseGlobalQuote(json("""
+				{"Global Quote": {"01. symbol": "IBM", "02. open": "133.0000", "05. price": "134.5100",
+				 "06. volume": "3200100", "07. latest trading day": "2024-01-05", "09. change": "-0.5200",
+				 "10. change percent": "-0.3851%"}}"""), quote);
+
+		assertEquals(Outcome.DATA, outcome);
+		assertEquals("IBM", quote.getSymbol());
+		assertEquals(134.51, quote.getPrice());
+		assertEquals(-0.52, quote.getChange());
+		assertEquals(-0.3851, quote.getChangePercent());
+		assertEquals(3200100L, quote.getVolume());
+		assertEquals("2024-01-05", quote.getLatestTradingDay());
+	}
+
+	@Test
+	void reportsRateLimitNote() throws Exception {
+		QuoteRecord quote = new QuoteRecord();
+		Outcome outcome = parser.parseGlobalQuote(json("{\"Note\": \"Thank you for using Alpha Vantage!\"}"), quote);
+
+		assertEquals(Outcome.NOTE, outcome);
+		assertEquals("Thank you for using Alpha Vantage!", quote.getMessage());
+	}
+
+	@Test
+	void streamsBulkQuotesIntoReusedRecord() throws Exception {
+		List<String> seen = new ArrayList<>();
+		Outcome outcome = parser.parseBulkQuotes(json("""
+				{"endpoint": "Realtime Bulk Quotes", "data": [
+				  {"symbol": "MSFT", "close": "410.10", "change": "1.5", "change_percent": "0.37"},
+				  {"symbol": "AAPL", "close": 190.25, "change": -0.75, "change_percent": -0.39}]}"""),
+				new QuoteRecord(), q -> seen.add(q.getSymbol() + "=" + q.getPrice() + "/" + q.getChangePercent()));
+
+		assertEquals(Outcome.DATA, outcome);
+		assertEquals(List.of("MSFT=410.1/0.37", "AAPL=190.25/-0.39"), seen);
+	}
+
+	@Test
+	void streamsIntradayBarsInExchangeTimeZone() throws Exception {
+		List<double[]> bars = new ArrayList<>();
+		Outcome outcome = parser.parseIntraday(json("""
+				{"Meta Data": {"1. Information": "Intraday (5min)", "6. Time Zone": "US/Eastern"},
+				 "Time Series (5min)": {
+				   "2024-01-05 16:00:00": {"1. open": "134.1", "2. high": "134.6", "3. low": "134.0", "4. close": "134.5", "5. volume": "1200"},
+				   "2024-01-05 15:55:00": {"1. open": "134.0", "2. high": "134.2", "3. low": "133.9", "4. close": "134.1", "5. volume": "900"}}}"""),
+				new QuoteRecord(), (ts, open, high, low, close, volume) -> bars.add(new double[]{ts, close, volume}));
+
+		assertEquals(Outcome.DATA, outcome);
+		assertEquals(2, bars.size());
+		long expected = ZonedDateTime.of(2024, 1, 5, 16, 0, 0, 0, ZoneId.of("US/Eastern")).toInstant().toEpochMilli();
+		assertEquals(expected, (long) bars.get(0)[0]);
+		assertEquals(134.5, bars.get(0)[1]);
+		assertEquals(900, bars.get(1)[2]);
+	}
+
+	@Test
+	void parsesDecimalsLikeDoubleParseDouble() {
+		for (String value : new String[]{"0", "134.5100", "-0.5200", "0.000123", "98765.4321", "1e3", "12345678901234567.5"}) {
+			char[] chars = value.toCharArray();
+			assertEquals(Double.parseDouble(value), AlphaVantageResponseParser.parseDecimal(chars, 0, chars.length), value);
+		}
+		char[] percent = "2.5%".toCharArray();
+		assertEquals(2.5, AlphaVantageResponseParser.parseDecimal(percent, 0, percent.length));
+	}
+
+	private static InputStream json(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
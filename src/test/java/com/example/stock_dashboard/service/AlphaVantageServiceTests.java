@@ -0,0 +1,127 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.config.AlphaVantageConfig;
+import com.example.stock_dashboard.model.Stock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaVantageServiceTests {
+
+	private HttpServer server;
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger maxActive = new AtomicInteger();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@BeforeEach
+	void startStub() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/query", exchange -> {
+			hits.incrementAndGet();
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(200);
+				String symbol = exchange.getRequestURI().getQuery().replaceAll(".*symbol=([^&]+).*", "$1");
+				byte[] body = ("{\"Global Quote\": {\"01. symbol\": \"" + symbol + "\", \"05. price\": \"123.4500\", "
+						+ "\"09. change\": \"1.2000\", \"10. change percent\": \"0.9815%\"}}").getBytes(StandardCharsets.UTF_8);
+				if (symbol.equals("NOTE")) {
+					body = "{\"Information\": \"Please consider spreading out your free API requests\"}".getBytes(StandardCharsets.UTF_8);
+				}
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(symbol.equals("LIMIT") ? 429 : 200, body.length);
+				exchange.getResponseBody().write(body);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				active.decrementAndGet();
+				exchange.close();
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopStub() {
+		server.stop(0);
+	}
+
+	@Test
+	void fetchesSymbolsInParallelWithinConcurrencyLimit() {
+		AlphaVantageService service = service(600, 100, 4);
+		List<String> symbols = List.of("A", "B", "C", "D", "E", "F", "G", "H");
+
+		long start = System.nanoTime();
+		Map<String, Stock> quotes = service.fetchAll(symbols, 1000).join();
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals(symbols.size(), quotes.size());
+		assertEquals(123.45, quotes.get("C").getPrice());
+		assertEquals(0.9815, quotes.get("C").getChangePercent());
+		assertTrue(maxActive.get() <= 4, "max concurrent requests " + maxActive.get());
+		// Two waves of four 200ms requests, well under the 1.6s a sequential fetch would take
+		assertTrue(elapsedMillis < 1200, "took " + elapsedMillis + "ms");
+	}
+
+	@Test
+	void sharesOneQuotaAcrossSymbols() {
+		AlphaVantageService service = service(1, 2, 4);
+
+		Map<String, Stock> quotes = service.fetchAll(List.of("A", "B", "C", "D"), 0).join();
+
+		assertEquals(2, quotes.size());
+		assertEquals(2, hits.get());
+		assertNull(service.fetchRealTimeStockData("E"));
+		// Turned away by the local quota, not by the provider
+		assertEquals(0.0, calls("rate-limited"));
+	}
+
+	@Test
+	void countsProviderRateLimitResponses() {
+		AlphaVantageService service = service(600, 100, 4);
+
+		Map<String, Stock> quotes = service.fetchAll(List.of("A", "NOTE", "LIMIT"), 1000).join();
+
+		assertEquals(List.of("A"), List.copyOf(quotes.keySet()));
+		assertEquals(3.0, calls("sent"));
+		assertEquals(2.0, calls("rate-limited"));
+		assertEquals(0.0, calls("failed"));
+	}
+
+	private double calls(String result) {
+		return registry.get("alphavantage.calls").tag("result", result).functionCounter().count();
+	}
+
+	private AlphaVantageService service(double requestsPerMinute, int burst, int maxConcurrency) {
+		AlphaVantageConfig config = new AlphaVantageConfig();
+		ReflectionTestUtils.setField(config, "apiKey", "test");
+		ReflectionTestUtils.setField(config, "apiUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/query");
+		ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000L);
+		ReflectionTestUtils.setField(config, "requestTimeoutMs", 5000L);
+		ReflectionTestUtils.setField(config, "requestsPerMinute", requestsPerMinute);
+		ReflectionTestUtils.setField(config, "burst", burst);
+		ReflectionTestUtils.setField(config, "maxConcurrency", maxConcurrency);
+
+		AlphaVantageService service = new AlphaVantageService();
+		ReflectionTestUtils.setField(service, "config", config);
+		ReflectionTestUtils.setField(service, "httpClient", config.alphaVantageHttpClient());
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(service, "meterRegistry", registry);
+		service.initialize();
+		return service;
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Candle;
+import com.example.stock_dashboard.model.CandleSeries;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CandleServiceTests {
+
+	private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % 3_600_000L;
+
+	@Test
+	void seriesKeepsOhlcAndEvictsOldestBar() {
+		CandleSeries series = new CandleSeries(60_000, 3);
+		double[] prices = {10, 12, 9, 11};
+		for (int minute = 0; minute < 5; minute++) {
+			for (int i = 0; i < prices.length; i++) {
+				series.add(START + minute * 60_000L + i * 1000L, prices[i] + minute);
+			}
+		}
+		assertTrue(series.hasEvicted());
+		assertEquals(START + 2 * 60_000L, series.oldestStart());
+
+		List<double[]> bars = new ArrayList<>();
+		series.forEach(Long.MIN_VALUE, Long.MAX_VALUE, (start, open, high, low, close, ticks) ->
+				bars.add(new double[]{open, high, low, close, ticks}));
+		assertEquals(3, bars.size());
+		assertArrayEquals(new double[]{14, 16, 13, 15, 4}, bars.get(2));
+	}
+
+	@Test
+	void candlesAggregateRollupsIntoRequestedInterval() {
+		CandleService service = newService();
+		// Levels are built from the symbol's first chart query on
+		service.candles("AAPL", START, START, Duration.ofMinutes(1));
+		for (int second = 0; second < 3600; second++) {
+			service.onTick("AAPL", START + second * 1000L, 100 + (second % 300) / 10.0);
+		}
+
+		Map<String, Object> result = service.candles("AAPL", START, START + 3_599_999L, Duration.ofMinutes(15));
+		@SuppressWarnings("unchecked")
+		List<Candle> candles = (List<Candle>) result.get("candles");
+		assertEquals(4, candles.size());
+		Candle first = candles.get(0);
+		assertEquals(100.0, first.open());
+		assertEquals(129.9, first.high(), 1e-9);
+		assertEquals(100.0, first.low());
+		assertEquals(900, first.ticks());
+
+		// A fine interval over a long range is widened to stay within max-bars
+		Map<String, Object> widened = service.candles("AAPL", START, START + 3_599_999L, Duration.ofSeconds(1));
+		assertTrue(((List<?>) widened.get("candles")).size() <= 100);
+	}
+
+	@Test
+	void levelsAreBuiltOnFirstChartAndHoldTheirRetention() {
+		CandleService service = newService();
+		service.onTick("AAPL", START, 100);
+		Map<?, ?> rollups = (Map<?, ?>) ReflectionTestUtils.getField(service, "rollups");
+		assertTrue(rollups.isEmpty());
+
+		service.candles("AAPL", START, START, Duration.ofSeconds(1));
+		service.candles("MSFT", START, START, Duration.ofSeconds(1));
+		assertEquals(1, rollups.size());
+		for (int second = 0; second < 4000; second++) {
+			service.onTick("AAPL", START + second * 1000L, 100);
+		}
+		// An hour of 1s bars, a day of 1m bars
+		CandleSeries[] levels = (CandleSeries[]) rollups.get("AAPL");
+		assertEquals(START + 400_000L, levels[0].oldestStart());
+		assertEquals(START, levels[1].oldestStart());
+		assertFalse(levels[1].hasEvicted());
+	}
+
+	@Test
+	void lttbKeepsEndpointsAndExtremes() {
+		int n = 1000;
+		long[] xs = new long[n];
+		double[] ys = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = i;
+			ys[i] = i == 500 ? 1000 : Math.sin(i / 50.0);
+		}
+		int[] selected = Downsampler.lttb(xs, ys, n, 50);
+		assertEquals(50, selected.length);
+		assertEquals(0, selected[0]);
+		assertEquals(n - 1, selected[49]);
+		assertTrue(java.util.Arrays.stream(selected).anyMatch(i -> i == 500));
+		for (int i = 1; i < selected.length; i++) {
+			assertTrue(selected[i] > selected[i - 1]);
+		}
+	}
+
+	private CandleService newService() {
+		CandleService service = new CandleService();
+		TickStore disabledStore = new TickStore();
+		ReflectionTestUtils.setField(disabledStore, "enabled", false);
+		ReflectionTestUtils.setField(service, "tickStore", disabledStore);
+		ReflectionTestUtils.setField(service, "seriesStore", new PriceSeriesStore());
+		SymbolRegistry symbolRegistry = new SymbolRegistry();
+		ReflectionTestUtils.setField(symbolRegistry, "maxSymbols", 10);
+		symbolRegistry.add(Map.of("AAPL", 100.0));
+		ReflectionTestUtils.setField(service, "symbolRegistry", symbolRegistry);
+		ReflectionTestUtils.setField(service, "historyArchive", mock(HistoryArchive.class));
+		ReflectionTestUtils.setField(service, "levels",
+				List.of(Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1)));
+		ReflectionTestUtils.setField(service, "retention",
+				List.of(Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(7), Duration.ofDays(30)));
+		ReflectionTestUtils.setField(service, "maxBars", 100);
+		ReflectionTestUtils.setField(service, "maxPoints", 2000);
+		service.initialize();
+		return service;
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.StockDashboardApplication;
+import com.example.stock_dashboard.model.Stock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two nodes in one JVM, sharing an in-memory database and the embedded quote bus
+class ClusterModeTests {
+
+	@TempDir
+	Path ticks;
+
+	private ConfigurableApplicationContext nodeA;
+	private ConfigurableApplicationContext nodeB;
+
+	@AfterEach
+	void closeNodes() {
+		if (nodeB != null) {
+			nodeB.close();
+		}
+		if (nodeA != null && nodeA.isActive()) {
+			nodeA.close();
+		}
+	}
+
+	@Test
+	void followerAppliesLeaderQuotesAndTakesOverWhenLeaderStops() throws Exception {
+		nodeA = startNode("a");
+		nodeB = startNode("b");
+		assertTrue(nodeA.getBean(LeaderElection.class).isLeader());
+		assertFalse(nodeB.getBean(LeaderElection.class).isLeader());
+
+		StockService leader = nodeA.getBean(StockService.class);
+		StockService follower = nodeB.getBean(StockService.class);
+
+		Stock updated = leader.updateStockPrice("AAPL").join();
+		awaitTrue(() -> follower.getStockBySymbol("AAPL").getPrice() == updated.getPrice());
+		assertEquals(updated.getLastUpdated(), follower.getStockBySymbol("AAPL").getLastUpdated());
+
+		// Followers never call the provider themselves
+		long version = follower.getStockBySymbol("MSFT").getVersion();
+		assertEquals(version, follower.updateStockPrice("MSFT").join().getVersion());
+
+		nodeA.close();
+		LeaderElection election = nodeB.getBean(LeaderElection.class);
+		awaitTrue(election::isLeader);
+		assertTrue(follower.updateStockPrice("MSFT").join().getVersion() > version);
+	}
+
+	private ConfigurableApplicationContext startNode(String nodeId) {
+		return new SpringApplicationBuilder(StockDashboardApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:cluster-test;DB_CLOSE_DELAY=-1",
+				"--spring.jpa.hibernate.ddl-auto=update",
+				"--stock.cluster.enabled=true",
+				"--stock.cluster.node-id=" + nodeId,
+				"--stock.cluster.lease-ttl=5s",
+				"--stock.cluster.renew-interval-ms=500",
+				"--stock.cluster.bus=embedded",
+				"--stock.cluster.bus.channel=cluster-test",
+				"--stock.data-source=simulated",
+				"--stock.tickstore.dir=" + ticks.resolve(nodeId),
+				"--stock.warmstart.enabled=false",
+				"--stock.retention.enabled=false",
+				"--stock.refresh.base-interval-ms=3600000",
+				"--stock.refresh.min-interval-ms=3600000",
+				"--stock.refresh.max-interval-ms=3600000");
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "condition not met within 10s");
+			Thread.sleep(50);
+		}
+	}
+}
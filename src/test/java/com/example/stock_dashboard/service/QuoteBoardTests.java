@@ -0,0 +1,107 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteBoardTests {
+
+	private final SymbolRegistry registry = new SymbolRegistry();
+	private final QuoteBoard board = new QuoteBoard();
+
+	QuoteBoardTests() {
+		ReflectionTestUtils.setField(board, "symbolRegistry", registry);
+	}
+
+	@Test
+	void snapshotIsSharedUntilAQuoteChanges() {
+		track("AAPL", "MSFT");
+		board.put(new Stock("AAPL", 150.0));
+		board.put(new Stock("MSFT", 300.0));
+
+		QuoteBoard.Snapshot first = board.snapshot();
+		assertEquals(2, first.stocks().size());
+		assertSame(first, board.snapshot());
+
+		Stock updated = board.update("AAPL", null,
+				current -> current.withQuote(151.0, 1.0, 0.67, LocalDateTime.now()));
+		assertEquals(1, updated.getVersion());
+		assertEquals(150.0, first.stocks().stream().filter(s -> s.getSymbol().equals("AAPL")).findFirst().get().getPrice());
+
+		QuoteBoard.Snapshot second = board.snapshot();
+		assertNotSame(first, second);
+		assertTrue(second.version() > first.version());
+		assertSame(updated, board.get("AAPL"));
+		assertThrows(UnsupportedOperationException.class, () -> second.stocks().clear());
+	}
+
+	@Test
+	void symbolWithoutAQuoteStartsFromInitialQuote() {
+		track("IBM");
+		Stock stock = board.update("IBM", new Stock("IBM", 100.0),
+				current -> current.withQuote(101.0, 1.0, 1.0, LocalDateTime.now()));
+		assertEquals(101.0, stock.getPrice());
+		assertEquals(1, board.size());
+	}
+
+	@Test
+	void quotesAreKeptInIdOrderAndRemovedSymbolsLeaveTheBoard() {
+		track("MSFT", "AAPL", "TSLA");
+		board.put(new Stock("MSFT", 300.0));
+		board.put(new Stock("AAPL", 150.0));
+		board.update("TSLA", new Stock("TSLA", 200.0), current -> current);
+		assertEquals(List.of("MSFT", "AAPL", "TSLA"), board.symbols());
+
+		QuoteBoard.Snapshot before = board.snapshot();
+		assertEquals(150.0, board.remove("AAPL").getPrice());
+		assertNull(board.get("AAPL"));
+		assertEquals(List.of("MSFT", "TSLA"), board.symbols());
+		assertEquals(List.of("MSFT", "TSLA"), board.snapshot().stocks().stream().map(Stock::getSymbol).toList());
+		assertTrue(board.snapshot().version() > before.version());
+		assertEquals(2, board.size());
+	}
+
+	@Test
+	void quotesOfUntrackedSymbolsAreIgnored() {
+		assertNull(board.update("IBM", new Stock("IBM", 100.0), current -> current));
+		assertFalse(board.put(new Stock("IBM", 100.0)));
+		assertFalse(registry.isTracked("IBM"), "a quote alone doesn't track a symbol");
+
+		track("AAPL");
+		board.put(new Stock("AAPL", 150.0));
+		registry.remove("AAPL");
+		board.remove("AAPL");
+		long version = board.version();
+		assertNull(board.update("AAPL", new Stock("AAPL", 151.0), current -> current));
+		assertFalse(board.put(new Stock("AAPL", 151.0)));
+		assertNull(board.get("AAPL"));
+		assertEquals(0, board.size());
+		assertEquals(version, board.version());
+	}
+
+	@Test
+	void quotePublishedWhileItsSymbolIsRemovedIsDiscarded() {
+		track("AAPL");
+		board.put(new Stock("AAPL", 150.0));
+		// The symbol goes away while the update is being applied, after the tracked check
+		Stock updated = board.update("AAPL", null, current -> {
+			registry.remove("AAPL");
+			return current.withQuote(151.0, 1.0, 0.67, LocalDateTime.now());
+		});
+		assertNull(updated);
+		assertNull(board.get("AAPL"));
+		assertEquals(List.of(), board.symbols());
+		assertEquals(0, board.size());
+	}
+
+	private void track(String... symbols) {
+		for (String symbol : symbols) {
+			registry.trackFirstQuote(symbol);
+		}
+	}
+}
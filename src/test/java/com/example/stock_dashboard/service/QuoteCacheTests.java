@@ -0,0 +1,64 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteCacheTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+	private final List<CompletableFuture<Stock>> fetches = new ArrayList<>();
+
+	private final QuoteCache cache = new QuoteCache(symbol -> {
+		CompletableFuture<Stock> fetch = new CompletableFuture<>();
+		fetches.add(fetch);
+		return fetch;
+	}, symbols -> CompletableFuture.completedFuture(Map.of()), 1000, 1000, 5000, 100, nanos::get);
+
+	@Test
+	void concurrentMissesShareOneFetch() {
+		List<CompletableFuture<Stock>> callers = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			callers.add(cache.get("AAPL"));
+		}
+		assertEquals(1, fetches.size());
+
+		fetches.get(0).complete(new Stock("AAPL", 150.0));
+		callers.forEach(caller -> assertEquals(150.0, caller.join().getPrice()));
+		assertEquals(150.0, cache.get("AAPL").join().getPrice());
+		assertEquals(1, fetches.size());
+	}
+
+	@Test
+	void staleEntryIsServedWhileOneRevalidationRuns() {
+		cache.get("MSFT");
+		fetches.get(0).complete(new Stock("MSFT", 300.0));
+
+		advanceMillis(2000);
+		assertEquals(300.0, cache.get("MSFT").join().getPrice());
+		assertEquals(300.0, cache.get("MSFT").join().getPrice());
+		assertEquals(2, fetches.size());
+
+		fetches.get(1).complete(new Stock("MSFT", 310.0));
+		assertEquals(310.0, cache.get("MSFT").join().getPrice());
+
+		// Past fresh + max-stale the entry is gone and the next read is a miss
+		advanceMillis(7000);
+		CompletableFuture<Stock> miss = cache.get("MSFT");
+		assertFalse(miss.isDone());
+		fetches.get(fetches.size() - 1).complete(null);
+		assertNull(miss.join());
+	}
+
+	private void advanceMillis(long millis) {
+		nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteCodecTests {
+
+	private final SymbolRegistry symbolRegistry = new SymbolRegistry();
+	private final QuoteCodec codec = new QuoteCodec();
+
+	QuoteCodecTests() {
+		ReflectionTestUtils.setField(codec, "symbolRegistry", symbolRegistry);
+	}
+
+	@Test
+	void quotesRoundTripAndAreSmallerThanJson() throws Exception {
+		LocalDateTime now = LocalDateTime.of(2024, 3, 1, 15, 30, 12, 345_000_000);
+		List<Stock> stocks = List.of(
+				new Stock("AAPL", 189.25, 1.5, 0.8, now, 42),
+				new Stock("MSFT", 415.1, -2.25, -0.54, now.plusSeconds(1), 7));
+
+		byte[] encoded = codec.encodeQuotes(stocks);
+		List<Stock> decoded = codec.decodeQuotes(encoded);
+
+		assertEquals(2, decoded.size());
+		assertEquals("MSFT", decoded.get(1).getSymbol());
+		assertEquals(-2.25, decoded.get(1).getChange());
+		assertEquals(now, decoded.get(0).getLastUpdated());
+		assertEquals(42, decoded.get(0).getVersion());
+		assertEquals(2, symbolRegistry.size());
+
+		byte[] json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsBytes(stocks);
+		assertTrue(encoded.length * 2 < json.length, encoded.length + " vs " + json.length + " bytes");
+	}
+
+	@Test
+	void deltaFrameCarriesOnlyChangedFields() {
+		LocalDateTime now = LocalDateTime.of(2024, 3, 1, 15, 30);
+		Stock previous = new Stock("IBM", 180.0, 1.0, 0.5, now, 1);
+		Stock current = previous.withQuote(181.0, 1.0, 0.5, now);
+
+		byte[] snapshot = codec.encodeFrame(current, 1, true, null);
+		byte[] delta = codec.encodeFrame(current, 2, false, previous);
+
+		assertEquals(8 + 13 + 32, snapshot.length);
+		assertEquals(8 + 13 + 8, delta.length);
+		assertEquals(QuoteCodec.FLAG_PRICE, delta[8 + 12]);
+	}
+}
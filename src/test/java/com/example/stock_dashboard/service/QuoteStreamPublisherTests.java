@@ -0,0 +1,70 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class QuoteStreamPublisherTests {
+
+	private final StompBroadcaster broadcaster = mock(StompBroadcaster.class);
+	private final StockSubscriptionRegistry subscriptions = mock(StockSubscriptionRegistry.class);
+	private final QuoteStreamPublisher publisher = new QuoteStreamPublisher();
+
+	QuoteStreamPublisherTests() {
+		when(subscriptions.symbolSubscriberCount(anyString())).thenReturn(1);
+		when(subscriptions.subscriberCount("/topic/stocks/AAPL")).thenReturn(1);
+		ReflectionTestUtils.setField(publisher, "broadcaster", broadcaster);
+		ReflectionTestUtils.setField(publisher, "subscriptionRegistry", subscriptions);
+		ReflectionTestUtils.setField(publisher, "seriesStore", new PriceSeriesStore());
+		ReflectionTestUtils.setField(publisher, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(publisher, "snapshotEvery", 20);
+		publisher.initialize();
+	}
+
+	@Test
+	void quotesNotNewerThanTheLastFrameAreDropped() {
+		Stock first = new Stock("AAPL", 150.0);
+		Stock second = first.withQuote(151.0, 1.0, 0.67, LocalDateTime.now());
+		publisher.publish(first);
+		publisher.publish(second);
+		// A late refresh result and a republished board quote
+		publisher.publish(first);
+		publisher.publish(second);
+
+		List<Map<String, Object>> frames = sentFrames(2);
+		assertEquals("snapshot", frames.get(0).get("type"));
+		assertEquals(2L, frames.get(1).get("seq"));
+		assertEquals(151.0, frames.get(1).get("price"));
+	}
+
+	@Test
+	void removedSymbolStartsAFreshStream() {
+		Stock first = new Stock("AAPL", 150.0);
+		publisher.publish(first.withQuote(151.0, 1.0, 0.67, LocalDateTime.now()));
+		publisher.remove("AAPL");
+		publisher.publish(first);
+
+		List<Map<String, Object>> frames = sentFrames(2);
+		assertEquals(1L, frames.get(1).get("seq"));
+		assertEquals("snapshot", frames.get(1).get("type"));
+		assertEquals(150.0, frames.get(1).get("price"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> sentFrames(int count) {
+		ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+		verify(broadcaster, times(count)).broadcast(eq("/topic/stocks/AAPL"), frames.capture());
+		return frames.getAllValues().stream().map(frame -> (Map<String, Object>) frame).toList();
+	}
+}
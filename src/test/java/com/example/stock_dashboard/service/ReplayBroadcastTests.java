@@ -0,0 +1,113 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.StockDashboardApplication;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayBroadcastTests {
+
+	@TempDir
+	Path dir;
+
+	private ConfigurableApplicationContext context;
+
+	@AfterEach
+	void close() {
+		if (context != null) {
+			context.close();
+		}
+	}
+
+	@Test
+	void replayedTicksReachTheSymbolTopic() throws Exception {
+		// A tick every 100 ms, replayed in a loop
+		StringBuilder csv = new StringBuilder("symbol,epochMillis,price\n");
+		for (int i = 0; i < 20; i++) {
+			csv.append("REPL,").append(1_700_000_000_000L + i * 100L).append(',').append(100 + i).append('\n');
+		}
+		Path file = Files.writeString(dir.resolve("ticks.csv"), csv);
+
+		context = new SpringApplicationBuilder(StockDashboardApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:replay-test;DB_CLOSE_DELAY=-1",
+				"--stock.data-source=replay",
+				"--stock.replay.file=" + file,
+				"--stock.replay.loop=true",
+				"--stock.tickstore.dir=" + dir.resolve("ticks"),
+				"--stock.warmstart.enabled=false",
+				"--stock.retention.enabled=false",
+				"--stock.refresh.base-interval-ms=3600000",
+				"--stock.refresh.min-interval-ms=3600000",
+				"--stock.refresh.max-interval-ms=3600000");
+
+		List<String> destinations = new CopyOnWriteArrayList<>();
+		context.getBean("brokerChannel", AbstractSubscribableChannel.class).addInterceptor(new ChannelInterceptor() {
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				destinations.add(String.valueOf(SimpMessageHeaderAccessor.getDestination(message.getHeaders())));
+				return message;
+			}
+		});
+		SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		subscribe.setSessionId("session");
+		subscribe.setSubscriptionId("sub-0");
+		subscribe.setDestination(StockSubscriptionRegistry.SYMBOL_DESTINATION_PREFIX + "REPL");
+		context.publishEvent(new SessionSubscribeEvent(this,
+				MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders())));
+
+		// Refreshes are an hour apart, so every frame comes from a replayed tick
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (destinations.stream().filter("/topic/stocks/REPL"::equals).count() < 5) {
+			assertTrue(System.currentTimeMillis() < deadline, "replayed ticks were not broadcast: " + destinations);
+			Thread.sleep(50);
+		}
+	}
+
+	@Test
+	void loopedPassesKeepTimeMovingForward() throws Exception {
+		Path file = Files.writeString(dir.resolve("loop.csv"), "LOOP,1000,1\nLOOP,1100,2\nLOOP,1200,3\n");
+		ReplayMarketDataSource source = new ReplayMarketDataSource();
+		ReflectionTestUtils.setField(source, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(source, "file", file.toString());
+		ReflectionTestUtils.setField(source, "speed", 0.0);
+		ReflectionTestUtils.setField(source, "loop", true);
+		source.registerMeters();
+
+		List<Long> timestamps = new CopyOnWriteArrayList<>();
+		CountDownLatch threePasses = new CountDownLatch(9);
+		source.start((symbol, epochMillis, price) -> {
+			timestamps.add(epochMillis);
+			threePasses.countDown();
+		});
+		try {
+			assertTrue(threePasses.await(10, TimeUnit.SECONDS));
+		} finally {
+			source.stop();
+		}
+
+		// Each pass starts one interval after the previous one ended
+		assertEquals(List.of(1000L, 1100L, 1200L, 1300L, 1400L, 1500L, 1600L, 1700L, 1800L), timestamps.subList(0, 9));
+	}
+}
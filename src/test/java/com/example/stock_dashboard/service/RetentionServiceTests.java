@@ -0,0 +1,122 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.PricePoint;
+import com.example.stock_dashboard.model.StockPriceHistory;
+import com.example.stock_dashboard.model.StockPriceRollup;
+import com.example.stock_dashboard.repo.StockHistoryRepository;
+import com.example.stock_dashboard.repo.StockRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"stock.warmstart.enabled=false",
+		"stock.retention.enabled=false",
+		"stock.retention.chunk-size=7"
+})
+@DirtiesContext
+class RetentionServiceTests {
+
+	private static final String SYMBOL = "RETN";
+	private static final LocalDateTime START = LocalDateTime.of(2000, 1, 3, 10, 0);
+
+	@TempDir
+	static Path ticks;
+
+	@DynamicPropertySource
+	static void tickStore(DynamicPropertyRegistry registry) {
+		registry.add("stock.tickstore.dir", ticks::toString);
+	}
+
+	// Keeps the seeded quotes' history rows from landing while the test counts rows
+	@MockitoBean
+	private PriceHistoryWriter historyWriter;
+
+	@Autowired
+	private RetentionService retentionService;
+
+	@Autowired
+	private StockHistoryRepository historyRepository;
+
+	@Autowired
+	private StockRollupRepository rollupRepository;
+
+	@Autowired
+	private HistoryStatsTracker statsTracker;
+
+	@Autowired
+	private HistoryArchive historyArchive;
+
+	@Autowired
+	private PriceSeriesStore seriesStore;
+
+	@Test
+	void compactsRawRowsIntoMinuteAndHourRollupsThenExpires() {
+		// 3 minutes x 10 ticks, chunk size 7 so buckets straddle chunk boundaries
+		List<StockPriceHistory> rows = new ArrayList<>();
+		for (int minute = 0; minute < 3; minute++) {
+			for (int i = 0; i < 10; i++) {
+				StockPriceHistory row = new StockPriceHistory(SYMBOL, 100.0 + minute * 10 + (i == 4 ? 50 : i));
+				row.setTimestamp(START.plusMinutes(minute).plusSeconds(i * 5L));
+				rows.add(row);
+			}
+		}
+		historyRepository.saveAll(rows);
+		statsTracker.initialize();
+		long recorded = statsTracker.snapshot().totalRecords();
+
+		retentionService.run(START.plusDays(2));
+		assertTrue(historyRepository.findBySymbolOrderByTimestampDesc(SYMBOL).isEmpty());
+		assertEquals(recorded - 30, statsTracker.snapshot().totalRecords());
+		List<StockPriceRollup> minutes = rollups(StockPriceRollup.MINUTE);
+		assertEquals(3, minutes.size());
+		StockPriceRollup first = minutes.get(0);
+		assertEquals(START, first.getBucketStart());
+		assertEquals(100.0, first.getOpen());
+		assertEquals(150.0, first.getHigh());
+		assertEquals(100.0, first.getLow());
+		assertEquals(109.0, first.getClose());
+		assertEquals(10, first.getTicks());
+
+		// Compacted history is still readable, at minute resolution
+		List<double[]> bars = new ArrayList<>();
+		historyArchive.scanBars(SYMBOL, seriesStore.toEpochMillis(START), seriesStore.toEpochMillis(START.plusHours(1)),
+				(start, open, high, low, close, ticks) -> bars.add(new double[]{start, close, ticks}));
+		assertEquals(3, bars.size());
+		assertEquals(seriesStore.toEpochMillis(START.plusMinutes(2)), (long) bars.get(2)[0]);
+		assertEquals(129.0, bars.get(2)[1]);
+		List<PricePoint> points = new ArrayList<>();
+		historyArchive.addRollupsNewestFirst(SYMBOL, START, START.plusHours(1), 2, points);
+		assertEquals(List.of(START.plusMinutes(2), START.plusMinutes(1)), points.stream().map(PricePoint::timestamp).toList());
+
+		retentionService.run(START.plusDays(30));
+		assertTrue(rollups(StockPriceRollup.MINUTE).isEmpty());
+		List<StockPriceRollup> hours = rollups(StockPriceRollup.HOUR);
+		assertEquals(1, hours.size());
+		StockPriceRollup hour = hours.get(0);
+		assertEquals(100.0, hour.getOpen());
+		assertEquals(170.0, hour.getHigh());
+		assertEquals(129.0, hour.getClose());
+		assertEquals(30, hour.getTicks());
+
+		retentionService.run(START.plusYears(2));
+		assertTrue(rollups(StockPriceRollup.HOUR).isEmpty());
+	}
+
+	private List<StockPriceRollup> rollups(String resolution) {
+		return rollupRepository.findBySymbolAndResolutionAndBucketStartBetweenOrderByBucketStart(SYMBOL, resolution,
+				START.minusDays(1), START.plusDays(1));
+	}
+}
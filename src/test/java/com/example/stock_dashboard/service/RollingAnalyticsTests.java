@@ -0,0 +1,73 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.AnalyticsSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingAnalyticsTests {
+
+	@Test
+	void windowStatsMatchBruteForce() {
+		RollingAnalytics analytics = new RollingAnalytics("AAPL", List.of(Duration.ofSeconds(10)), 12, 26);
+		Random random = new Random(42);
+		int n = 500;
+		long[] timestamps = new long[n];
+		double[] prices = new double[n];
+
+		AnalyticsSnapshot snapshot = null;
+		for (int i = 0; i < n; i++) {
+			timestamps[i] = i * 700L;
+			prices[i] = 100 + random.nextGaussian() * 5;
+			snapshot = analytics.onTick(timestamps[i], prices[i]);
+		}
+
+		long cutoff = timestamps[n - 1] - 10_000;
+		double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			if (timestamps[i] > cutoff) {
+				min = Math.min(min, prices[i]);
+				max = Math.max(max, prices[i]);
+				sum += prices[i];
+				count++;
+			}
+		}
+		double mean = sum / count;
+		double squares = 0;
+		for (int i = 0; i < n; i++) {
+			if (timestamps[i] > cutoff) {
+				squares += (prices[i] - mean) * (prices[i] - mean);
+			}
+		}
+
+		AnalyticsSnapshot.WindowStats window = snapshot.windows().get(0);
+		assertEquals("10s", window.label());
+		assertEquals(count, window.count());
+		assertEquals(min, window.minPrice());
+		assertEquals(max, window.maxPrice());
+		assertEquals(mean, window.avgPrice(), 1e-9);
+		assertEquals(Math.sqrt(squares / (count - 1)), window.stdDev(), 1e-9);
+	}
+
+	@Test
+	void sessionStatsCoverAllTicks() {
+		RollingAnalytics analytics = new RollingAnalytics("AAPL", List.of(Duration.ofMinutes(1)), 12, 26);
+		analytics.onTick(0, 10);
+		analytics.onTick(1000, 20);
+		AnalyticsSnapshot snapshot = analytics.onTick(3000, 30);
+
+		assertEquals(3, snapshot.ticks());
+		assertEquals(10, snapshot.firstPrice());
+		assertEquals(30, snapshot.currentPrice());
+		assertEquals(10, snapshot.minPrice());
+		assertEquals(30, snapshot.maxPrice());
+		assertEquals(20, snapshot.avgPrice(), 1e-9);
+		// 10 held for 1s, 20 held for 2s
+		assertEquals(50.0 / 3, snapshot.twap(), 1e-9);
+	}
+}
@@ -0,0 +1,158 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"stock.data-source=" + StockServiceTests.CachedSource.NAME,
+		"stock.symbols.initial=AAPL:150",
+		"stock.warmstart.enabled=false",
+		"stock.retention.enabled=false",
+		"stock.refresh.base-interval-ms=3600000",
+		"stock.refresh.min-interval-ms=3600000",
+		"stock.refresh.max-interval-ms=3600000"
+})
+@DirtiesContext
+class StockServiceTests {
+
+	@TempDir
+	static Path ticks;
+
+	@DynamicPropertySource
+	static void tickStore(DynamicPropertyRegistry registry) {
+		registry.add("stock.tickstore.dir", ticks::toString);
+	}
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private CachedSource source;
+
+	@Autowired
+	private SymbolRegistry symbolRegistry;
+
+	@Test
+	void cachedProviderQuoteIsAppliedOnce() {
+		Stock seeded = stockService.getStockBySymbol("AAPL");
+		int points = stockService.getRecentPriceHistory("AAPL", 100).size();
+
+		// Fresh cache hit: the same quote instance again
+		Stock refreshed = stockService.updateStockPrice("AAPL").join();
+		assertEquals(1, source.fetches.get());
+		assertSame(seeded, refreshed);
+		assertEquals(points, stockService.getRecentPriceHistory("AAPL", 100).size());
+
+		// Once the entry has expired the provider is asked again and a moved quote is a new tick
+		source.nanos.addAndGet(TimeUnit.MINUTES.toNanos(10));
+		source.price = 152.0;
+		Stock moved = stockService.updateStockPrice("AAPL").join();
+		assertEquals(2, source.fetches.get());
+		assertEquals(152.0, moved.getPrice());
+		assertTrue(moved.getVersion() > seeded.getVersion());
+		assertEquals(points + 1, stockService.getRecentPriceHistory("AAPL", 100).size());
+	}
+
+	@Test
+	void symbolRemovedDuringARefreshStaysRemoved() {
+		stockService.addSymbols(Map.of("IBM", 100.0));
+		assertNotNull(stockService.getStockBySymbol("IBM"));
+
+		CompletableFuture<Stock> fetch = new CompletableFuture<>();
+		source.held.put("IBM", fetch);
+		CompletableFuture<Stock> refresh = stockService.updateStockPrice("IBM");
+		// Wait until the refresh has asked the provider, then remove the symbol
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			while (source.held.containsKey("IBM")) {
+				Thread.sleep(1);
+			}
+		});
+		assertTrue(stockService.removeSymbol("IBM"));
+
+		// The provider answers after the symbol is gone
+		fetch.complete(new Stock("IBM", 105.0, 5.0, 5.0, LocalDateTime.now(), 0));
+		assertNull(refresh.join());
+		assertNull(stockService.getStockBySymbol("IBM"));
+		assertFalse(symbolRegistry.isTracked("IBM"));
+		assertFalse(stockService.getTrackedSymbols().contains("IBM"));
+		assertTrue(stockService.getRecentPriceHistory("IBM", 100).stream().noneMatch(point -> point.price() == 105.0),
+				"the late quote must not be recorded");
+	}
+
+	// A live source behind a QuoteCache on a manual clock
+	static class CachedSource implements MarketDataSource {
+
+		static final String NAME = "test-cached";
+
+		final AtomicLong nanos = new AtomicLong();
+		final AtomicInteger fetches = new AtomicInteger();
+		volatile double price = 151.0;
+		// Fetches answered by the test instead of the cache
+		final Map<String, CompletableFuture<Stock>> held = new ConcurrentHashMap<>();
+
+		private final QuoteCache cache = new QuoteCache(
+				symbol -> CompletableFuture.completedFuture(quote(symbol)),
+				symbols -> {
+					Map<String, Stock> quotes = new LinkedHashMap<>();
+					symbols.forEach(symbol -> quotes.put(symbol, quote(symbol)));
+					return CompletableFuture.completedFuture(quotes);
+				},
+				60_000, 60_000, 60_000, 100, nanos::get);
+
+		private Stock quote(String symbol) {
+			fetches.incrementAndGet();
+			return new Stock(symbol, price, 1.0, 0.5, LocalDateTime.now(), 0);
+		}
+
+		@Override
+		public String getName() {
+			return NAME;
+		}
+
+		@Override
+		public boolean isLive() {
+			return true;
+		}
+
+		@Override
+		public CompletableFuture<Map<String, Stock>> fetchQuotes(Collection<String> symbols) {
+			return cache.getAll(symbols);
+		}
+
+		@Override
+		public CompletableFuture<Stock> fetchQuote(String symbol, Stock current) {
+			CompletableFuture<Stock> fetch = held.remove(symbol);
+			return fetch != null ? fetch : cache.get(symbol);
+		}
+	}
+
+	@TestConfiguration
+	static class Config {
+		@Bean
+		CachedSource cachedSource() {
+			return new CachedSource();
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.stock_dashboard.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolRegistryTests {
+
+	private final SymbolRegistry registry = new SymbolRegistry();
+
+	SymbolRegistryTests() {
+		ReflectionTestUtils.setField(registry, "maxSymbols", 3);
+		ReflectionTestUtils.setField(registry, "defaultBasePrice", 100.0);
+	}
+
+	@Test
+	void addedSymbolsGetDenseIdsAndOneCanonicalInstance() {
+		Map<String, Double> symbols = new LinkedHashMap<>();
+		symbols.put(" aapl", 150.0);
+		symbols.put("MSFT", null);
+		assertEquals(List.of("AAPL", "MSFT"), registry.add(symbols));
+
+		assertEquals(0, registry.idOf("AAPL"));
+		assertEquals(1, registry.find("MSFT"));
+		assertEquals(-1, registry.find("TSLA"));
+		String canonical = registry.symbolOf(0);
+		assertSame(canonical, registry.canonical("aapl"));
+		assertSame(canonical, registry.canonical(new String("AAPL")));
+		assertEquals("TSLA", registry.canonical(" tsla "));
+		assertEquals(150.0, registry.basePrice("AAPL"));
+		assertEquals(100.0, registry.basePrice("MSFT"));
+
+		// Already tracked: only the base price changes
+		assertEquals(List.of(), registry.add(Map.of("MSFT", 310.0)));
+		assertEquals(310.0, registry.basePrice("MSFT"));
+	}
+
+	@Test
+	void removedSymbolsKeepTheirIdAndRejectedBatchesChangeNothing() {
+		registry.add(Map.of("AAPL", 150.0));
+		registry.add(Map.of("MSFT", 300.0));
+		assertTrue(registry.remove("aapl"));
+		assertFalse(registry.remove("AAPL"));
+		assertEquals(List.of("MSFT"), registry.tracked());
+
+		assertEquals(List.of("AAPL"), registry.add(Map.of("AAPL", 150.0)));
+		assertEquals(0, registry.find("AAPL"));
+		assertEquals(List.of("AAPL", "MSFT"), registry.tracked());
+
+		Map<String, Double> batch = new LinkedHashMap<>();
+		batch.put("TSLA", 200.0);
+		batch.put("BAD SYMBOL", null);
+		assertThrows(IllegalArgumentException.class, () -> registry.add(batch));
+		assertFalse(registry.isTracked("TSLA"));
+		assertThrows(IllegalArgumentException.class, () -> registry.add(Map.of("AMZN", 0.0)));
+		assertThrows(IllegalArgumentException.class, () -> registry.add(Map.of("TSLA", 1.0, "AMZN", 1.0)));
+	}
+
+	@Test
+	void firstQuoteTracksUnknownSymbolsButNotRemovedOnes() {
+		assertTrue(registry.trackFirstQuote("IBM"));
+		assertTrue(registry.isTracked("IBM"));
+		assertEquals(List.of("IBM"), registry.tracked());
+		assertEquals(100.0, registry.basePrice("IBM"));
+
+		assertTrue(registry.remove("IBM"));
+		assertFalse(registry.trackFirstQuote("IBM"));
+		assertEquals(List.of(), registry.tracked());
+	}
+}
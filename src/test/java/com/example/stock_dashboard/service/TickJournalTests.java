@@ -0,0 +1,49 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTests {
+
+	@Test
+	void readsAfterCursorInBatches() {
+		TickJournal journal = new TickJournal(8);
+		for (int i = 1; i <= 5; i++) {
+			assertEquals(i, journal.append(new Stock("AAPL", 100 + i), i * 1000L));
+		}
+
+		List<TickJournal.Entry> out = new ArrayList<>();
+		assertTrue(journal.readAfter(1, 2, out));
+		assertEquals(List.of(2L, 3L), out.stream().map(TickJournal.Entry::seq).toList());
+		assertEquals(103.0, out.get(1).quote().getPrice());
+		assertEquals(3000L, out.get(1).epochMillis());
+
+		out.clear();
+		assertTrue(journal.readAfter(5, 10, out));
+		assertTrue(out.isEmpty());
+	}
+
+	@Test
+	void reportsEvictedAndUnknownCursors() {
+		TickJournal journal = new TickJournal(4);
+		for (int i = 1; i <= 10; i++) {
+			journal.append(new Stock("MSFT", i), i);
+		}
+		assertEquals(7, journal.firstSeq());
+		assertEquals(10, journal.lastSeq());
+
+		List<TickJournal.Entry> out = new ArrayList<>();
+		assertFalse(journal.readAfter(5, 10, out));
+		assertFalse(journal.readAfter(11, 10, out));
+		assertTrue(out.isEmpty());
+
+		assertTrue(journal.readAfter(6, 10, out));
+		assertEquals(List.of(7L, 8L, 9L, 10L), out.stream().map(TickJournal.Entry::seq).toList());
+		assertEquals(7.0, out.get(0).quote().getPrice());
+	}
+}
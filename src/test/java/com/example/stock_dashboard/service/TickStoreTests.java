@@ -0,0 +1,160 @@
+package com.example.stock_dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickStoreTests {
+
+	private static final long DAY = 86_400_000L;
+	private static final long START = 20_000 * DAY; // midnight UTC
+
+	@TempDir
+	Path dir;
+
+	// Meters of the store opened last
+	private SimpleMeterRegistry registry;
+
+	@Test
+	void segmentRoundTripsAndSurvivesReopen() throws Exception {
+		Path seg = dir.resolve("s.seg");
+		Path idx = dir.resolve("s.idx");
+		try (TickSegment segment = TickSegment.openWritable(seg, idx, 256, 16)) {
+			for (int i = 0; i < 1000; i++) {
+				segment.append(START + i * 1000L, 100 + (i % 37) * 0.0125);
+			}
+			assertEquals(63, segment.blockCount());
+			assertTrue(segment.sizeBytes() < 1000 * 6, "expected compact delta encoding");
+		}
+
+		try (TickSegment segment = TickSegment.openWritable(seg, idx, 256, 16)) {
+			assertEquals(1000, segment.count());
+			segment.append(START + 1000 * 1000L, 99.5);
+
+			List<Long> timestamps = new ArrayList<>();
+			List<Double> prices = new ArrayList<>();
+			segment.scan(START + 500_000, START + 510_000, (ts, price) -> {
+				timestamps.add(ts);
+				prices.add(price);
+			});
+			assertEquals(11, timestamps.size());
+			assertEquals(START + 500_000, timestamps.get(0));
+			assertEquals(100 + (500 % 37) * 0.0125, prices.get(0), 1e-9);
+
+			List<Double> newest = new ArrayList<>();
+			segment.scanNewestFirst(Long.MIN_VALUE, Long.MAX_VALUE, 2, (ts, price) -> newest.add(price));
+			assertEquals(List.of(99.5, 100 + (999 % 37) * 0.0125), newest);
+		}
+	}
+
+	@Test
+	void storeRollsDaysCompressesAndScansAcrossThem() throws Exception {
+		TickStore store = newStore();
+		for (int i = 0; i < 3 * 24; i++) {
+			store.append("AAPL", START + i * 3_600_000L, 150 + i);
+		}
+		awaitSealed(2);
+		assertTrue(Files.exists(dir.resolve("AAPL").resolve(java.time.LocalDate.ofEpochDay(20_000) + ".seg.gz")));
+
+		List<Double> range = new ArrayList<>();
+		store.scan("AAPL", START + 20 * 3_600_000L, START + 27 * 3_600_000L, (ts, price) -> range.add(price));
+		assertEquals(List.of(170.0, 171.0, 172.0, 173.0, 174.0, 175.0, 176.0, 177.0), range);
+		store.close();
+
+		// Restart: only the directory is listed; sealed days are opened when a query reaches them
+		TickStore reopened = newStore();
+		List<Double> latest = new ArrayList<>();
+		assertEquals(30, reopened.scanNewestFirst("AAPL", Long.MIN_VALUE, Long.MAX_VALUE, 30,
+				(ts, price) -> latest.add(price)));
+		assertEquals(221.0, latest.get(0));
+		assertEquals(192.0, latest.get(29));
+		reopened.close();
+	}
+
+	@Test
+	void idleSegmentsAreClosedAndReopenedOnTheirNextTick() throws Exception {
+		TickStore store = newStore(2);
+		for (int i = 0; i < 40; i++) {
+			for (String symbol : List.of("A", "B", "C", "D", "E")) {
+				store.append(symbol, START + i * 60_000L, i);
+			}
+		}
+		// Late tick after C was evicted: goes to its own day's segment
+		store.append("C", START - 1000, -1.0);
+		awaitSealed(1);
+
+		double open = registry.get("stock.tickstore.open.segments").gauge().value();
+		assertTrue(open <= 3, "open segments " + open);
+		assertTrue(registry.get("stock.tickstore.segments.evicted").functionCounter().count() > 0);
+		for (String symbol : List.of("A", "B", "C", "D", "E")) {
+			List<Double> prices = new ArrayList<>();
+			store.scan(symbol, START, START + DAY - 1, (ts, price) -> prices.add(price));
+			assertEquals(40, prices.size(), symbol);
+			assertEquals(39.0, prices.get(39));
+		}
+		List<Double> late = new ArrayList<>();
+		store.scanNewestFirst("C", Long.MIN_VALUE, Long.MAX_VALUE, 100, (ts, price) -> late.add(price));
+		assertEquals(41, late.size());
+		List<Double> previousDay = new ArrayList<>();
+		store.scan("C", START - DAY, START - 1, (ts, price) -> previousDay.add(price));
+		assertEquals(List.of(-1.0), previousDay);
+		assertEquals(1.0, registry.get("stock.tickstore.late").functionCounter().count());
+		store.close();
+	}
+
+	@Test
+	void lateTickReopensItsSealedDayInTimeOrder() throws Exception {
+		TickStore store = newStore();
+		store.append("AAPL", START + 1000, 1.0);
+		store.append("AAPL", START + 3000, 3.0);
+		store.append("AAPL", START + DAY, 4.0);
+		awaitSealed(1);
+
+		// Older than the last tick of its sealed, compressed day
+		store.append("AAPL", START + 2000, 2.0);
+		awaitSealed(2);
+		assertTrue(Files.exists(dir.resolve("AAPL").resolve(java.time.LocalDate.ofEpochDay(20_000) + ".seg.gz")));
+
+		List<Double> day = new ArrayList<>();
+		store.scan("AAPL", START + 1500, START + DAY - 1, (ts, price) -> day.add(price));
+		assertEquals(List.of(2.0, 3.0), day);
+		List<Double> newest = new ArrayList<>();
+		store.scanNewestFirst("AAPL", Long.MIN_VALUE, Long.MAX_VALUE, 3, (ts, price) -> newest.add(price));
+		assertEquals(List.of(4.0, 3.0, 2.0), newest);
+		store.close();
+	}
+
+	private void awaitSealed(int segments) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (registry.get("stock.tickstore.segments.sealed").functionCounter().count() < segments) {
+			assertTrue(System.currentTimeMillis() < deadline, "segments were not sealed");
+			Thread.sleep(10);
+		}
+	}
+
+	private TickStore newStore() throws Exception {
+		return newStore(16);
+	}
+
+	private TickStore newStore(int maxOpenSegments) throws Exception {
+		TickStore store = new TickStore();
+		registry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(store, "meterRegistry", registry);
+		ReflectionTestUtils.setField(store, "maxOpenSegments", maxOpenSegments);
+		ReflectionTestUtils.setField(store, "enabled", true);
+		ReflectionTestUtils.setField(store, "directory", dir.toString());
+		ReflectionTestUtils.setField(store, "initialSegmentBytes", 256);
+		ReflectionTestUtils.setField(store, "indexInterval", 8);
+		ReflectionTestUtils.setField(store, "compressSealed", true);
+		store.open();
+		return store;
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.stock_dashboard.service;
+
+import com.example.stock_dashboard.model.Stock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickStreamServiceTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<Runnable> queued = new ArrayList<>();
+	private final TickStreamService service = new TickStreamService();
+
+	TickStreamServiceTests() {
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().findAndRegisterModules());
+		ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(service, "journalCapacity", 64);
+		ReflectionTestUtils.setField(service, "senderThreads", 1);
+		ReflectionTestUtils.setField(service, "batchSize", 2);
+		ReflectionTestUtils.setField(service, "maxConsumers", 10);
+		ReflectionTestUtils.setField(service, "maxBacklog", 8L);
+		service.initialize();
+		// Drains run only when the test says so
+		ReflectionTestUtils.setField(service, "senders", new ManualExecutor());
+	}
+
+	@Test
+	void eachDrainSendsOneBatchAndRequeues() {
+		service.open(TickStreamService.Format.NDJSON, Set.of("AAPL"), null, false);
+		runQueued();
+		for (int i = 1; i <= 5; i++) {
+			service.append(new Stock("AAPL", 100 + i), i);
+		}
+
+		assertEquals(1, runQueued());
+		assertEquals(2.0, events());
+		// The rest waits behind the other consumers
+		assertEquals(1, runQueued());
+		assertEquals(4.0, events());
+		assertEquals(1, runQueued());
+		assertEquals(5.0, events());
+		assertEquals(0, runQueued());
+	}
+
+	@Test
+	void consumerTooFarBehindIsClosed() {
+		service.open(TickStreamService.Format.NDJSON, null, null, false);
+		runQueued();
+		for (int i = 1; i <= 20; i++) {
+			service.append(new Stock("AAPL", 100 + i), i);
+		}
+
+		runQueued();
+		assertEquals(0.0, events());
+		assertEquals(1.0, meterRegistry.get("stock.stream.http.overflows").functionCounter().count());
+		assertEquals(0.0, meterRegistry.get("stock.stream.http.consumers").gauge().value());
+		service.append(new Stock("AAPL", 200), 21);
+		assertEquals(0, runQueued());
+	}
+
+	private double events() {
+		return meterRegistry.get("stock.stream.http.events").functionCounter().count();
+	}
+
+	private int runQueued() {
+		List<Runnable> tasks = new ArrayList<>(queued);
+		queued.clear();
+		tasks.forEach(Runnable::run);
+		return tasks.size();
+	}
+
+	private class ManualExecutor extends AbstractExecutorService {
+
+		@Override
+		public void execute(Runnable command) {
+			queued.add(command);
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return List.of();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return false;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) {
+			return true;
+		}
+	}
+}
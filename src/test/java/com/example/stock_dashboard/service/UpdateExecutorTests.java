@@ -0,0 +1,120 @@
+package com.example.stock_dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateExecutorTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private UpdateExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		executor = new UpdateExecutor();
+		ReflectionTestUtils.setField(executor, "poolSize", 4);
+		ReflectionTestUtils.setField(executor, "queueCapacity", 2);
+		ReflectionTestUtils.setField(executor, "shutdownTimeoutMs", 1000L);
+		ReflectionTestUtils.setField(executor, "meterRegistry", registry);
+		executor.start();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdown();
+	}
+
+	@Test
+	void tasksForTheSameKeyNeverOverlap() throws Exception {
+		CompletableFuture<String> firstPending = new CompletableFuture<>();
+		List<String> events = new CopyOnWriteArrayList<>();
+
+		CompletableFuture<String> first = executor.submit("AAPL", () -> {
+			events.add("first-start");
+			return firstPending;
+		});
+		CompletableFuture<String> second = executor.submit("AAPL", () -> {
+			events.add("second-start");
+			return CompletableFuture.completedFuture("second");
+		});
+		CompletableFuture<String> other = executor.submit("MSFT", () -> CompletableFuture.completedFuture("other"));
+
+		assertEquals("other", other.get(1, TimeUnit.SECONDS));
+		Thread.sleep(50);
+		assertEquals(List.of("first-start"), events);
+
+		firstPending.complete("first");
+		assertEquals("second", second.get(1, TimeUnit.SECONDS));
+		assertEquals("first", first.join());
+		assertEquals(List.of("first-start", "second-start"), events);
+	}
+
+	@Test
+	void aKeyHasAtMostOneWaitingUpdate() throws Exception {
+		CompletableFuture<String> firstPending = new CompletableFuture<>();
+		AtomicInteger runs = new AtomicInteger();
+
+		executor.submit("AAPL", () -> firstPending);
+		CompletableFuture<String> second = executor.submit("AAPL", () -> {
+			runs.incrementAndGet();
+			return CompletableFuture.completedFuture("second");
+		});
+		CompletableFuture<String> third = executor.submit("AAPL", () -> {
+			runs.incrementAndGet();
+			return CompletableFuture.completedFuture("third");
+		});
+		// Not merged: runs after both
+		CompletableFuture<String> enqueued = executor.enqueue("AAPL", () -> {
+			runs.incrementAndGet();
+			return CompletableFuture.completedFuture("enqueued");
+		});
+
+		assertSame(second, third);
+		firstPending.complete("first");
+		assertEquals("second", third.get(1, TimeUnit.SECONDS));
+		assertEquals("enqueued", enqueued.get(1, TimeUnit.SECONDS));
+		assertEquals(2, runs.get());
+		assertEquals(1.0, registry.get("stock.update.tasks").tag("result", "coalesced").functionCounter().count());
+	}
+
+	@Test
+	void cycleBarrierWaitsForEveryKey() throws Exception {
+		AtomicInteger done = new AtomicInteger();
+		List<Integer> results = executor.submitAll(List.of("A", "B", "C"),
+				key -> CompletableFuture.supplyAsync(() -> {
+					done.incrementAndGet();
+					return key.length();
+				})).get(1, TimeUnit.SECONDS);
+		assertEquals(3, done.get());
+		assertEquals(List.of(1, 1, 1), results);
+	}
+
+	@Test
+	void fullQueueRejectsAndCounts() {
+		CompletableFuture<Void> blocker = new CompletableFuture<>();
+		for (int i = 0; i < 4; i++) {
+			executor.submit("busy" + i, () -> {
+				blocker.join();
+				return CompletableFuture.completedFuture(null);
+			});
+		}
+		executor.submit("q1", () -> CompletableFuture.completedFuture(null));
+		executor.submit("q2", () -> CompletableFuture.completedFuture(null));
+		CompletableFuture<Object> overflow = executor.submit("q3", () -> CompletableFuture.completedFuture(null));
+
+		assertTrue(overflow.isCompletedExceptionally());
+		assertThrows(Exception.class, overflow::join);
+		assertEquals(1.0, registry.get("stock.update.tasks").tag("result", "rejected").functionCounter().count());
+		blocker.complete(null);
+	}
+}
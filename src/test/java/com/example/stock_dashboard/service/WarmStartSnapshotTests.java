@@ -0,0 +1,52 @@
+package com.example.stock_dashboard.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmStartSnapshotTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripsBoardAndHistory() throws IOException {
+		Path file = dir.resolve("warm-start.snap");
+		WarmStartSnapshot.write(file, 1_000, List.of(
+				new WarmStartSnapshot.Entry("AAPL", 151.5, 1.5, 1.0, 900, 42, new long[]{100, 200, 300}, new double[]{150, 151, 151.5}),
+				new WarmStartSnapshot.Entry("MSFT", 300, 0, 0, 0, 0, new long[0], new double[0])));
+
+		WarmStartSnapshot.Contents contents = WarmStartSnapshot.read(file);
+		assertEquals(1_000, contents.savedAt());
+		assertEquals(2, contents.entries().size());
+		WarmStartSnapshot.Entry aapl = contents.entries().get(0);
+		assertEquals("AAPL", aapl.symbol());
+		assertEquals(151.5, aapl.price());
+		assertEquals(42, aapl.version());
+		assertArrayEquals(new long[]{100, 200, 300}, aapl.timestamps());
+		assertArrayEquals(new double[]{150, 151, 151.5}, aapl.prices());
+		assertEquals(0, contents.entries().get(1).timestamps().length);
+	}
+
+	@Test
+	void rejectsCorruptAndTruncatedFiles() throws IOException {
+		Path file = dir.resolve("warm-start.snap");
+		WarmStartSnapshot.write(file, 1_000, List.of(
+				new WarmStartSnapshot.Entry("AAPL", 151.5, 1.5, 1.0, 900, 42, new long[]{100}, new double[]{150})));
+		byte[] bytes = Files.readAllBytes(file);
+
+		bytes[20] ^= 1;
+		Files.write(file, bytes);
+		assertThrows(IOException.class, () -> WarmStartSnapshot.read(file));
+
+		Files.write(file, Arrays.copyOf(bytes, 10));
+		assertThrows(IOException.class, () -> WarmStartSnapshot.read(file));
+	}
+}